@@ -0,0 +1,127 @@
+/**
+ * Compares JMH results against the published baseline and fails on regressions
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class BaselineCheck {
+    private static final double DEFAULT_TOLERANCE = 0.25;  // Margen permitido sobre el tiempo de la linea base
+    private static final double ALLOCATION_SLACK_BYTES = 16;  // Ruido tolerado en bytes asignados por operacion
+    private static final String ALLOCATION_SUFFIX = ":gc.alloc.rate.norm";
+
+    private BaselineCheck() {
+    }
+
+    /**
+     * Checks a result file produced with {@code -rf csv} against a baseline file in the same format
+     * <p>
+     * A benchmark regresses when its score grows more than the tolerance over the baseline, or when it allocates
+     * more bytes per operation than the baseline. Benchmarks missing from either file are reported and skipped.
+     *
+     * @param args The baseline CSV, the results CSV and an optional tolerance (default 0.25, i.e. 25%)
+     * @throws IOException If a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.csv> <results.csv> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        Map<String, Double> baseline = read(Path.of(args[0]));
+        Map<String, Double> results = read(Path.of(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            Double expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.println("NEW      " + entry.getKey() + " = " + entry.getValue());
+                continue;
+            }
+            double actual = entry.getValue();
+            boolean allocation = entry.getKey().contains(ALLOCATION_SUFFIX);
+            boolean regressed = allocation
+                    ? actual > expected + ALLOCATION_SLACK_BYTES
+                    : actual > expected * (1 + tolerance);
+            String line = String.format("%-8s %s: baseline=%.2f actual=%.2f", regressed ? "REGRESS" : "OK",
+                    entry.getKey(), expected, actual);
+            System.out.println(line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("MISSING  " + key);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed against " + args[0]);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the primary scores and the allocation per operation of a JMH CSV file
+     *
+     * @param file The CSV file
+     * @return The score of each benchmark, keyed by name and parameters
+     * @throws IOException If the file cannot be read
+     */
+    static Map<String, Double> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<String> header = split(lines.get(0));
+        int name = header.indexOf("Benchmark");
+        int score = header.indexOf("Score");
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = split(line);
+            String benchmark = cells.get(name).replace("·", "");
+            if (benchmark.contains(":") && !benchmark.endsWith(ALLOCATION_SUFFIX)) {
+                continue; //Las demas metricas secundarias (gc.count, gc.time) son ruido para la comparacion
+            }
+            StringBuilder key = new StringBuilder(benchmark);
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ")) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(cells.get(i));
+                }
+            }
+            scores.put(key.toString(), Double.parseDouble(cells.get(score)));
+        }
+        return scores;
+    }
+
+    private static List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
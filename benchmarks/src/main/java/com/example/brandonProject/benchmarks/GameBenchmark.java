@@ -0,0 +1,118 @@
+/**
+ * JMH benchmarks for the hot paths of the game model
+ * Run with {@code -prof gc} to report allocation per operation
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.benchmarks;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    /** Short, long and accent-heavy secret words */
+    @Param({"sol", "electroencefalografista", "ÁrbolÉxitoÍndiceÓperaÚnicoÑandú"})
+    public String word;
+
+    private Game finished;  // Partida ya terminada para medir las comprobaciones sin cambios de estado
+    private Game repeated;  // Partida en curso en la que ya se adivino la primera letra
+    private char hit;  // Primera letra de la palabra
+    private char miss;  // Letra que no aparece en la palabra
+
+    /**
+     * A new game for every call, so the benchmarks that change the game measure the move and not the construction
+     * <p>
+     * The setup runs outside the measured time, but at nanosecond scale its timestamps still add some noise.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void setUp(GameBenchmark benchmark) {
+            game = new Game(benchmark.word);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        hit = word.charAt(0);
+        miss = 'k';
+        finished = new Game(word);
+        for (int i = 0; i < Alphabet.FREQUENCY_ORDER.length(); i++) {
+            finished.makeGuess(Alphabet.FREQUENCY_ORDER.charAt(i));
+        }
+        repeated = new Game(word);
+        repeated.makeGuess(hit);
+    }
+
+    @Benchmark
+    public Game construct() {
+        return new Game(word);
+    }
+
+    @Benchmark
+    public Game makeGuessHit(Fresh fresh) {
+        fresh.game.makeGuess(hit);
+        return fresh.game;
+    }
+
+    @Benchmark
+    public Game makeGuessMiss(Fresh fresh) {
+        fresh.game.makeGuess(miss);
+        return fresh.game;
+    }
+
+    @Benchmark
+    public Object makeGuessRepeat() {
+        return repeated.makeGuess(hit);
+    }
+
+    @Benchmark
+    public char revealLetter(Fresh fresh) {
+        return fresh.game.revealLetter();
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return finished.isGameOver();
+    }
+
+    /**
+     * Plays a whole round: guesses in frequency order until the game ends, reading the masked word after each move
+     * like the view does
+     *
+     * @return The finished game
+     */
+    @Benchmark
+    public int fullGame() {
+        Game game = new Game(word);
+        int shown = 0;
+        for (int i = 0; i < Alphabet.FREQUENCY_ORDER.length() && !game.isGameOver(); i++) {
+            game.makeGuess(Alphabet.FREQUENCY_ORDER.charAt(i));
+            shown += game.getCurrentGuess().length();
+        }
+        return shown + game.getAttempts();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * JMH benchmarks of masked-pattern lookups: the bitset pattern index against a scan of every word
+ * The word list is synthetic and seeded, with Spanish-like letter frequencies, so runs are comparable
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.benchmarks;
+
+import com.example.brandonProject.dictionary.PatternIndex;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternIndexBenchmark {
+    private static final String LETTERS = "eeeeaaaaoooossrrnnidlctumpbgvyqhfzjxkw";
+
+    /** Number of words in the list */
+    @Param({"100000"})
+    public int words;
+
+    /** Masked pattern and guessed letters of the query: early in a round and late in a round */
+    @Param({"__r__:ar", "m_r_c___go:mrcigou"})
+    public String query;
+
+    private PatternIndex index;
+    private Alphabet alphabet;
+    private List<String> list;
+    private String pattern;
+    private long guessed;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        list = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            int length = 3 + random.nextInt(10);
+            StringBuilder word = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            list.add(word.toString());
+        }
+        alphabet = Alphabet.LATIN;
+        index = PatternIndex.of(list, alphabet);
+        pattern = query.substring(0, query.indexOf(':'));
+        for (char c : query.substring(query.indexOf(':') + 1).toCharArray()) {
+            guessed |= 1L << alphabet.letterIndex(c);
+        }
+    }
+
+    @Benchmark
+    public int indexCount() {
+        return index.count(pattern, guessed);
+    }
+
+    @Benchmark
+    public int scanCount() {
+        int count = 0;
+        for (String word : list) {
+            if (matches(word)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean matches(String word) {
+        if (word.length() != pattern.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = pattern.charAt(i);
+            int letter = alphabet.letterIndex(word.charAt(i));
+            if (c == GameEngine.HIDDEN ? (guessed & (1L << letter)) != 0 : alphabet.letterIndex(c) != letter) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
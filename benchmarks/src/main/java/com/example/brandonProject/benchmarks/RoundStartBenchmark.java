@@ -0,0 +1,81 @@
+/**
+ * JMH benchmarks of starting a round: a new game built from the word, a new game over a cached template, and the
+ * current game reset in place over a cached template
+ * Run with {@code -prof gc} to check that the in-place reset allocates nothing
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.benchmarks;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.engine.WordIndexCache;
+import com.example.brandonProject.model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundStartBenchmark {
+    private static final int ROUNDS = 1024;  // Palabras sorteadas de antemano, se recorren en ciclo
+
+    private WordRepository words;
+    private WordIndexCache templates;
+    private RandomSource random;
+    private int[] ids;
+    private int next;
+    private Game game;
+
+    @Setup
+    public void setUp() throws IOException {
+        words = WordRepository.getDefault();
+        templates = words.templates();
+        random = RandomSource.seeded(42);
+        ids = new int[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            ids[i] = words.sampleId(random);
+            templates.get(ids[i]); //La cache queda caliente, como en un servidor en marcha
+        }
+        game = new Game(templates.get(ids[0]), ids[0], random);
+    }
+
+    @Benchmark
+    public Game newGameFromWord() {
+        int id = nextId();
+        return new Game(words.word(id), id, random);
+    }
+
+    @Benchmark
+    public Game newGameFromTemplate() {
+        int id = nextId();
+        return new Game(templates.get(id), id, random);
+    }
+
+    @Benchmark
+    public Game resetInPlace() {
+        int id = nextId();
+        game.reset(templates.get(id), id);
+        return game;
+    }
+
+    private int nextId() {
+        next = (next + 1) & (ROUNDS - 1);
+        return ids[next];
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * JMH benchmarks of the binary round state encoding against the text forms it replaces
+ * The text baseline is the protocol's masked-word reply; the JSON baseline carries the same fields as the binary frame
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.benchmarks;
+
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.wire.WireCodec;
+import com.example.brandonProject.wire.WireState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireBenchmark {
+    private static final int WORD_ID = 4_321;
+    private static final int HELPS = 2;
+
+    private Game game;
+    private long guessedMask;
+    private final ByteBuffer buffer = ByteBuffer.allocate(256);  // Se reutiliza en cada operacion
+    private final WireState state = new WireState();
+    private byte[] textLine;
+    private byte[] jsonLine;
+
+    @Setup
+    public void setUp() {
+        game = new Game("electroencefalografista", WORD_ID);
+        for (char c : "eaoszk".toCharArray()) {
+            game.makeGuess(c);
+        }
+        guessedMask = game.getEngine().guessedMask();
+        textLine = text().getBytes(StandardCharsets.UTF_8);
+        jsonLine = json().getBytes(StandardCharsets.UTF_8);
+        buffer.clear();
+        WireCodec.writeState(buffer, WORD_ID, null, game.getAlphabet(), guessedMask, game.getAttempts(), HELPS);
+        System.out.printf("%nbytes: binary=%d text=%d json=%d%n", buffer.position(), textLine.length, jsonLine.length);
+    }
+
+    @Benchmark
+    public int encodeBinary() {
+        buffer.clear();
+        WireCodec.writeState(buffer, WORD_ID, null, game.getAlphabet(), guessedMask, game.getAttempts(), HELPS);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public long roundTripBinary() throws IOException {
+        buffer.clear();
+        WireCodec.writeState(buffer, WORD_ID, null, game.getAlphabet(), guessedMask, game.getAttempts(), HELPS);
+        buffer.flip();
+        WireCodec.readState(buffer, state);
+        return state.getGuessedMask() + state.getAttempts();
+    }
+
+    @Benchmark
+    public byte[] encodeText() {
+        return text().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int decodeText() {
+        String[] parts = new String(textLine, StandardCharsets.UTF_8).split(" ");
+        return parts[1].length() + Integer.parseInt(parts[2]) + Integer.parseInt(parts[3]);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return json().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int decodeJson() {
+        String line = new String(jsonLine, StandardCharsets.UTF_8);
+        return field(line, "wordId") + field(line, "mask") + field(line, "attempts") + field(line, "helps");
+    }
+
+    private String text() {
+        //Respuesta STATE del protocolo de texto: palabra enmascarada, intentos y ayudas restantes
+        return "STATE " + game.getCurrentGuess() + ' ' + (GameEngine.MAX_ATTEMPTS - game.getAttempts()) + ' ' + HELPS;
+    }
+
+    private String json() {
+        return "{\"wordId\":" + WORD_ID + ",\"mask\":" + guessedMask + ",\"attempts\":" + game.getAttempts()
+                + ",\"helps\":" + HELPS + '}';
+    }
+
+    private static int field(String json, String name) {
+        int start = json.indexOf('"' + name + "\":") + name.length() + 3;
+        int end = start;
+        while (end < json.length() && (Character.isDigit(json.charAt(end)) || json.charAt(end) == '-')) {
+            end++;
+        }
+        return Integer.parseInt(json, start, end, 10);
+    }
+}
@@ -6,12 +6,25 @@
 
 package com.example.brandonProject;
 
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.view.ViewPreloader;
 import com.example.brandonProject.view.WelcomeView;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.lang.management.ManagementFactory;
+
 public class Main extends Application {
 
+    /**
+     * System property that reports the startup time: {@code log} prints it, {@code exit} prints it and closes the
+     * application once the first frame is shown and the game view is preloaded, which is how the AppCDS training run
+     * of the {@code image} profile ends
+     */
+    public static final String STARTUP_PROPERTY = "eclipsedsun.startup";
+
     /**
      * Initializes the first view (Welcome View) when starting the application
      *
@@ -20,7 +33,34 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        WelcomeView.getInstance();
+        ViewPreloader.start(); //La vista del juego se carga en segundo plano mientras se muestra la bienvenida
+        if (MetricsRegistry.ENABLED) {
+            MetricsRegistry.getDefault().registerMBean(); //Visible desde jconsole
+        }
+        WelcomeView welcome = WelcomeView.getInstance();
+        measureFirstFrame(welcome.getScene());
+    }
+
+    /**
+     * Records the time from the start of the JVM to the first pulse that lays out the welcome screen
+     *
+     * @param scene The scene of the first window
+     */
+    private static void measureFirstFrame(Scene scene) {
+        String mode = System.getProperty(STARTUP_PROPERTY, "");
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+            MetricsRegistry.getDefault().histogram("startup.firstFrame.millis").record(millis);
+            if (!mode.isEmpty()) {
+                System.out.println("Eclipsed Sun: first frame " + millis + " ms after JVM start");
+            }
+            if (mode.equals("exit")) {
+                ViewPreloader.whenDone().thenRun(() -> Platform.runLater(Platform::exit)); //Tambien se entrena la vista del juego
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
     }
 
     public static void main(String[] args) {
@@ -4,16 +4,37 @@
  */
 package com.example.brandonProject.controllers;
 
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.metrics.Histogram;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.model.GameEvent;
 import com.example.brandonProject.model.Player;
+import com.example.brandonProject.persistence.GameEventLog;
+import com.example.brandonProject.session.GameSession;
+import com.example.brandonProject.session.SessionListener;
+import com.example.brandonProject.session.SessionRegistry;
+import com.example.brandonProject.stats.Leaderboard;
+import com.example.brandonProject.stats.PlayerStats;
+import com.example.brandonProject.view.FxBatchingSubscriber;
+import com.example.brandonProject.view.SunRenderer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 
 import com.example.brandonProject.model.Game;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Game view controller
  *
@@ -23,7 +44,7 @@ public class GameController {
 
     //Referencias a los elementos visuales (FXML) de la interfaz grafica
     @FXML
-    private Label wordLabel;
+    private TextArea wordText; //Palabra o frase enmascarada, se actualiza solo en las posiciones que cambian
     @FXML
     private Label attemptsLabel;
     @FXML
@@ -35,18 +56,34 @@ public class GameController {
     @FXML
     private Canvas sunCanvas;
 
+    private static final System.Logger LOG = System.getLogger(GameController.class.getName());
+    private static final String FALLBACK_WORD = "javáfx"; //Palabra usada si no se puede cargar el diccionario
+    private static final Histogram DRAW_SUN_TIME = MetricsRegistry.getDefault().histogram("view.drawSun.nanos");
+
+    //Lee el registro de eventos fuera del hilo de JavaFX
+    private static final ExecutorService RECOVERY = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "eclipsed-sun-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     //Objeto que controla el estado del juego
     private Game game;
-    private int helpCount = 3; //Contador para limitar la cantidad de ayudas
+    private GameSession session; //Partida actual junto con las ayudas restantes
+    private Player player; //Jugador dueño de la sesion
+    private SunRenderer sunRenderer; //Dibuja el sol y solo lo repinta cuando cambian los intentos
+    private FxBatchingSubscriber<GameEvent> gameEvents; //Aplica los cambios de la partida actual, por lotes
+    private long nextEvent = -1; //Numero del proximo evento esperado, -1 antes del primero
 
     @FXML
     public void initialize() {
-        //Inicializa el juego con la palabra secreta 'javafx'
-        game = new Game("javáfx");
+        //Inicializa el juego con una palabra secreta del diccionario
+        session = new GameSession(newGame());
+        sunRenderer = new SunRenderer(sunCanvas);
         //Dibuja el sol al inicio del juego
         drawSun(0);
-        //Actualiza la interfaz con el estado actual del juego
-        updateView();
+        //Muestra el estado actual del juego y sigue sus cambios
+        watch(session.getGame());
     }
 
     @FXML
@@ -59,26 +96,23 @@ public class GameController {
         String input = inputField.getText().trim();
 
         //Validar que solo se haya ingresado un caracter
-        if (input.length() == 1 && Character.isLetter(input.charAt(0))) {
+        if (input.length() == 1 && game.isGuessable(input.charAt(0))) { //Solo letras del alfabeto de la partida
             char guess = input.charAt(0);
-            game.makeGuess(guess);
-            updateView();
+            session.guess(guess); //La vista se actualiza con los eventos de la partida
             inputField.clear();
         }else{
-            attemptsLabel.setText("Ingresa solo un caracter");
+            attemptsLabel.setText("Ingresa solo una letra");
         }
     }
 
     @FXML
     private void handleHelp() {
         //Logica para revelar una letra cuando el jugador pide ayuda
-        if (helpCount > 0 && !game.isGameOver()) {
-            char hint = game.revealLetter();  // Obtener una letra revelada
-            helpCount--;  //Reducir el contador de ayudas
-            if (helpCount == 0){
+        if (session.getHelpsLeft() > 0 && !game.isGameOver()) {
+            session.useHelp();  // Revela una letra y reduce el contador de ayudas; la vista llega por eventos
+            if (session.getHelpsLeft() == 0){
                 helpButton.setDisable(true);  //Desactivar el boton de ayuda
             }
-            updateView();  //Actualizar la vista
         } else if (game.isGameOver()) {
             attemptsLabel.setText("El juego ha terminado. Reinicia para usar la ayuda.");
         }
@@ -86,91 +120,232 @@ public class GameController {
 
     @FXML
     private void handleRestart() {
-        //Reiniciar el juego y restaura los valores iniciales
-        game = new Game("javáfx");
-        helpCount = 3;
-        updateView();
+        //Reiniciar el juego y restaura los valores iniciales; la partida se reutiliza si la palabra viene del diccionario
+        try {
+            WordRepository words = WordRepository.getDefault();
+            int wordId = words.sampleId();
+            session.restart(words.templates().get(wordId), wordId);
+        } catch (IOException e) {
+            session.restart(newGame());
+        }
+        watch(session.getGame());
         inputField.setDisable(false);
         restartButton.setDisable(true);
         helpButton.setDisable(false); //Habilitar boton de ayuda nuevamente
-        drawSun(0); //Redibujar el sol inicial
     }
 
-    private void updateView() {
-        //Actualiza la interfaz gráfica con el progreso actual del juego
-        wordLabel.setText(game.getCurrentGuess()); //Actualiza el texto del label con la palabra adivinada
-        attemptsLabel.setText("Intentos restantes: " + (5 - game.getAttempts()));
+    /**
+     * Creates a game with a random word from the shared dictionary
+     *
+     * @return The new game
+     */
+    private Game newGame() {
+        try {
+            WordRepository words = WordRepository.getDefault();
+            int wordId = words.sampleId();
+            return new Game(words.templates().get(wordId), wordId, RandomSource.threadLocal());
+        } catch (IOException e) {
+            return new Game(FALLBACK_WORD);
+        }
+    }
 
-        int attempts = game.getAttempts();
-        drawSun(attempts); //Dibujar el sol de acuerdo a los intentos
+    /**
+     * Shows a game and follows its changes from now on
+     * <p>
+     * The whole state is drawn once; after that only the events of the game touch the interface. If the view falls
+     * behind and misses events, or the stream ends, the whole state is drawn again.
+     *
+     * @param next The game to show
+     */
+    private void watch(Game next) {
+        if (gameEvents != null) {
+            gameEvents.cancel(); //Los eventos atrasados de la partida anterior ya no se aplican
+        }
+        game = next;
+        nextEvent = -1;
+        updateView();
+        gameEvents = new FxBatchingSubscriber<>(this::apply, this::updateView); //Al terminar se muestra el final
+        game.events().subscribe(gameEvents);
+    }
+
+    private void updateView() {
+        //Dibuja el estado completo del juego, solo al mostrar una partida
+        game.pullChanges(this::showChange);
+        showAttempts(game.getAttempts());
 
         if (game.isGameOver()) {
-            if (game.getCurrentGuess().equals(game.getSecretWord())) {
-                attemptsLabel.setText("¡Has ganado!");
-            } else {
-                attemptsLabel.setText("Has perdido. La palabra era: " + game.getSecretWord());
-            }
-            inputField.setDisable(true);
-            restartButton.setDisable(false);
+            showGameOver(game.isWon() ? "¡Has ganado!" + winsSummary()
+                    : "Has perdido. La palabra era: " + game.getSecretWord());
         }
     }
 
     /**
-     * Draws a sun on the canvas, which gets darker as the player fails
+     * Applies one change of the game to the interface
      *
-     * @param attempts Number of failed attempts by the player
+     * @param event The change, received on the JavaFX thread
      */
-    private void drawSun(int attempts) {
-        GraphicsContext gc = sunCanvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, sunCanvas.getWidth(), sunCanvas.getHeight());  // Limpiar el canvas
-
-        double centerX = sunCanvas.getWidth() / 2;
-        double centerY = sunCanvas.getHeight() / 2;
-        double radius = 100;
-        double pointSize = 5;
-        double angleIncrement = 72; // Cada intento cubre 72 grados (1/5 del círculo)
+    private void apply(GameEvent event) {
+        boolean missed = nextEvent >= 0 && event.getSequence() != nextEvent;
+        nextEvent = event.getSequence() + 1;
+        if (missed) {
+            updateView(); //Se perdieron eventos: el estado actual de la partida ya los incluye
+            return;
+        }
+        if (event instanceof GameEvent.LetterRevealed revealed) {
+            showRevealed(revealed);
+        } else if (event instanceof GameEvent.Miss) {
+            showAttempts(event.getAttempts());
+        } else if (event instanceof GameEvent.Won) {
+            showGameOver("¡Has ganado!" + winsSummary());
+        } else if (event instanceof GameEvent.Lost lost) {
+            showGameOver("Has perdido. La palabra era: " + lost.getSecretWord());
+        }
+    }
 
-        // Dibujar el sol con puntos blancos
-        gc.setFill(javafx.scene.paint.Color.WHITE);
-        drawPoints(gc, centerX, centerY, radius, pointSize, 0, 360); // Circulo completo
+    private void showAttempts(int attempts) {
+        attemptsLabel.setText("Intentos restantes: " + (GameEngine.MAX_ATTEMPTS - attempts));
+        drawSun(attempts); //Dibujar el sol de acuerdo a los intentos
+    }
 
-        // Dibujar el eclipse con puntos negros, segun la cantidad de errores
-        gc.setFill(javafx.scene.paint.Color.BLACK);
-        double startAngle = 0; // Angulo de inicio para los puntos negros
+    private void showGameOver(String message) {
+        attemptsLabel.setText(message);
+        inputField.setDisable(true);
+        restartButton.setDisable(false);
+    }
 
-        for (int i = 0; i < attempts; i++) {
-            drawPoints(gc, centerX, centerY, radius, pointSize, startAngle, angleIncrement);
-            startAngle += angleIncrement; // Mover el angulo de inicio para el siguiente segmento
+    /**
+     * Copies the positions uncovered by a letter to the screen, joining consecutive positions into one replacement
+     *
+     * @param revealed The uncovered positions
+     */
+    private void showRevealed(GameEvent.LetterRevealed revealed) {
+        for (int i = 0; i < revealed.size(); ) {
+            int start = revealed.position(i++);
+            int end = start + 1;
+            while (i < revealed.size() && revealed.position(i) == end) {
+                end++;
+                i++;
+            }
+            wordText.replaceText(start, end, revealed.text(start, end));
         }
     }
 
     /**
+     * Copies a changed range of the masked word to the screen
+     * <p>
+     * The first range of a game covers the whole word and replaces the previous game's text.
      *
-     * @param gc Canvas graphic backdrop
-     * @param centerX X coordinate of the center of the sun
-     * @param centerY Y coordinate of the center of the sun
-     * @param radius Radius of the circle of the sun
-     * @param pointSize Size of drawn points
-     * @param startAngle Initial angle to start drawing the points
-     * @param angleRange Range of angles at which points are drawn
+     * @param start The first changed position
+     * @param end   The position after the last changed one
      */
+    private void showChange(int start, int end) {
+        CharSequence masked = game.getMaskedWord();
+        if (start == 0 && end == masked.length()) {
+            wordText.setText(masked.toString());
+        } else {
+            wordText.replaceText(start, end, masked.subSequence(start, end).toString());
+        }
+    }
 
-    private void drawPoints(GraphicsContext gc, double centerX, double centerY, double radius, double pointSize, double startAngle, double angleRange) {
-        double angleIncrement=9; // Incremento del angulo para los puntos
+    /**
+     * Describes the wins of the current player, if any
+     *
+     * @return The text to append to the victory message, or an empty string for an anonymous game
+     */
+    private String winsSummary() {
+        PlayerStats stats = player != null ? Leaderboard.getDefault().getStats(player.getId()) : null;
+        return stats == null ? "" : " Victorias: " + stats.getWins() + " de " + stats.getGames();
+    }
 
-        for (double angle = startAngle; angle < startAngle + angleRange; angle += angleIncrement) {
-            double x = centerX + radius * Math.cos(Math.toRadians(angle));
-            double y = centerY + radius * Math.sin(Math.toRadians(angle));
-            gc.fillOval(x - pointSize / 2, y - pointSize / 2, pointSize, pointSize);  // Dibujar el punto
+    /**
+     * Draws a sun on the canvas, which gets darker as the player fails
+     * <p>
+     * The renderer keeps the state on screen, so calling this again with the same attempts draws nothing.
+     *
+     * @param attempts Number of failed attempts by the player
+     */
+    private void drawSun(int attempts) {
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        sunRenderer.show(attempts);
+        if (MetricsRegistry.ENABLED) {
+            DRAW_SUN_TIME.recordSince(start); //Tiempo en el hilo de JavaFX
         }
     }
 
     /**
      * Assign a player to the game controller
+     * <p>
+     * When {@value GameEventLog#DIRECTORY_PROPERTY} is set, the player's unfinished round is recovered from the event
+     * log on a background thread; the board takes no moves until the recovery ends.
      *
      * @param player The player who is playing.
      */
     public void setPlayer(Player player) {
-        //Logica para establecer el jugador
+        this.player = player;
+        Leaderboard.getDefault().setNickName(player.getId(), player.getNickName());
+        if (System.getProperty(GameEventLog.DIRECTORY_PROPERTY) == null) {
+            register(null); //Sin registro de eventos no hay nada que recuperar
+            return;
+        }
+
+        //Si el jugador dejo una partida sin terminar, se recupera del registro de eventos sin bloquear la interfaz
+        inputField.setDisable(true);
+        helpButton.setDisable(true);
+        CompletableFuture<GameEventLog> opened = CompletableFuture.supplyAsync(GameController::openLog, RECOVERY);
+        opened.thenApply(log -> replay(log, player.getId()))
+                .whenComplete((restored, error) -> Platform.runLater(
+                        () -> resume(error == null ? opened.join() : null, restored, error)));
+    }
+
+    /**
+     * Shows the recovered round, or logs the current one, once the event log has been read
+     *
+     * @param log      The event log, or {@code null} if it could not be read
+     * @param restored The player's last session in the log, or {@code null} if there is none
+     * @param error    Why the log could not be read, or {@code null}
+     */
+    private void resume(GameEventLog log, GameSession restored, Throwable error) {
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            LOG.log(System.Logger.Level.WARNING, "No se pudo abrir el registro de eventos", cause);
+        } else if (restored != null && !restored.getGame().isGameOver()) {
+            Game previous = session.getGame();
+            session = restored;
+            watch(session.getGame());
+            previous.closeEvents(); //Libera el publicador de la partida descartada
+        } else {
+            log.appendNewGame(player.getId(), game); //La partida actual empezo antes de conocer al jugador
+        }
+        inputField.setDisable(game.isGameOver());
+        helpButton.setDisable(session.getHelpsLeft() == 0);
+        register(log);
+    }
+
+    /**
+     * Sends the rounds of the session to the event log and the leaderboard and publishes it under the player's id
+     *
+     * @param log The event log, or {@code null} if moves are not logged
+     */
+    private void register(GameEventLog log) {
+        session.setListener(player.getId(), SessionListener.of(log, Leaderboard.getDefault())); //Las rondas terminadas van a la clasificacion
+
+        //Registra la sesion a nombre del jugador para que otros componentes la encuentren por su id
+        SessionRegistry.getDefault().put(player.getId(), session);
+    }
+
+    private static GameEventLog openLog() {
+        try {
+            return GameEventLog.getDefault();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GameSession replay(GameEventLog log, int playerId) {
+        try {
+            return log.replay(playerId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
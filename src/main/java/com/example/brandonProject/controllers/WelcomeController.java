@@ -1,5 +1,9 @@
 /**
  * Handles the welcome screen, including user interaction to enter a name
+ * <p>
+ * Each keystroke checks the nickname against the registered players on a background thread; a newer keystroke
+ * cancels the lookup of the older one, so typing never waits for the index. Registering the player, which writes and
+ * syncs the player files, runs on the same thread and the game opens once it is done.
  *
  * @author Brandon Stiven Jimenez Romero
  */
@@ -7,44 +11,187 @@
 package com.example.brandonProject.controllers;
 
 import com.example.brandonProject.model.Player;
+import com.example.brandonProject.players.NicknameIndex;
+import com.example.brandonProject.players.PlayerIdAllocator;
 import com.example.brandonProject.view.GameView;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class WelcomeController {
+    private static final System.Logger LOG = System.getLogger(WelcomeController.class.getName());
+    private static final int SUGGESTIONS = 3;
+
+    //Un solo hilo: las busquedas se atienden en orden y las canceladas ni siquiera empiezan
+    private static final ExecutorService LOOKUPS = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "eclipsed-sun-nicknames");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @FXML
     private TextField nicknameTextField;
 
+    @FXML
+    private Label nicknameStatusLabel;
+
+    private final AtomicLong generation = new AtomicLong();  // Numero de la ultima busqueda pedida
+    private Future<?> pendingLookup;  // Solo se usa en el hilo de JavaFX
+    private boolean submitting;  // Solo se usa en el hilo de JavaFX: ya se esta registrando al jugador
+
     public WelcomeController() {
     }
 
+    /**
+     * Starts loading the nickname index and checks the nickname every time it changes
+     */
+    @FXML
+    public void initialize() {
+        CompletableFuture.runAsync(WelcomeController::loadIndex, LOOKUPS);
+        nicknameTextField.textProperty().addListener((observable, previous, text) -> lookup(text));
+    }
+
     /**
      * Method that handles the event of pressing the submit button
-     * Create a new player with the name entered and proceed to the game
+     * Finds the player with the name entered, registering a new one if needed, and proceed to the game
+     * The player files are written on the lookup thread; if they cannot be written the player stays on this screen
      *
      * @param actionEvent
      * @throws IOException
      */
     @FXML
     public void onActionSendButton(ActionEvent actionEvent) throws IOException {
+        String nickname = this.nicknameTextField.getText();
+        if (!NicknameIndex.isValid(nickname)) {
+            nicknameStatusLabel.setText("Escribe un nickname de 1 a " + NicknameIndex.MAX_LENGTH + " caracteres");
+            return;
+        }
+        if (submitting) {
+            return; //Ya se esta registrando este nickname
+        }
+        submitting = true;
+        generation.incrementAndGet(); //Las busquedas pendientes ya no cambian el mensaje
+        nicknameTextField.setDisable(true);
+        nicknameStatusLabel.setText("Registrando...");
+        CompletableFuture.supplyAsync(() -> playerIdOf(nickname), LOOKUPS)
+                .whenComplete((id, error) -> Platform.runLater(() -> start(nickname, id, error)));
+    }
+
+    /**
+     * Opens the game for the registered player, or reports why the player could not be registered
+     */
+    private void start(String nickname, Integer id, Throwable error) {
+        submitting = false;
+        nicknameTextField.setDisable(false);
+        if (error != null) {
+            //Sin archivos de jugadores no hay un id seguro: un id inventado podria ser el de otro jugador
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            LOG.log(System.Logger.Level.WARNING, "No se pudo registrar el jugador", cause);
+            nicknameStatusLabel.setText("No se pudo registrar el jugador, intenta de nuevo");
+            return;
+        }
         Player player = new Player();
-        player.setId(1);
-        player.setNickName(this.nicknameTextField.getText());
-        GameView.getInstance().getGameController().setPlayer(player);
+        player.setId(id);
+        player.setNickName(nickname.trim());
+        try {
+            GameView.getInstance().getGameController().setPlayer(player);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
      * Method that handles key events when the player enters his name
+     * Pressing enter is the same as pressing the submit button
      *
      * @param event
+     * @throws IOException
      */
     @FXML
-    public void onKeyPressedNicknameTextField(KeyEvent event) {
-        //Lógica opcional para manejar eventos de teclas
+    public void onKeyPressedNicknameTextField(KeyEvent event) throws IOException {
+        if (event.getCode() == KeyCode.ENTER) {
+            event.consume();
+            onActionSendButton(null);
+        }
+    }
+
+    /**
+     * Gets the id of the player with a nickname, registering the nickname with a new id if it is free
+     * Runs on the lookup thread: it may wait for the index to load and syncs the player files
+     */
+    private static int playerIdOf(String nickname) {
+        try {
+            NicknameIndex index = NicknameIndex.getDefault();
+            int id = index.idOf(nickname);
+            return id >= 0 ? id : index.register(nickname, PlayerIdAllocator.getDefault().nextId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Asks for the status of a nickname, dropping the lookup of the previous text
+     */
+    private void lookup(String text) {
+        long current = generation.incrementAndGet();
+        if (pendingLookup != null) {
+            pendingLookup.cancel(false);
+        }
+        pendingLookup = LOOKUPS.submit(() -> {
+            if (generation.get() != current) {
+                return; //Ya se escribio otra cosa
+            }
+            String status = statusOf(text);
+            Platform.runLater(() -> {
+                if (generation.get() == current) {
+                    nicknameStatusLabel.setText(status);
+                }
+            });
+        });
+    }
+
+    /**
+     * Describes a nickname: free, or taken with some free alternatives
+     */
+    private static String statusOf(String nickname) {
+        if (nickname.isBlank()) {
+            return "";
+        }
+        if (!NicknameIndex.isValid(nickname)) {
+            return "Máximo " + NicknameIndex.MAX_LENGTH + " caracteres, sin caracteres de control";
+        }
+        NicknameIndex index;
+        try {
+            index = NicknameIndex.getDefault();
+        } catch (IOException e) {
+            return "";
+        }
+        if (!index.isTaken(nickname)) {
+            List<String> similar = index.withPrefix(nickname, SUGGESTIONS);
+            return similar.isEmpty() ? "Disponible" : "Disponible. Registrados: " + String.join(", ", similar);
+        }
+        List<String> free = index.suggestFree(nickname, SUGGESTIONS);
+        return "Ya registrado, continuarás como ese jugador. Libres: " + String.join(", ", free);
+    }
+
+    private static void loadIndex() {
+        try {
+            NicknameIndex.getDefault();
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "No se pudo cargar el indice de nicknames", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+/**
+ * Difficulty buckets used to pick secret words
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.dictionary;
+
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD;
+
+    /**
+     * Estimates the bucket of a word from its length when no scored table is available
+     * <p>
+     * Short words leave fewer letters to hit, so they are harder to guess.
+     *
+     * @param length The number of characters of the word
+     * @return The estimated difficulty
+     */
+    static Difficulty fromLength(int length) {
+        if (length >= 8) {
+            return EASY;
+        }
+        return length >= 5 ? MEDIUM : HARD;
+    }
+}
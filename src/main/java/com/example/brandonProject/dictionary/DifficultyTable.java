@@ -0,0 +1,118 @@
+/**
+ * Difficulty scores of every word of a dictionary, in dictionary order
+ * <p>
+ * Binary layout: the magic {@code ESDT}, a format version byte, the number of words as a big-endian int and then
+ * one byte per word with the misses an optimal player needed ({@value #LOST} if it lost, {@value #UNSCORED} if the
+ * word was not scored).
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.dictionary;
+
+import com.example.brandonProject.engine.GameEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public final class DifficultyTable {
+
+    /** Score of a word the player could not guess within the allowed attempts */
+    public static final int LOST = GameEngine.MAX_ATTEMPTS;
+
+    /** Score of a word that has not been scored */
+    public static final int UNSCORED = 0xFF;
+
+    /** Size of the header before the scores */
+    public static final int HEADER_SIZE = 9;
+
+    private static final int MAGIC = 0x45534454;  // "ESDT"
+    private static final byte VERSION = 1;
+
+    private final byte[] scores;
+
+    private DifficultyTable(byte[] scores) {
+        this.scores = scores;
+    }
+
+    /**
+     * Builds the header of a table file
+     *
+     * @param wordCount The number of words of the dictionary
+     * @return The header bytes, ready to be written
+     */
+    public static ByteBuffer header(int wordCount) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).putInt(wordCount).flip();
+        return header;
+    }
+
+    /**
+     * Reads a table file
+     * <p>
+     * A partially written table (from an interrupted scoring run) can be read; the missing words are unscored.
+     *
+     * @param file The table file
+     * @return The table
+     * @throws IOException If the file cannot be read or is not a difficulty table
+     */
+    public static DifficultyTable read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                //Lee la cabecera completa
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.get() != VERSION) {
+                throw new IOException("Not a difficulty table: " + file);
+            }
+            byte[] scores = new byte[header.getInt()];
+            Arrays.fill(scores, (byte) UNSCORED);
+            ByteBuffer body = ByteBuffer.wrap(scores, 0, (int) Math.min(scores.length, channel.size() - HEADER_SIZE));
+            while (body.hasRemaining() && channel.read(body) >= 0) {
+                //Lee todos los puntajes escritos
+            }
+            return new DifficultyTable(scores);
+        }
+    }
+
+    /**
+     * Gets the number of words covered by the table
+     *
+     * @return The number of words
+     */
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * Gets the score of a word
+     *
+     * @param id The word id in the dictionary
+     * @return The misses needed, {@link #LOST} or {@link #UNSCORED}
+     */
+    public int score(int id) {
+        return id < scores.length ? scores[id] & 0xFF : UNSCORED;
+    }
+
+    /**
+     * Gets the difficulty bucket of a scored word
+     *
+     * @param id The word id in the dictionary
+     * @return The bucket, or {@code null} if the word was not scored
+     */
+    public Difficulty difficulty(int id) {
+        int score = score(id);
+        if (score == UNSCORED) {
+            return null;
+        }
+        if (score <= 1) {
+            return Difficulty.EASY;
+        }
+        return score <= 3 ? Difficulty.MEDIUM : Difficulty.HARD;
+    }
+}
@@ -0,0 +1,533 @@
+/**
+ * Immutable index of a word list that answers masked-pattern queries such as {@code "j_v_fx"} with excluded letters
+ * <p>
+ * Words are folded with one of the {@link Alphabet} packs, the same one as the games whose masks are queried, and
+ * grouped by length. Each bucket stores one bitset per letter (words that contain it) and one per (position, letter)
+ * pair, together with the number of words in each pair and the list of 64-word blocks where the pair has any word. A
+ * query walks the block list of the smallest set of its revealed letters and only tests the other sets on those
+ * blocks, so its cost follows the candidates of the rarest revealed letter rather than the size of the dictionary.
+ * <p>
+ * The index is built offline into one file that is mapped read-only; every read is absolute, so one instance can be
+ * shared by any number of threads. File layout, big-endian: magic {@code "ESPI"} (int), version (int), size of the
+ * dictionary the word ids refer to (int), position of the alphabet in {@link Alphabet#packs()} (int), then the offset
+ * of the bucket of every length from 0 to {@value #MAX_LENGTH} (int, 0 when there are no words of that length). Each
+ * bucket starts on an 8-byte boundary with its number of words, of 64-bit blocks and of block list entries (int,
+ * int, int, padding), followed by the word ids (int each), the size of every (position, letter) set (int each), the
+ * start of the block list of every set plus the end of the last one (int each), the block lists (ascending block
+ * numbers, int each), the letter sets and the (position, letter) sets (one long per block each), every section padded
+ * to 8 bytes.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.dictionary;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public final class PatternIndex {
+
+    /** Longest word indexed; longer words and patterns never match */
+    public static final int MAX_LENGTH = 63;
+
+    private static final int MAGIC = 0x45535049;  // "ESPI"
+    private static final int VERSION = 2;
+    private static final int ALPHABET_OFFSET = 12;
+    private static final int DIRECTORY_OFFSET = 16;
+    private static final int HEADER_SIZE = align(DIRECTORY_OFFSET + 4 * (MAX_LENGTH + 1));
+    private static final int BUCKET_HEADER = 16;
+    private static final List<Alphabet> ALPHABETS = Alphabet.packs();
+
+    private final ByteBuffer buffer;  // Archivo completo, solo se lee con posiciones absolutas
+    private final Bucket[] buckets;  // Un grupo por cada longitud de palabra
+    private final int dictionarySize;
+    private final Alphabet alphabet;
+    private final long allLetters;  // Un bit por letra del alfabeto
+
+    private PatternIndex(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a pattern index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported pattern index version " + buffer.getInt(4) + ", rebuild it");
+        }
+        int pack = buffer.getInt(ALPHABET_OFFSET);
+        if (pack < 0 || pack >= ALPHABETS.size()) {
+            throw new IOException("Unknown alphabet in pattern index: " + pack);
+        }
+        this.buffer = buffer;
+        this.dictionarySize = buffer.getInt(8);
+        this.alphabet = ALPHABETS.get(pack);
+        this.allLetters = (1L << alphabet.size()) - 1;
+        this.buckets = new Bucket[MAX_LENGTH + 1];
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            int offset = buffer.getInt(DIRECTORY_OFFSET + 4 * length);
+            if (offset == 0) {
+                continue;
+            }
+            boolean inside = offset >= HEADER_SIZE && offset <= buffer.limit() - BUCKET_HEADER;
+            int size = inside ? buffer.getInt(offset) : -1;
+            int entries = inside ? buffer.getInt(offset + 8) : -1;
+            //Tamaños acotados por el archivo evitan desbordar los desplazamientos de las secciones
+            if (size <= 0 || size > buffer.limit() / 4 || buffer.getInt(offset + 4) != blocks(size)
+                    || entries <= 0 || entries > buffer.limit() / 4
+                    || (long) offset + Bucket.bytes(length, size, entries, alphabet.size()) > buffer.limit()) {
+                throw new IOException("Corrupt pattern index bucket for length " + length);
+            }
+            buckets[length] = new Bucket(length, offset, size, entries, alphabet.size());
+        }
+    }
+
+    /**
+     * Maps an index file built by {@link #write(WordRepository, Path)}
+     *
+     * @param file The index file
+     * @return The index over the mapped file
+     * @throws IOException If the file cannot be read or is not a pattern index
+     */
+    public static PatternIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Pattern index is too large: " + file);
+            }
+            return new PatternIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Builds the index of a repository in the default alphabet and writes it to a file
+     *
+     * @param words The dictionary to index
+     * @param file  The index file
+     * @throws IOException If the file cannot be written
+     * @see #write(WordRepository, Alphabet, Path)
+     */
+    public static void write(WordRepository words, Path file) throws IOException {
+        write(words, Alphabet.getDefault(), file);
+    }
+
+    /**
+     * Builds the index of a repository and writes it to a file
+     * <p>
+     * The index is written to a temporary file next to the target and renamed into place, so readers never map a
+     * partial index.
+     *
+     * @param words    The dictionary to index
+     * @param alphabet The alphabet pack of the games whose masks will be queried
+     * @param file     The index file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(WordRepository words, Alphabet alphabet, Path file) throws IOException {
+        ByteBuffer index = build(alphabet, words.size(), words::word);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Builds the index of a repository on the heap in the default alphabet, with the same layout as the file
+     *
+     * @param words The dictionary to index
+     * @return The index, whose word ids are the repository ids
+     */
+    public static PatternIndex of(WordRepository words) {
+        return wrap(build(Alphabet.getDefault(), words.size(), words::word));
+    }
+
+    /**
+     * Builds the index of a list of words on the heap in the default alphabet
+     *
+     * @param words The words
+     * @return The index, whose word ids are the positions in the list
+     */
+    public static PatternIndex of(List<String> words) {
+        return of(words, Alphabet.getDefault());
+    }
+
+    /**
+     * Builds the index of a list of words on the heap
+     *
+     * @param words    The words
+     * @param alphabet The alphabet pack of the games whose masks will be queried
+     * @return The index, whose word ids are the positions in the list
+     */
+    public static PatternIndex of(List<String> words, Alphabet alphabet) {
+        List<String> copy = List.copyOf(words);
+        return wrap(build(alphabet, copy.size(), copy::get));
+    }
+
+    private static PatternIndex wrap(ByteBuffer index) {
+        try {
+            return new PatternIndex(index);
+        } catch (IOException e) {
+            throw new IllegalStateException("Built an unreadable pattern index", e);
+        }
+    }
+
+    private static ByteBuffer build(Alphabet alphabet, int size, IntFunction<String> wordById) {
+        int pack = ALPHABETS.indexOf(alphabet);
+        if (pack < 0) {
+            throw new IllegalArgumentException("Not an alphabet pack: " + alphabet);
+        }
+        int letters = alphabet.size();
+
+        //Primera pasada: pliega cada palabra y cuenta las palabras y los bloques de cada conjunto (posicion, letra)
+        byte[][] folded = new byte[size][];
+        int[] counts = new int[MAX_LENGTH + 1];
+        int[][] setBlocks = new int[MAX_LENGTH + 1][];  // Por longitud: bloques con palabras de cada conjunto
+        int[][] lastBlock = new int[MAX_LENGTH + 1][];  // Por longitud: ultimo bloque contado de cada conjunto
+        int[] entries = new int[MAX_LENGTH + 1];
+        for (int id = 0; id < size; id++) {
+            byte[] word = fold(wordById.apply(id), alphabet);
+            if (word == null) {
+                continue;
+            }
+            folded[id] = word;
+            int length = word.length;
+            int block = counts[length]++ >>> 6; //Las palabras toman los lugares del grupo en orden de id
+            if (lastBlock[length] == null) {
+                setBlocks[length] = new int[length * letters];
+                lastBlock[length] = new int[length * letters];
+                Arrays.fill(lastBlock[length], -1);
+            }
+            for (int p = 0; p < length; p++) {
+                int set = p * letters + word[p];
+                if (lastBlock[length][set] != block) {
+                    lastBlock[length][set] = block;
+                    setBlocks[length][set]++;
+                    entries[length]++;
+                }
+            }
+        }
+
+        Bucket[] layout = new Bucket[MAX_LENGTH + 1];
+        int end = HEADER_SIZE;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            if (counts[length] > 0) {
+                layout[length] = new Bucket(length, end, counts[length], entries[length], letters);
+                end = layout[length].end();
+            }
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(end);
+        index.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, size).putInt(ALPHABET_OFFSET, pack);
+        int[][] cursor = new int[MAX_LENGTH + 1][];  // Por longitud: siguiente entrada libre de cada lista
+        for (Bucket bucket : layout) {
+            if (bucket == null) {
+                continue;
+            }
+            index.putInt(DIRECTORY_OFFSET + 4 * bucket.length, bucket.offset);
+            index.putInt(bucket.offset, bucket.size).putInt(bucket.offset + 4, bucket.blocks)
+                    .putInt(bucket.offset + 8, bucket.entries);
+            int[] sets = setBlocks[bucket.length];
+            cursor[bucket.length] = new int[sets.length];
+            int start = 0;
+            for (int set = 0; set < sets.length; set++) {
+                index.putInt(bucket.startOffset(set), start);
+                cursor[bucket.length][set] = start;
+                start += sets[set];
+            }
+            index.putInt(bucket.startOffset(sets.length), start);
+            Arrays.fill(lastBlock[bucket.length], -1);
+        }
+        //Segunda pasada: cada palabra enciende su bit en los conjuntos de sus letras (el buffer empieza en ceros)
+        int[] fill = new int[MAX_LENGTH + 1];
+        for (int id = 0; id < size; id++) {
+            byte[] word = folded[id];
+            if (word == null) {
+                continue;
+            }
+            Bucket bucket = layout[word.length];
+            int slot = fill[word.length]++;
+            index.putInt(bucket.idsOffset + 4 * slot, id);
+            int block = slot >>> 6;
+            long bit = 1L << slot;
+            for (int p = 0; p < word.length; p++) {
+                int with = bucket.withLetter(word[p]) + 8 * block;
+                int at = bucket.letterAt(p, word[p]) + 8 * block;
+                index.putLong(with, index.getLong(with) | bit);
+                index.putLong(at, index.getLong(at) | bit);
+                int count = bucket.countOffset(p, word[p]);
+                index.putInt(count, index.getInt(count) + 1);
+                int set = p * letters + word[p];
+                if (lastBlock[word.length][set] != block) { //Los bloques llegan en orden: la lista queda ordenada
+                    lastBlock[word.length][set] = block;
+                    index.putInt(bucket.listOffset + 4 * cursor[word.length][set]++, block);
+                }
+            }
+        }
+        return index;
+    }
+
+    private static byte[] fold(String word, Alphabet alphabet) {
+        if (word.isEmpty() || word.length() > MAX_LENGTH) {
+            return null;
+        }
+        byte[] letters = new byte[word.length()];
+        for (int i = 0; i < letters.length; i++) {
+            int letter = alphabet.letterIndex(word.charAt(i));
+            if (letter == Alphabet.NO_LETTER) {
+                return null;
+            }
+            letters[i] = (byte) letter;
+        }
+        return letters;
+    }
+
+    /**
+     * Gets the size of the dictionary the word ids refer to
+     *
+     * @return The number of words of the source dictionary, indexed or not
+     */
+    public int size() {
+        return dictionarySize;
+    }
+
+    /**
+     * Gets the alphabet the words were folded with; the {@code excluded} masks of the queries number its letters
+     *
+     * @return The alphabet pack
+     */
+    public Alphabet alphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Gets the number of indexed words of a length
+     *
+     * @param length The word length
+     * @return The number of words
+     */
+    public int size(int length) {
+        Bucket bucket = bucket(length);
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    /**
+     * Counts the words that match a masked pattern
+     *
+     * @param pattern  The masked word, with {@link GameEngine#HIDDEN} for hidden characters
+     * @param excluded Letters that cannot be at a hidden position, one bit per letter index of {@link #alphabet()}
+     * @return The number of matching words
+     * @see #matches(CharSequence, long, int)
+     */
+    public int count(CharSequence pattern, long excluded) {
+        return scan(pattern, excluded, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the words that match a masked pattern
+     * <p>
+     * A word matches when it has the length of the pattern, every revealed character folds to the same letter as the
+     * word at that position, and no hidden position holds a revealed letter (it would have been uncovered) or an
+     * excluded one. Passing the guessed-letter mask of a game as {@code excluded} gives the words still compatible
+     * with it, as long as the game was played in the alphabet of the index; bits above the alphabet are ignored.
+     * Patterns with characters outside the alphabet match nothing.
+     *
+     * @param pattern  The masked word, with {@link GameEngine#HIDDEN} for hidden characters
+     * @param excluded Letters that cannot be at a hidden position, one bit per letter index of {@link #alphabet()}
+     * @param limit    The maximum number of ids to return
+     * @return The ids of up to {@code limit} matching words, in dictionary order
+     */
+    public int[] matches(CharSequence pattern, long excluded, int limit) {
+        int[] ids = new int[Math.min(limit, size(pattern.length()))];
+        int found = scan(pattern, excluded, ids, ids.length);
+        return found == ids.length ? ids : Arrays.copyOf(ids, found);
+    }
+
+    private int scan(CharSequence pattern, long excluded, int[] out, int limit) {
+        int length = pattern.length();
+        Bucket bucket = bucket(length);
+        if (bucket == null || limit <= 0) {
+            return 0;
+        }
+
+        //Conjuntos de las posiciones reveladas; el mas pequeño guia el recorrido
+        int[] required = new int[length];
+        int requiredCount = 0;
+        int smallest = -1;
+        int smallestSet = -1;
+        long revealed = 0;
+        for (int p = 0; p < length; p++) {
+            char c = pattern.charAt(p);
+            if (c == GameEngine.HIDDEN) {
+                continue;
+            }
+            int letter = alphabet.letterIndex(c);
+            if (letter == Alphabet.NO_LETTER) {
+                return 0;
+            }
+            int count = buffer.getInt(bucket.countOffset(p, letter));
+            if (count == 0) {
+                return 0;
+            }
+            if (smallest < 0 || count < smallest) {
+                smallest = count;
+                smallestSet = bucket.set(p, letter);
+                required[requiredCount] = required[0];
+                required[0] = bucket.letterAt(p, letter);
+            } else {
+                required[requiredCount] = bucket.letterAt(p, letter);
+            }
+            requiredCount++;
+            revealed |= 1L << letter;
+        }
+
+        //Las letras reveladas no pueden estar ocultas; las excluidas no pueden estar en ninguna parte
+        long absentLetters = excluded & allLetters & ~revealed;
+        int[] forbidden = new int[Long.bitCount(absentLetters) + (length - requiredCount) * Long.bitCount(revealed)];
+        int forbiddenCount = 0;
+        for (long letters = absentLetters; letters != 0; letters &= letters - 1) {
+            forbidden[forbiddenCount++] = bucket.withLetter(Long.numberOfTrailingZeros(letters));
+        }
+        for (int p = 0; p < length; p++) {
+            if (pattern.charAt(p) == GameEngine.HIDDEN) {
+                for (long letters = revealed; letters != 0; letters &= letters - 1) {
+                    forbidden[forbiddenCount++] = bucket.letterAt(p, Long.numberOfTrailingZeros(letters));
+                }
+            }
+        }
+
+        //Solo se visitan los bloques donde el conjunto mas pequeño tiene palabras; sin letras reveladas, todos
+        int first = requiredCount > 0 ? buffer.getInt(bucket.startOffset(smallestSet)) : 0;
+        int candidates = requiredCount > 0 ? buffer.getInt(bucket.startOffset(smallestSet + 1)) - first : bucket.blocks;
+        int found = 0;
+        for (int i = 0; i < candidates && found < limit; i++) {
+            int block = requiredCount > 0 ? buffer.getInt(bucket.listOffset + 4 * (first + i)) : i;
+            int at = 8 * block;
+            long bits = requiredCount > 0 ? buffer.getLong(required[0] + at) : bucket.all(block);
+            for (int r = 1; r < requiredCount && bits != 0; r++) {
+                bits &= buffer.getLong(required[r] + at);
+            }
+            for (int f = 0; f < forbiddenCount && bits != 0; f++) {
+                bits &= ~buffer.getLong(forbidden[f] + at);
+            }
+            if (out == null) {
+                found += Long.bitCount(bits);
+                continue;
+            }
+            for (; bits != 0 && found < limit; bits &= bits - 1) {
+                out[found++] = buffer.getInt(bucket.idsOffset + 4 * ((block << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return found;
+    }
+
+    private Bucket bucket(int length) {
+        return length > 0 && length <= MAX_LENGTH ? buckets[length] : null;
+    }
+
+    private static int blocks(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    /**
+     * Builds an index file from the command line
+     *
+     * @param args The dictionary file, the output index and optionally the name of the alphabet pack
+     * @throws IOException If the index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PatternIndex <dictionary.txt> <output.bin> [alphabet]");
+            System.exit(2);
+        }
+        Alphabet alphabet = args.length > 2 ? Alphabet.forName(args[2]) : Alphabet.getDefault();
+        write(WordRepository.open(Path.of(args[0])), alphabet, Path.of(args[1]));
+    }
+
+    /**
+     * Section offsets of the words of one length
+     */
+    private static final class Bucket {
+        final int length;
+        final int offset;
+        final int size;
+        final int blocks;  // Bloques de 64 palabras de cada conjunto
+        final int entries;  // Entradas de todas las listas de bloques
+        final int letters;  // Letras del alfabeto
+        final int idsOffset;
+        final int countsOffset;
+        final int startsOffset;
+        final int listOffset;
+        final int withOffset;
+        final int atOffset;
+
+        Bucket(int length, int offset, int size, int entries, int letters) {
+            this.length = length;
+            this.offset = offset;
+            this.size = size;
+            this.blocks = blocks(size);
+            this.entries = entries;
+            this.letters = letters;
+            this.idsOffset = offset + BUCKET_HEADER;
+            this.countsOffset = align(idsOffset + 4 * size);
+            this.startsOffset = align(countsOffset + 4 * length * letters);
+            this.listOffset = align(startsOffset + 4 * (length * letters + 1));
+            this.withOffset = align(listOffset + 4 * entries);
+            this.atOffset = withOffset + 8 * letters * blocks;
+        }
+
+        int set(int position, int letter) {
+            return position * letters + letter;
+        }
+
+        int withLetter(int letter) {
+            return withOffset + 8 * letter * blocks;
+        }
+
+        int letterAt(int position, int letter) {
+            return atOffset + 8 * set(position, letter) * blocks;
+        }
+
+        int countOffset(int position, int letter) {
+            return countsOffset + 4 * set(position, letter);
+        }
+
+        int startOffset(int set) {
+            return startsOffset + 4 * set;
+        }
+
+        long all(int block) {
+            int rest = size - (block << 6);
+            return rest >= 64 ? -1L : (1L << rest) - 1;
+        }
+
+        int end() {
+            return atOffset + 8 * length * letters * blocks;
+        }
+
+        static long bytes(int length, int size, int entries, int letters) {
+            long ids = alignLong(BUCKET_HEADER + 4L * size);
+            long counts = alignLong(4L * length * letters);
+            long starts = alignLong(4L * (length * letters + 1));
+            long lists = alignLong(4L * entries);
+            return ids + counts + starts + lists + 8L * (length + 1) * letters * blocks(size);
+        }
+
+        private static long alignLong(long offset) {
+            return (offset + 7) & ~7L;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * Dictionary of secret words loaded from a memory-mapped UTF-8 file
+ * Keeps only a compact offset table on the heap; a word becomes a String when it is picked
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.dictionary;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.engine.WordIndexCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+public final class WordRepository {
+
+    /** System property with the path of the dictionary file used by {@link #getDefault()} */
+    public static final String DICTIONARY_PROPERTY = "eclipsedsun.dictionary";
+
+    /** System property with the language of the bundled list used when no dictionary file is given: es or en */
+    public static final String LANGUAGE_PROPERTY = Alphabet.LANGUAGE_PROPERTY;
+
+    /** System property with the path of an optional {@link DifficultyTable} for the default dictionary */
+    public static final String DIFFICULTY_PROPERTY = "eclipsedsun.difficulty";
+
+    /** Language of the bundled list used by default */
+    public static final String DEFAULT_LANGUAGE = Alphabet.DEFAULT_LANGUAGE;
+
+    private static final String BUNDLED_RESOURCE = "/com/example/brandonProject/words/%s.txt";
+    private static final int MAX_WORD_BYTES = 255;  // La longitud en bytes se guarda en un byte sin signo
+    private static final int TEMPLATE_CACHE_SIZE = 4096;  // Palabras preparadas que se conservan
+
+    private static volatile WordRepository defaultRepository;
+
+    private final MappedByteBuffer buffer;  // Archivo completo mapeado en memoria
+    private final int[] offsets;  // Inicio de cada palabra dentro del archivo
+    private final byte[] byteLengths;  // Longitud en bytes de cada palabra
+    private final int[][] idsByLength;  // Identificadores agrupados por cantidad de caracteres
+    private final int[][] idsByDifficulty;  // Identificadores agrupados por dificultad
+    private volatile WordIndexCache templates;  // Se crea con la primera ronda que la usa
+
+    private WordRepository(MappedByteBuffer buffer, int[] offsets, byte[] byteLengths, int[][] idsByLength,
+                           int[][] idsByDifficulty) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.byteLengths = byteLengths;
+        this.idsByLength = idsByLength;
+        this.idsByDifficulty = idsByDifficulty;
+    }
+
+    /**
+     * Maps a dictionary file and indexes its words
+     * <p>
+     * The file holds one word per line in UTF-8. Empty lines and lines starting with '#' are skipped.
+     * Only line offsets are stored; no String is created until a word is requested.
+     *
+     * @param file The dictionary file
+     * @return The repository over the file
+     * @throws IOException If the file cannot be read or is larger than 2 GB
+     */
+    public static WordRepository open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary file is too large: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int limit = buffer.limit();
+        int[] offsets = new int[Math.max(16, limit / 8)];
+        byte[] byteLengths = new byte[offsets.length];
+        int[] lengthCounts = new int[MAX_WORD_BYTES + 1];
+        char[] charLengths = new char[offsets.length];
+        int count = 0;
+
+        int start = 0;
+        while (start < limit) {
+            int end = start;
+            int chars = 0;
+            //Recorre la linea contando caracteres (los bytes de continuacion UTF-8 no cuentan)
+            while (end < limit && buffer.get(end) != '\n') {
+                if ((buffer.get(end) & 0xC0) != 0x80) {
+                    chars++;
+                }
+                end++;
+            }
+            int wordEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (wordEnd > start && wordEnd - start <= MAX_WORD_BYTES && buffer.get(start) != '#') {
+                if (wordEnd != end) {
+                    chars--; //El '\r' no forma parte de la palabra
+                }
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    byteLengths = Arrays.copyOf(byteLengths, count * 2);
+                    charLengths = Arrays.copyOf(charLengths, count * 2);
+                }
+                offsets[count] = start;
+                byteLengths[count] = (byte) (wordEnd - start);
+                charLengths[count] = (char) chars;
+                lengthCounts[chars]++;
+                count++;
+            }
+            start = end + 1;
+        }
+
+        //Agrupa los identificadores por longitud y por dificultad para muestrear en O(1)
+        int[][] byLength = new int[lengthCounts.length][];
+        for (int len = 0; len < byLength.length; len++) {
+            byLength[len] = new int[lengthCounts[len]];
+        }
+        int[] fill = new int[lengthCounts.length];
+        for (int id = 0; id < count; id++) {
+            int len = charLengths[id];
+            byLength[len][fill[len]++] = id;
+        }
+
+        return new WordRepository(buffer, Arrays.copyOf(offsets, count), Arrays.copyOf(byteLengths, count),
+                byLength, bucketByDifficulty(byLength, null));
+    }
+
+    /**
+     * Creates a view of this repository whose difficulty buckets come from a scored table
+     * <p>
+     * The mapped file and offset table are shared; only the bucket arrays are rebuilt. Words the table does not
+     * score keep the bucket estimated from their length.
+     *
+     * @param table The difficulty scores, in the same word order as this dictionary
+     * @return The repository with scored buckets
+     */
+    public WordRepository withDifficulty(DifficultyTable table) {
+        return new WordRepository(buffer, offsets, byteLengths, idsByLength, bucketByDifficulty(idsByLength, table));
+    }
+
+    /**
+     * Gets the shared repository of the application, loading it on first use
+     * <p>
+     * The file is taken from the {@value #DICTIONARY_PROPERTY} system property; without it the bundled list of the
+     * language in {@value #LANGUAGE_PROPERTY} is used, Spanish ({@code es}) by default or English ({@code en}). The
+     * bundled lists are small samples of about 160 and 90 words. If {@value #DIFFICULTY_PROPERTY} names a scored
+     * table, it defines the difficulty buckets.
+     * Later calls return the same instance, so restarting a game never reads the file again.
+     *
+     * @return The shared repository
+     * @throws IOException If the dictionary cannot be loaded
+     */
+    public static WordRepository getDefault() throws IOException {
+        WordRepository repository = defaultRepository;
+        if (repository == null) {
+            synchronized (WordRepository.class) {
+                repository = defaultRepository;
+                if (repository == null) {
+                    repository = open(defaultFile());
+                    String difficulty = System.getProperty(DIFFICULTY_PROPERTY);
+                    if (difficulty != null) {
+                        repository = repository.withDifficulty(DifficultyTable.read(Path.of(difficulty)));
+                    }
+                    defaultRepository = repository;
+                }
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * Gets the number of words
+     *
+     * @return The dictionary size
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Decodes a word by its identifier
+     *
+     * @param id The position of the word in the dictionary, from 0 to {@link #size()} - 1
+     * @return The word
+     */
+    public String word(int id) {
+        Objects.checkIndex(id, offsets.length);
+        byte[] bytes = new byte[byteLengths[id] & 0xFF];
+        buffer.get(offsets[id], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the cache of prepared word indexes of this dictionary, in the default alphabet
+     * <p>
+     * Starting a round with {@code templates().get(id)} skips decoding and folding the word when it was played
+     * recently; the least recently used of the {@value #TEMPLATE_CACHE_SIZE} templates is evicted first.
+     *
+     * @return The shared template cache
+     */
+    public WordIndexCache templates() {
+        WordIndexCache cache = templates;
+        if (cache == null) {
+            synchronized (this) {
+                cache = templates;
+                if (cache == null) {
+                    cache = new WordIndexCache(TEMPLATE_CACHE_SIZE, Alphabet.getDefault(), this::word);
+                    templates = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Picks a word identifier uniformly at random
+     *
+     * @return The identifier of the picked word
+     * @throws NoSuchElementException If the dictionary is empty
+     */
+    public int sampleId() {
+        return sampleId(RandomSource.threadLocal());
+    }
+
+    /**
+     * Picks a word identifier uniformly at random from a given source, for example a seeded one
+     *
+     * @param random The random source
+     * @return The identifier of the picked word
+     * @throws NoSuchElementException If the dictionary is empty
+     */
+    public int sampleId(RandomSource random) {
+        if (offsets.length == 0) {
+            throw new NoSuchElementException("The dictionary is empty");
+        }
+        return random.nextInt(offsets.length);
+    }
+
+    /**
+     * Picks a word identifier uniformly at random among the words of a given length
+     *
+     * @param length The number of characters of the word
+     * @return The identifier of the picked word
+     * @throws NoSuchElementException If there are no words of that length
+     */
+    public int sampleId(int length) {
+        if (length < 0 || length >= idsByLength.length) {
+            throw new NoSuchElementException("No words with " + length + " characters");
+        }
+        return pick(idsByLength[length], RandomSource.threadLocal(), "No words with " + length + " characters");
+    }
+
+    /**
+     * Picks a word identifier uniformly at random within a difficulty bucket
+     *
+     * @param difficulty The difficulty bucket
+     * @return The identifier of the picked word
+     * @throws NoSuchElementException If the bucket is empty
+     */
+    public int sampleId(Difficulty difficulty) {
+        return sampleId(difficulty, RandomSource.threadLocal());
+    }
+
+    /**
+     * Picks a word identifier uniformly at random within a difficulty bucket, from a given source
+     *
+     * @param difficulty The difficulty bucket
+     * @param random     The random source
+     * @return The identifier of the picked word
+     * @throws NoSuchElementException If the bucket is empty
+     */
+    public int sampleId(Difficulty difficulty, RandomSource random) {
+        return pick(idsByDifficulty[difficulty.ordinal()], random, "No words in bucket " + difficulty);
+    }
+
+    /**
+     * Picks a word uniformly at random
+     *
+     * @return The picked word
+     */
+    public String sample() {
+        return word(sampleId());
+    }
+
+    /**
+     * Picks a word uniformly at random within a difficulty bucket
+     *
+     * @param difficulty The difficulty bucket
+     * @return The picked word
+     */
+    public String sample(Difficulty difficulty) {
+        return word(sampleId(difficulty));
+    }
+
+    private static int pick(int[] ids, RandomSource random, String emptyMessage) {
+        if (ids.length == 0) {
+            throw new NoSuchElementException(emptyMessage);
+        }
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static int[][] bucketByDifficulty(int[][] byLength, DifficultyTable table) {
+        int total = 0;
+        for (int[] ids : byLength) {
+            total += ids.length;
+        }
+        //Se guarda el grupo de cada palabra para no consultar la tabla dos veces
+        byte[] bucketOf = new byte[total];
+        int[] counts = new int[Difficulty.values().length];
+        for (int len = 0; len < byLength.length; len++) {
+            for (int id : byLength[len]) {
+                Difficulty scored = table == null ? null : table.difficulty(id);
+                Difficulty difficulty = scored != null ? scored : Difficulty.fromLength(len);
+                bucketOf[id] = (byte) difficulty.ordinal();
+                counts[difficulty.ordinal()]++;
+            }
+        }
+
+        int[][] buckets = new int[counts.length][];
+        int[] fill = new int[counts.length];
+        for (int d = 0; d < counts.length; d++) {
+            buckets[d] = new int[counts[d]];
+        }
+        for (int id = 0; id < total; id++) {
+            buckets[bucketOf[id]][fill[bucketOf[id]]++] = id;
+        }
+        return buckets;
+    }
+
+    private static Path defaultFile() throws IOException {
+        String configured = System.getProperty(DICTIONARY_PROPERTY);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        String language = System.getProperty(LANGUAGE_PROPERTY, DEFAULT_LANGUAGE).trim().toLowerCase(Locale.ROOT);
+        InputStream bundled = language.matches("[a-z]{2}")
+                ? WordRepository.class.getResourceAsStream(String.format(BUNDLED_RESOURCE, language)) : null;
+        if (bundled == null) {
+            throw new IOException("No bundled word list for language '" + language + "', use es or en");
+        }
+        //Un recurso dentro del jar no se puede mapear: se copia una vez a un archivo temporal
+        Path copy = Files.createTempFile("eclipsed-sun-words", ".txt");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = bundled) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Alphabet of a language: its letters and how typed characters fold onto them
+ * <p>
+ * Each pack is compiled once into a dense table from character to letter index, so folding case and accents and
+ * rejecting characters outside the alphabet cost one array read. Latin packs keep 'a' to 'z' at indexes 0 to 25 and
+ * add their own letters after them: Spanish counts 'ñ' apart from 'n' and German counts 'ä', 'ö', 'ü' and 'ß' apart.
+ * Other accents fold onto the base letter ('á' is 'a'). Greek folds the tonos and the final sigma; Cyrillic keeps 'ё'
+ * and 'й' as letters of their own.
+ * <p>
+ * The default alphabet follows the language of the bundled word list unless {@value #PROPERTY} names a pack.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public final class Alphabet {
+
+    /** System property with the name of the default alphabet, for example {@code spanish} */
+    public static final String PROPERTY = "eclipsedsun.alphabet";
+
+    /** System property with the language of the game, as a two-letter code such as {@code es} or {@code en} */
+    public static final String LANGUAGE_PROPERTY = "eclipsedsun.language";
+
+    /** Language used when {@value #LANGUAGE_PROPERTY} is not set */
+    public static final String DEFAULT_LANGUAGE = "es";
+
+    /** Letters a-z in approximate order of frequency in Spanish, the order a reasonable player tries them */
+    public static final String FREQUENCY_ORDER = "eaosrnidlctumpbgvyqhfzjxkw";
+
+    /** Value returned for characters that are not letters of the alphabet */
+    public static final int NO_LETTER = -1;
+
+    /** Most letters a pack may have; the rest of the 64 mask bits are left for letters outside the alphabet */
+    public static final int MAX_LETTERS = 48;
+
+    private static final String LATIN_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final int[] LATIN_RANGES = {0, 0x180};  // Basic Latin, Latin-1 Supplement y Latin Extended-A
+    private static final int[] GREEK_RANGES = {0x370, 0x400, 0x1F00, 0x2000};  // Griego moderno y politonico
+    private static final int[] CYRILLIC_RANGES = {0x400, 0x460};
+
+    public static final Alphabet LATIN = new Alphabet("latin", LATIN_LETTERS, LATIN_RANGES, "");
+    public static final Alphabet SPANISH = new Alphabet("spanish", LATIN_LETTERS + "ñ", LATIN_RANGES, "");
+    public static final Alphabet GERMAN = new Alphabet("german", LATIN_LETTERS + "äöüß", LATIN_RANGES, "ẞß");
+    public static final Alphabet GREEK = new Alphabet("greek", "αβγδεζηθικλμνξοπρστυφχψω", GREEK_RANGES, "ςσϲσ");
+    public static final Alphabet CYRILLIC = new Alphabet("cyrillic", "абвгдеёжзийклмнопрстуфхцчшщъыьэюя",
+            CYRILLIC_RANGES, "");
+
+    private static final List<Alphabet> PACKS = List.of(LATIN, SPANISH, GERMAN, GREEK, CYRILLIC);
+
+    private static volatile Alphabet defaultAlphabet;
+
+    private final String name;
+    private final char[] letters;  // Letra canonica (minuscula) de cada indice
+    private final byte[] table;  // Indice de letra de cada caracter, NO_LETTER si no pertenece al alfabeto
+
+    /**
+     * Compiles a pack
+     *
+     * @param name    The name of the pack
+     * @param letters The lowercase letters, in index order
+     * @param ranges  Pairs of first and past-the-end characters folded through their Unicode decomposition
+     * @param aliases Pairs of characters: each first character folds onto the letter of the second one
+     */
+    private Alphabet(String name, String letters, int[] ranges, String aliases) {
+        if (letters.length() > MAX_LETTERS) {
+            throw new IllegalArgumentException("Too many letters in " + name + ": " + letters.length());
+        }
+        this.name = name;
+        this.letters = letters.toCharArray();
+
+        //Se compila una sola vez con Normalizer; despues cada consulta es una lectura del arreglo
+        byte[] folded = new byte[ranges[ranges.length - 1]];
+        Arrays.fill(folded, (byte) NO_LETTER);
+        int size = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            for (int c = ranges[r]; c < ranges[r + 1]; c++) {
+                char lower = Character.toLowerCase((char) c);
+                int index = letters.indexOf(lower);
+                if (index < 0) {
+                    //Las letras propias del alfabeto ya se buscaron: lo demas se pliega a su letra base
+                    String decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+                    index = letters.indexOf(decomposed.charAt(0));
+                }
+                folded[c] = (byte) index;
+                if (index >= 0) {
+                    size = c + 1;
+                }
+            }
+        }
+        for (int i = 0; i + 1 < aliases.length(); i += 2) {
+            size = Math.max(size, aliases.charAt(i) + 1);
+        }
+        byte[] compiled = Arrays.copyOf(folded, size);  // Se recorta tras el ultimo caracter con letra
+        for (int c = folded.length; c < size; c++) {
+            compiled[c] = NO_LETTER;
+        }
+        for (int i = 0; i + 1 < aliases.length(); i += 2) {
+            compiled[aliases.charAt(i)] = compiled[aliases.charAt(i + 1)];
+        }
+        this.table = compiled;
+    }
+
+    /**
+     * Finds a pack by name
+     *
+     * @param name The name of the pack, in any case: latin, spanish, german, greek or cyrillic
+     * @return The pack
+     * @throws IllegalArgumentException If there is no pack with that name
+     */
+    public static Alphabet forName(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        for (Alphabet pack : PACKS) {
+            if (pack.name.equals(key)) {
+                return pack;
+            }
+        }
+        throw new IllegalArgumentException("Unknown alphabet: " + name);
+    }
+
+    /**
+     * Gets every available pack
+     *
+     * @return The packs
+     */
+    public static List<Alphabet> packs() {
+        return PACKS;
+    }
+
+    /**
+     * Finds the pack that a language is written with
+     *
+     * @param language A two-letter language code, in any case: es, de, el and ru have their own packs; every other
+     *                 language, such as en, uses {@link #LATIN}
+     * @return The pack
+     */
+    public static Alphabet forLanguage(String language) {
+        return switch (language.trim().toLowerCase(Locale.ROOT)) {
+            case "es" -> SPANISH;
+            case "de" -> GERMAN;
+            case "el" -> GREEK;
+            case "ru" -> CYRILLIC;
+            default -> LATIN;
+        };
+    }
+
+    /**
+     * Gets the alphabet of new games: the one named by {@value #PROPERTY}, or else the one of the language in
+     * {@value #LANGUAGE_PROPERTY} ({@value #DEFAULT_LANGUAGE} by default)
+     *
+     * @return The default alphabet
+     * @throws IllegalArgumentException If {@value #PROPERTY} does not name a pack
+     */
+    public static Alphabet getDefault() {
+        Alphabet result = defaultAlphabet;
+        if (result == null) {
+            String name = System.getProperty(PROPERTY);
+            result = name != null ? forName(name)
+                    : forLanguage(System.getProperty(LANGUAGE_PROPERTY, DEFAULT_LANGUAGE));
+            defaultAlphabet = result;
+        }
+        return result;
+    }
+
+    /**
+     * Folds a character to its letter index, ignoring case and the accents the alphabet does not count
+     *
+     * @param c The character to fold
+     * @return The letter index between 0 and {@link #size()} - 1, or {@link #NO_LETTER}
+     */
+    public int letterIndex(char c) {
+        return c < table.length ? table[c] : NO_LETTER;
+    }
+
+    /**
+     * Check if a character can be guessed in this alphabet
+     *
+     * @param c The character typed by the player
+     * @return {@code true} if it folds to a letter of the alphabet
+     */
+    public boolean isLetter(char c) {
+        return c < table.length && table[c] != NO_LETTER;
+    }
+
+    /**
+     * Gets the canonical lowercase letter of an index
+     *
+     * @param index The letter index
+     * @return The letter
+     */
+    public char letterAt(int index) {
+        return letters[index];
+    }
+
+    /**
+     * Gets the number of letters
+     *
+     * @return The alphabet size
+     */
+    public int size() {
+        return letters.length;
+    }
+
+    /**
+     * Gets the name of the pack
+     *
+     * @return The name, in lowercase
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
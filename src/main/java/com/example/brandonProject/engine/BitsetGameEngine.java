@@ -0,0 +1,249 @@
+/**
+ * Game engine backed by primitive fields and bit masks
+ * The masked word is a char[] updated in place, so a move does not create garbage
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.util.Objects;
+
+public class BitsetGameEngine implements GameEngine {
+    private WordIndex index;  // Indice compartible de la palabra secreta
+    private char[] masked;  // Palabra enmascarada, se modifica en el lugar; puede ser mas largo que la palabra
+    private int length;  // Caracteres de la palabra dentro de masked
+    private final CharSequence maskedView = new MaskedView();
+    private final RandomSource random;  // Elige la letra de las pistas
+    private long guessedMask;  // Letras adivinadas por el jugador
+    private int attempts;  // Cantidad de intentos fallidos
+    private char[] otherGuesses;  // Intentos con letras que no tienen bit en la palabra, se crea solo si hace falta
+    private int otherCount;
+    private long unreported;  // Letras reveladas que pullChanges aun no informo
+    private boolean wholeUnreported = true;  // La primera llamada a pullChanges informa la palabra completa
+
+    /**
+     * Starts a game over a secret word
+     *
+     * @param secretWord The secret word that the player must guess
+     */
+    public BitsetGameEngine(String secretWord) {
+        this(new WordIndex(secretWord));
+    }
+
+    /**
+     * Starts a game over an already built word index
+     *
+     * @param index The index of the secret word
+     */
+    public BitsetGameEngine(WordIndex index) {
+        this(index, RandomSource.threadLocal());
+    }
+
+    /**
+     * Starts a game whose hints come from a given random source, for example a seeded one to replay a game
+     *
+     * @param index  The index of the secret word
+     * @param random The source used to pick the letter revealed by each hint
+     */
+    public BitsetGameEngine(WordIndex index, RandomSource random) {
+        this.index = index;
+        this.random = random;
+        this.length = index.length();
+        this.masked = new char[length];
+        index.copyInitialMask(masked);
+    }
+
+    /**
+     * Restores a game in progress from its saved state
+     *
+     * @param index       The index of the secret word
+     * @param guessedMask The letters already tried
+     * @param attempts    The failed attempts so far
+     */
+    public BitsetGameEngine(WordIndex index, long guessedMask, int attempts) {
+        this(index);
+        this.guessedMask = guessedMask;
+        this.attempts = attempts;
+        for (long letters = guessedMask & index.letterMask(); letters != 0; letters &= letters - 1) {
+            index.reveal(Long.numberOfTrailingZeros(letters), masked);
+        }
+    }
+
+    /**
+     * Starts a new round over another word, reusing this engine instead of creating one
+     * <p>
+     * The masked word array is kept when the new word fits in it, so with a prepared index from
+     * {@link WordIndexCache} starting a round allocates nothing.
+     *
+     * @param next The index of the new secret word
+     */
+    public void reset(WordIndex next) {
+        this.index = next;
+        this.length = next.length();
+        if (masked.length < length) {
+            masked = new char[length];
+        }
+        next.copyInitialMask(masked);
+        guessedMask = 0;
+        attempts = 0;
+        otherCount = 0;
+        unreported = 0;
+        wholeUnreported = true;
+    }
+
+    @Override
+    public GuessResult guess(char letter) {
+        if (isOver()) {
+            return GuessResult.REPEAT;
+        }
+
+        int slot = index.slotOf(letter);
+        if (slot == Alphabet.NO_LETTER) {
+            //La letra no tiene bit en esta palabra: se recuerda aparte para ignorar repeticiones
+            return recordOtherGuess(Character.toLowerCase(letter)) ? miss() : GuessResult.REPEAT;
+        }
+
+        long bit = 1L << slot;
+        if ((guessedMask & bit) != 0) {
+            return GuessResult.REPEAT;
+        }
+        guessedMask |= bit;
+
+        if ((index.letterMask() & bit) == 0) {
+            return miss();
+        }
+        index.reveal(slot, masked);
+        unreported |= bit;
+        return isWon() ? GuessResult.WON : GuessResult.HIT;
+    }
+
+    @Override
+    public char reveal() {
+        long unrevealed = index.letterMask() & ~guessedMask;
+        if (unrevealed == 0) {
+            return HIDDEN;
+        }
+
+        //Se elige uniformemente entre las letras distintas que faltan
+        for (int skip = random.nextInt(Long.bitCount(unrevealed)); skip > 0; skip--) {
+            unrevealed &= unrevealed - 1;
+        }
+        int slot = Long.numberOfTrailingZeros(unrevealed);
+        guessedMask |= 1L << slot;
+        unreported |= 1L << slot;
+        return index.reveal(slot, masked);
+    }
+
+    @Override
+    public char reveal(char letter) {
+        int slot = index.slotOf(letter);
+        if (slot == Alphabet.NO_LETTER || (index.letterMask() & ~guessedMask & (1L << slot)) == 0) {
+            return HIDDEN;
+        }
+        guessedMask |= 1L << slot;
+        unreported |= 1L << slot;
+        return index.reveal(slot, masked);
+    }
+
+    @Override
+    public void pullChanges(MaskChangeListener listener) {
+        if (wholeUnreported) {
+            wholeUnreported = false;
+            unreported = 0;
+            listener.changed(0, length);
+            return;
+        }
+        for (long letters = unreported; letters != 0; letters &= letters - 1) {
+            index.forEachRange(Long.numberOfTrailingZeros(letters), listener);
+        }
+        unreported = 0;
+    }
+
+    @Override
+    public String secretWord() {
+        return index.word();
+    }
+
+    @Override
+    public CharSequence maskedWord() {
+        return maskedView;
+    }
+
+    /**
+     * Copies the masked word into a caller-owned array
+     *
+     * @param target The array that receives the masked word, at least as long as the word
+     */
+    public void copyMaskedWord(char[] target) {
+        System.arraycopy(masked, 0, target, 0, length);
+    }
+
+    @Override
+    public int attempts() {
+        return attempts;
+    }
+
+    @Override
+    public long guessedMask() {
+        return guessedMask;
+    }
+
+    @Override
+    public boolean isWon() {
+        return (index.letterMask() & ~guessedMask) == 0;
+    }
+
+    /**
+     * Gets the index of the secret word
+     *
+     * @return The word index
+     */
+    public WordIndex index() {
+        return index;
+    }
+
+    private GuessResult miss() {
+        attempts++;
+        return attempts >= MAX_ATTEMPTS ? GuessResult.LOST : GuessResult.MISS;
+    }
+
+    private boolean recordOtherGuess(char letter) {
+        for (int i = 0; i < otherCount; i++) {
+            if (otherGuesses[i] == letter) {
+                return false;
+            }
+        }
+        if (otherGuesses == null) {
+            otherGuesses = new char[MAX_ATTEMPTS];
+        }
+        otherGuesses[otherCount++] = letter; //Nunca hay mas de MAX_ATTEMPTS fallos antes de terminar
+        return true;
+    }
+
+    /**
+     * Read-only view over the masked word array
+     */
+    private final class MaskedView implements CharSequence {
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int i) {
+            return masked[Objects.checkIndex(i, length)];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length);
+            return new String(masked, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(masked, 0, length);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Headless contract of the game "The Eclipsed Sun"
+ * Lets servers, bots and the JavaFX view drive a game without depending on a Stage or the FX thread
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+public interface GameEngine {
+
+    /** Number of failed attempts that ends the game */
+    int MAX_ATTEMPTS = 5;
+
+    /** Character shown in place of a letter that has not been guessed */
+    char HIDDEN = '_';
+
+    /**
+     * Applies a guessed letter; accents and case are ignored, so 'á' counts as 'a'
+     *
+     * @param letter The letter guessed by the player
+     * @return The outcome of the move
+     */
+    GuessResult guess(char letter);
+
+    /**
+     * Uncovers a random letter that has not been guessed yet, without spending an attempt
+     *
+     * @return The original character of the revealed letter, or {@link #HIDDEN} if nothing is left
+     */
+    char reveal();
+
+    /**
+     * Uncovers a given letter as a hint, without spending an attempt; used to replay recorded hints
+     *
+     * @param letter The letter to uncover, in any case and with or without accents
+     * @return The original character of the revealed letter, or {@link #HIDDEN} if it is not hidden in the word
+     */
+    char reveal(char letter);
+
+    /**
+     * Gets the secret word in lowercase
+     *
+     * @return The secret word
+     */
+    String secretWord();
+
+    /**
+     * Gets the masked word; the returned view is updated in place as the game advances
+     *
+     * @return A live view of the masked word
+     */
+    CharSequence maskedWord();
+
+    /**
+     * Reports the ranges of the masked word uncovered since the previous call; the first call reports the whole word
+     * <p>
+     * Only the positions of the revealed letters are visited, so a view of a long text can be kept up to date
+     * without reading the whole masked word after every move. Ranges do not overlap but are not sorted.
+     *
+     * @param listener Receives each changed range
+     */
+    void pullChanges(MaskChangeListener listener);
+
+    /**
+     * Gets the number of failed attempts
+     *
+     * @return The number of failed attempts
+     */
+    int attempts();
+
+    /**
+     * Gets the letters already tried, one bit per letter slot of the word: the letter index in the game's
+     * {@link Alphabet}, then the letters of the word outside it
+     *
+     * @return The guessed-letter mask
+     */
+    long guessedMask();
+
+    /**
+     * Check if every letter of the word has been uncovered
+     *
+     * @return {@code true} if the player won
+     */
+    boolean isWon();
+
+    /**
+     * Check if the game is over
+     *
+     * @return {@code true} if the game was won or lost
+     */
+    default boolean isOver() {
+        return attempts() >= MAX_ATTEMPTS || isWon();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Outcome of a single move in the game engine
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+public enum GuessResult {
+    /** The letter is in the word and at least one position was uncovered */
+    HIT,
+    /** The letter is not in the word, one attempt was spent */
+    MISS,
+    /** The letter was already tried, or the game is over; nothing changed */
+    REPEAT,
+    /** The move uncovered the last hidden letter */
+    WON,
+    /** The move spent the last attempt */
+    LOST;
+
+    /**
+     * Check if the move changed the masked word
+     *
+     * @return {@code true} for {@link #HIT} and {@link #WON}
+     */
+    public boolean revealed() {
+        return this == HIT || this == WON;
+    }
+
+    /**
+     * Check if the move ended the game
+     *
+     * @return {@code true} for {@link #WON} and {@link #LOST}
+     */
+    public boolean finished() {
+        return this == WON || this == LOST;
+    }
+}
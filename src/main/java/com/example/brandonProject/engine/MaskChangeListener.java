@@ -0,0 +1,19 @@
+/**
+ * Receives the ranges of a masked word that changed, so a view can update only those characters
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+@FunctionalInterface
+public interface MaskChangeListener {
+
+    /**
+     * Called for each changed range; the new characters are read from {@link GameEngine#maskedWord()}
+     *
+     * @param start The first changed position
+     * @param end   The position after the last changed one
+     */
+    void changed(int start, int end);
+}
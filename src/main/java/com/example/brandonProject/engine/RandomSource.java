@@ -0,0 +1,51 @@
+/**
+ * Source of the random numbers used to pick secret words and hints
+ * <p>
+ * The default source is {@link ThreadLocalRandom}, which shares no state between threads. A seeded source makes word
+ * picks and hints reproducible, so a replay or a load test can be run again bit for bit; it must be used by one thread
+ * at a time, and {@link #split()} gives every other thread or game its own independent stream.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+public interface RandomSource {
+
+    /**
+     * Picks a number uniformly between 0 (inclusive) and a bound (exclusive)
+     *
+     * @param bound The upper bound, which must be positive
+     * @return The picked number
+     */
+    int nextInt(int bound);
+
+    /**
+     * Creates an independent source; the streams of a seeded source and of its splits are fixed by the seed
+     *
+     * @return The new source
+     */
+    RandomSource split();
+
+    /**
+     * Gets the default source, backed by the random generator of the calling thread
+     *
+     * @return The shared, unseeded source
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    /**
+     * Creates a reproducible source, backed by a {@link SplittableRandom}
+     *
+     * @param seed The seed
+     * @return A source for a single thread
+     */
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(new SplittableRandom(seed));
+    }
+}
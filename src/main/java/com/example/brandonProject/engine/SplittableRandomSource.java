@@ -0,0 +1,27 @@
+/**
+ * Seeded source backed by a {@link SplittableRandom}; not thread-safe
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.util.SplittableRandom;
+
+final class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+
+    SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
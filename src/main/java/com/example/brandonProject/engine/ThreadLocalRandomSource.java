@@ -0,0 +1,26 @@
+/**
+ * Unseeded source backed by {@link ThreadLocalRandom}, safe to share between threads without contention
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ThreadLocalRandomSource implements RandomSource {
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return this; //Cada hilo ya tiene su propio generador
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Immutable letter index of a secret word, phrase or long text
+ * Folds the text once into a letter mask and a letter to position list index that any number of games can share;
+ * revealing a letter only touches the positions where it appears, however long the text is. Letters are numbered by an
+ * {@link Alphabet}; letters of the text outside it take the mask bits left after the alphabet
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import java.util.Arrays;
+
+public final class WordIndex {
+    private static final int MAX_SLOTS = Long.SIZE;  // Bits disponibles en las mascaras de letras
+
+    private final String word;  // Palabra secreta en minusculas
+    private final Alphabet alphabet;
+    private final long letterMask;  // Bit i encendido si la letra i aparece en la palabra
+    private final int[] slotStart;  // Las posiciones de la letra i van de positions[slotStart[i]] a positions[slotStart[i + 1]]
+    private final int[] positions;  // Posiciones de todas las letras, agrupadas por letra y en orden dentro de cada grupo
+    private final char[] extraLetters;  // Letras fuera del alfabeto (por ejemplo 'ø'), ocupan los bits que este deja libres
+    private final char[] initialMask;  // Palabra enmascarada al comenzar una partida
+
+    /**
+     * Builds the index of a word in the default alphabet
+     * <p>
+     * Characters that are not letters (spaces, hyphens) cannot be guessed and are shown from the start.
+     *
+     * @param secretWord The secret word, in any case
+     */
+    public WordIndex(String secretWord) {
+        this(secretWord, Alphabet.getDefault());
+    }
+
+    /**
+     * Builds the index of a word in a given alphabet
+     *
+     * @param secretWord The secret word, in any case
+     * @param alphabet   The alphabet that numbers the letters and folds the guesses
+     */
+    public WordIndex(String secretWord, Alphabet alphabet) {
+        this.word = secretWord.toLowerCase();
+        this.alphabet = alphabet;
+
+        int length = word.length();
+        int[] slots = new int[length];  // Letra de cada posicion, NO_LETTER si no se adivina
+        int[] counts = new int[MAX_SLOTS + 1];
+        char[] extras = new char[MAX_SLOTS - alphabet.size()];
+        int extraCount = 0;
+        long mask = 0;
+        char[] masked = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            int slot = alphabet.letterIndex(c);
+            if (slot == Alphabet.NO_LETTER && Character.isLetter(c)) {
+                //Letra fuera del alfabeto (por ejemplo 'ø'): se le asigna uno de los bits libres
+                slot = indexOf(extras, extraCount, c);
+                if (slot < 0 && extraCount < extras.length) {
+                    extras[extraCount] = c;
+                    slot = extraCount++;
+                }
+                slot = slot < 0 ? Alphabet.NO_LETTER : alphabet.size() + slot;
+            }
+            slots[i] = slot;
+            if (slot == Alphabet.NO_LETTER) {
+                masked[i] = c; //Los caracteres que no se pueden adivinar se muestran desde el inicio
+                continue;
+            }
+            counts[slot + 1]++;
+            mask |= 1L << slot;
+            masked[i] = GameEngine.HIDDEN;
+        }
+
+        //Segunda pasada: las posiciones de cada letra quedan contiguas (formato CSR)
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            counts[slot + 1] += counts[slot];
+        }
+        int[] start = counts.clone();
+        int[] list = new int[counts[MAX_SLOTS]];
+        for (int i = 0; i < length; i++) {
+            if (slots[i] != Alphabet.NO_LETTER) {
+                list[counts[slots[i]]++] = i;
+            }
+        }
+
+        this.letterMask = mask;
+        this.slotStart = start;
+        this.positions = list;
+        this.extraLetters = extraCount == extras.length ? extras : Arrays.copyOf(extras, extraCount);
+        this.initialMask = masked;
+    }
+
+    /**
+     * Gets the secret word in lowercase
+     *
+     * @return The secret word
+     */
+    public String word() {
+        return word;
+    }
+
+    /**
+     * Gets the alphabet that numbers the letters of the word
+     *
+     * @return The alphabet
+     */
+    public Alphabet alphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Gets the number of characters of the word
+     *
+     * @return The word length
+     */
+    public int length() {
+        return word.length();
+    }
+
+    /**
+     * Gets the letters that appear in the word
+     *
+     * @return One bit per letter slot
+     */
+    public long letterMask() {
+        return letterMask;
+    }
+
+    /**
+     * Finds the mask bit of a guessed letter, ignoring case and accents
+     *
+     * @param letter The letter guessed by the player
+     * @return The bit index, or {@link Alphabet#NO_LETTER} if the letter has no bit in this word
+     */
+    public int slotOf(char letter) {
+        int slot = alphabet.letterIndex(letter);
+        if (slot != Alphabet.NO_LETTER || extraLetters.length == 0) {
+            return slot;
+        }
+        int extra = indexOf(extraLetters, extraLetters.length, Character.toLowerCase(letter));
+        return extra < 0 ? Alphabet.NO_LETTER : alphabet.size() + extra;
+    }
+
+    /**
+     * Copies the masked form of the word at the start of a game
+     *
+     * @param target The array that receives the masked word, at least {@link #length()} long
+     */
+    public void copyInitialMask(char[] target) {
+        System.arraycopy(initialMask, 0, target, 0, initialMask.length);
+    }
+
+    /**
+     * Writes the masked form of the word for a set of guessed letters, without a game
+     * <p>
+     * Lets many players share one index while each keeps only a letter mask.
+     *
+     * @param guessedMask The letters guessed so far
+     * @param target      The array that receives the masked word, at least {@link #length()} long
+     */
+    public void copyMask(long guessedMask, char[] target) {
+        copyInitialMask(target);
+        for (long letters = guessedMask & letterMask; letters != 0; letters &= letters - 1) {
+            reveal(Long.numberOfTrailingZeros(letters), target);
+        }
+    }
+
+    /**
+     * Uncovers every position of a letter, keeping the original glyph
+     *
+     * @param slot   The letter slot, which must be present in {@link #letterMask()}
+     * @param masked The masked word to update in place
+     * @return The original character at the first revealed position
+     */
+    public char reveal(int slot, char[] masked) {
+        int end = slotStart[slot + 1];
+        for (int p = slotStart[slot]; p < end; p++) {
+            int i = positions[p];
+            masked[i] = word.charAt(i); //Manten la letra original (con tilde o no)
+        }
+        return word.charAt(positions[slotStart[slot]]);
+    }
+
+    /**
+     * Gets the number of positions where a letter appears
+     *
+     * @param slot The letter slot
+     * @return The number of occurrences, 0 if the letter is not in the word
+     */
+    public int occurrences(int slot) {
+        return slotStart[slot + 1] - slotStart[slot];
+    }
+
+    /**
+     * Copies the positions where a letter appears
+     *
+     * @param slot The letter slot
+     * @return The positions in increasing order, empty if the letter is not in the word
+     */
+    public int[] positionsOf(int slot) {
+        return Arrays.copyOfRange(positions, slotStart[slot], slotStart[slot + 1]);
+    }
+
+    /**
+     * Reports the positions of a letter as ranges of consecutive characters, in order
+     *
+     * @param slot     The letter slot
+     * @param listener Receives each range
+     */
+    public void forEachRange(int slot, MaskChangeListener listener) {
+        int end = slotStart[slot + 1];
+        for (int p = slotStart[slot]; p < end; ) {
+            int first = positions[p++];
+            int last = first;
+            while (p < end && positions[p] == last + 1) {
+                last = positions[p++];
+            }
+            listener.changed(first, last + 1);
+        }
+    }
+
+    private static int indexOf(char[] letters, int count, char c) {
+        for (int i = 0; i < count; i++) {
+            if (letters[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
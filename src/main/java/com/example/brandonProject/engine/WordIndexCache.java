@@ -0,0 +1,180 @@
+/**
+ * Bounded least-recently-used cache of prepared {@link WordIndex} templates, keyed by dictionary word id
+ * <p>
+ * A word index is immutable, so one template serves every round played with that word; starting a round with a
+ * cached word folds nothing and, with {@link BitsetGameEngine#reset(WordIndex)}, allocates nothing. Entries are kept
+ * in parallel arrays with an open-addressing table of entry numbers and an intrusive recency list, so a hit does not
+ * box the id or create list nodes.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.engine;
+
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+
+import java.util.function.IntFunction;
+
+public final class WordIndexCache {
+    private static final Counter HITS = MetricsRegistry.getDefault().counter("templates.hits");
+    private static final Counter MISSES = MetricsRegistry.getDefault().counter("templates.misses");
+    private static final int NONE = -1;
+
+    private final Alphabet alphabet;
+    private final IntFunction<String> words;  // Decodifica la palabra de un id cuando no esta en la cache
+    private final int[] keys;  // Id de la palabra de cada entrada
+    private final WordIndex[] values;
+    private final int[] newer;  // Lista de uso: entrada usada justo despues, NONE en la mas reciente
+    private final int[] older;  // Entrada usada justo antes, NONE en la menos reciente
+    private final int[] table;  // Numero de entrada + 1 por casilla, 0 si esta vacia
+    private final int tableMask;
+    private int newest = NONE;
+    private int oldest = NONE;
+    private int size;
+
+    /**
+     * Creates an empty cache
+     *
+     * @param capacity The maximum number of templates kept
+     * @param alphabet The alphabet of the templates
+     * @param words    Decodes the word of an id on a miss, for example {@code repository::word}
+     */
+    public WordIndexCache(int capacity, Alphabet alphabet, IntFunction<String> words) {
+        if (capacity <= 0 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.alphabet = alphabet;
+        this.words = words;
+        this.keys = new int[capacity];
+        this.values = new WordIndex[capacity];
+        this.newer = new int[capacity];
+        this.older = new int[capacity];
+        //La tabla queda a lo sumo medio llena para que las busquedas lineales sean cortas
+        int slots = Math.max(2, Integer.highestOneBit(capacity - 1) << 2);
+        this.table = new int[slots];
+        this.tableMask = slots - 1;
+    }
+
+    /**
+     * Gets the template of a word, preparing it on a miss and evicting the least recently used one if full
+     *
+     * @param wordId The id of the word in the dictionary
+     * @return The prepared index of the word
+     */
+    public synchronized WordIndex get(int wordId) {
+        int slot = find(wordId);
+        if (slot >= 0) {
+            int entry = table[slot] - 1;
+            touch(entry);
+            HITS.increment();
+            return values[entry];
+        }
+        MISSES.increment();
+        WordIndex index = new WordIndex(words.apply(wordId), alphabet);
+        int entry;
+        if (size < keys.length) {
+            entry = size++;
+        } else {
+            entry = oldest; //Se reutiliza la entrada menos usada
+            unlink(entry);
+            delete(find(keys[entry]));
+            slot = find(wordId); //El borrado pudo mover la casilla libre
+        }
+        keys[entry] = wordId;
+        values[entry] = index;
+        table[~slot] = entry + 1;
+        linkNewest(entry);
+        return index;
+    }
+
+    /**
+     * Gets the number of cached templates
+     *
+     * @return The number of templates
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the alphabet of the templates
+     *
+     * @return The alphabet
+     */
+    public Alphabet alphabet() {
+        return alphabet;
+    }
+
+    private void touch(int entry) {
+        if (entry != newest) {
+            unlink(entry);
+            linkNewest(entry);
+        }
+    }
+
+    private void unlink(int entry) {
+        if (older[entry] != NONE) {
+            newer[older[entry]] = newer[entry];
+        } else {
+            oldest = newer[entry];
+        }
+        if (newer[entry] != NONE) {
+            older[newer[entry]] = older[entry];
+        } else {
+            newest = older[entry];
+        }
+    }
+
+    private void linkNewest(int entry) {
+        older[entry] = newest;
+        newer[entry] = NONE;
+        if (newest != NONE) {
+            newer[newest] = entry;
+        } else {
+            oldest = entry;
+        }
+        newest = entry;
+    }
+
+    /**
+     * Finds the table slot of a word id
+     *
+     * @return The slot, or the complement of the empty slot where the id would go
+     */
+    private int find(int wordId) {
+        for (int slot = hash(wordId); ; slot = (slot + 1) & tableMask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return ~slot;
+            }
+            if (keys[entry - 1] == wordId) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Empties a table slot, moving back the entries of the same run so every lookup still finds them
+     */
+    private void delete(int hole) {
+        for (int slot = (hole + 1) & tableMask; ; slot = (slot + 1) & tableMask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(keys[entry - 1]);
+            //Solo se mueve si su casilla de origen no queda entre el hueco y su posicion actual
+            if (((slot - home) & tableMask) >= ((slot - hole) & tableMask)) {
+                table[hole] = entry;
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private int hash(int wordId) {
+        int h = wordId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & tableMask;
+    }
+}
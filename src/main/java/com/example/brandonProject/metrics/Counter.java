@@ -0,0 +1,50 @@
+/**
+ * Monotonic event counter backed by a {@link LongAdder}, so concurrent increments do not contend
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts one event; does nothing when metrics are disabled
+     */
+    public void increment() {
+        if (MetricsRegistry.ENABLED) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Counts several events at once; does nothing when metrics are disabled
+     *
+     * @param events The number of events
+     */
+    public void add(long events) {
+        if (MetricsRegistry.ENABLED) {
+            count.add(events);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
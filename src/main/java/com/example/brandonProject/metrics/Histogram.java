@@ -0,0 +1,140 @@
+/**
+ * Lock-free histogram of non-negative values, such as latencies in nanoseconds
+ * <p>
+ * Buckets are log-linear like an HDR histogram: every power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so any recorded value is known within 12.5% with a fixed array of {@value #BUCKETS} counters. Recording
+ * is one atomic increment of a bucket plus two striped adders; percentiles are computed when read.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Histogram {
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one value; does nothing when metrics are disabled
+     *
+     * @param value The value, negative values count as 0
+     */
+    public void record(long value) {
+        if (MetricsRegistry.ENABLED) {
+            long v = Math.max(0, value);
+            buckets.incrementAndGet(bucketOf(v));
+            count.increment();
+            sum.add(v);
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start time
+     *
+     * @param startNanos A value of {@link System#nanoTime()} taken before the measured work
+     */
+    public void recordSince(long startNanos) {
+        if (MetricsRegistry.ENABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded values
+     *
+     * @return The mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the value below which a share of the recorded values fall
+     *
+     * @param percentile The share, between 0 and 100
+     * @return The upper bound of the bucket holding that percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Gets the largest recorded value, within the precision of the buckets
+     *
+     * @return The upper bound of the highest non-empty bucket, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (buckets.get(i) != 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + (bucket % SUB_BUCKETS) * width;
+        return lower + width - 1;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Management interface of the metrics registry, published through JMX by {@link MetricsRegistry#registerMBean()}
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.metrics;
+
+import java.util.Map;
+
+public interface MetricsMXBean {
+
+    /**
+     * Gets the value of every counter and the number of values of every histogram
+     *
+     * @return The counts by metric name
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * Gets the median of every histogram
+     *
+     * @return The medians by metric name
+     */
+    Map<String, Long> getMedians();
+
+    /**
+     * Gets the 99th percentile of every histogram
+     *
+     * @return The percentiles by metric name
+     */
+    Map<String, Long> getP99s();
+
+    /**
+     * Describes every metric in the format of {@link MetricsRegistry#dump()}
+     *
+     * @return One line per metric
+     */
+    String getDump();
+
+    /**
+     * Clears every metric
+     */
+    void reset();
+}
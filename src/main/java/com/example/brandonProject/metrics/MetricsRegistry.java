@@ -0,0 +1,171 @@
+/**
+ * Named counters and histograms of the whole application
+ * <p>
+ * Metrics are on by default and are turned off with {@code -Declipsedsun.metrics=false}. The switch is a
+ * {@code static final} constant, so when it is off the JIT removes the recording code and the instrumented methods
+ * cost the same as before. Metric objects are created once, usually in a static field of the class they measure,
+ * and recording into them never takes a lock.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+public final class MetricsRegistry implements MetricsMXBean {
+
+    /** System property that turns metrics off when set to {@code false} */
+    public static final String ENABLED_PROPERTY = "eclipsedsun.metrics";
+
+    /** Whether metrics are recorded; fixed when the class is loaded */
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    /** Name under which the registry is published through JMX */
+    public static final String OBJECT_NAME = "com.example.brandonProject:type=Metrics";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Gets the registry shared by the application
+     *
+     * @return The shared registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets a counter, creating it on first use
+     *
+     * @param name The metric name
+     * @return The counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Gets a histogram, creating it on first use
+     *
+     * @param name The metric name; by convention latencies end in {@code .nanos}
+     * @return The histogram
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Gets a timer made of the counter {@code name} and the histogram {@code name.nanos}
+     *
+     * @param name The metric name
+     * @return The timer
+     */
+    public Timer timer(String name) {
+        return new Timer(counter(name), histogram(name + ".nanos"));
+    }
+
+    /**
+     * Publishes the registry in the platform MBean server under {@value #OBJECT_NAME}; later calls do nothing
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            //Ya estaba publicado
+        } catch (JMException e) {
+            throw new IllegalStateException("The metrics MBean cannot be registered", e);
+        }
+    }
+
+    /**
+     * Writes every metric, one per line, sorted by name
+     * <p>
+     * Counters are written as {@code name count}; histograms as
+     * {@code name count=n mean=m p50=a p90=b p99=c max=d}.
+     *
+     * @param out Receives the text
+     * @throws IOException If the text cannot be written
+     */
+    public void dump(Appendable out) throws IOException {
+        for (Counter counter : new TreeMap<>(counters).values()) {
+            out.append(counter.getName()).append(' ').append(Long.toString(counter.getCount())).append('\n');
+        }
+        for (Histogram histogram : new TreeMap<>(histograms).values()) {
+            out.append(histogram.getName())
+                    .append(" count=").append(Long.toString(histogram.getCount()))
+                    .append(" mean=").append(String.format("%.1f", histogram.getMean()))
+                    .append(" p50=").append(Long.toString(histogram.getPercentile(50)))
+                    .append(" p90=").append(Long.toString(histogram.getPercentile(90)))
+                    .append(" p99=").append(Long.toString(histogram.getPercentile(99)))
+                    .append(" max=").append(Long.toString(histogram.getMax()))
+                    .append('\n');
+        }
+    }
+
+    /**
+     * Describes every metric as text
+     *
+     * @return One line per metric
+     * @see #dump(Appendable)
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        try {
+            dump(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //Un StringBuilder no falla
+        }
+        return text.toString();
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((name, counter) -> counts.put(name, counter.getCount()));
+        histograms.forEach((name, histogram) -> counts.put(name, histogram.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getMedians() {
+        return histogramValues(histogram -> histogram.getPercentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99s() {
+        return histogramValues(histogram -> histogram.getPercentile(99));
+    }
+
+    @Override
+    public String getDump() {
+        return dump();
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    private Map<String, Long> histogramValues(ToLongFunction<Histogram> value) {
+        Map<String, Long> values = new TreeMap<>();
+        histograms.forEach((name, histogram) -> values.put(name, value.applyAsLong(histogram)));
+        return values;
+    }
+}
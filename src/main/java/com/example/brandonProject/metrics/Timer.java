@@ -0,0 +1,60 @@
+/**
+ * Call counter with a sampled latency histogram, for methods too fast to read the clock on every call
+ * <p>
+ * Every call is counted, but only one call in {@value #SAMPLE_EVERY} reads the clock: {@link System#nanoTime()}
+ * can cost more than the method it measures, and a uniform sample gives the same percentiles.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class Timer {
+    static final int SAMPLE_EVERY = 32;
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final Counter calls;
+    private final Histogram latency;
+
+    Timer(Counter calls, Histogram latency) {
+        this.calls = calls;
+        this.latency = latency;
+    }
+
+    /**
+     * Counts a call and decides whether to time it
+     *
+     * @return The start time to pass to {@link #stop(long)}
+     */
+    public long start() {
+        if (!MetricsRegistry.ENABLED) {
+            return NOT_SAMPLED;
+        }
+        calls.increment();
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_EVERY) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of a sampled call
+     *
+     * @param start The value returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if (MetricsRegistry.ENABLED && start != NOT_SAMPLED) {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    public Counter getCalls() {
+        return calls;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+}
@@ -1,36 +1,149 @@
 /**
  * Class that handles the logic of the game "The Eclipsed Sun"
- * Control the secret word, guessed letters and failed attempts
+ * Control the secret word, guessed letters and failed attempts; the secret can also be a phrase or a long text
+ * Every change is published as a {@link GameEvent}, so views, loggers or network sessions can follow the game
+ * without polling it
  *
  * @author Brandon Stiven Jimenez Romero
  */
 
 package com.example.brandonProject.model;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import java.text.Normalizer;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.BitsetGameEngine;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import com.example.brandonProject.engine.MaskChangeListener;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.engine.WordIndex;
+import com.example.brandonProject.engine.WordIndexCache;
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.metrics.Timer;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 public class Game {
-    private final String secretWord;  // La palabra secreta que el jugador debe adivinar
-    private final Set<Character> guessedLetters;  // Conjunto de letras adivinadas por el jugador
-    private int attempts;  // Cantidad de intentos realizados por el jugador
-    private String currentGuess;  // Estado actual de la palabra adivinada
+    private static final Timer GUESS_TIMER = MetricsRegistry.getDefault().timer("game.guess");
+    private static final Timer REVEAL_TIMER = MetricsRegistry.getDefault().timer("game.reveal");
+    private static final Counter WINS = MetricsRegistry.getDefault().counter("game.wins");
+    private static final Counter LOSSES = MetricsRegistry.getDefault().counter("game.losses");
+    private static final Counter EVENTS_DROPPED = MetricsRegistry.getDefault().counter("game.events.dropped");
+
+    private final BitsetGameEngine engine;  // Motor sin JavaFX que guarda el estado de la partida
+    private int wordId;  // Posicion de la palabra en el diccionario, -1 si no viene de uno
+    private String currentGuess;  // Copia en cache de la palabra enmascarada, null cuando cambia
+    private volatile SubmissionPublisher<GameEvent> publisher;  // Se crea con el primer suscriptor
+    private long sequence;  // Numero del proximo evento publicado
 
     /**
      * Constructor that initializes the game with a secret word
+     * <p>
+     * The word is folded once into a letter to positions index, so guesses, hints and the end of game
+     * check do not have to normalize the word again. Characters that are not letters (spaces, hyphens)
+     * cannot be guessed and are shown from the start.
      *
      * @param secretWord The secret word that the player must guess
      */
 
     public Game(String secretWord) {
-        this.secretWord = secretWord.toLowerCase(); //Guarda la palabra secreta en minusculas
-        this.guessedLetters = new HashSet<>(); //Conjunto para almacenar las letras adivinadas
-        this.attempts = 0;                      //Inicializa los intentos en 0
-        this.currentGuess = "_".repeat(secretWord.length()); //Genera los guiones bajos según la longitud de la palabra
+        this(secretWord, -1);
+    }
+
+    /**
+     * Constructor that initializes the game with a word taken from a dictionary
+     *
+     * @param secretWord The secret word that the player must guess
+     * @param wordId     The id of the word in the dictionary, or -1 if it does not come from one
+     */
+    public Game(String secretWord, int wordId) {
+        this(secretWord, wordId, RandomSource.threadLocal());
+    }
+
+    /**
+     * Constructor that initializes the game with its own random source for the hints
+     *
+     * @param secretWord The secret word that the player must guess
+     * @param wordId     The id of the word in the dictionary, or -1 if it does not come from one
+     * @param random     The source used to pick the letter revealed by each hint
+     */
+    public Game(String secretWord, int wordId, RandomSource random) {
+        this(secretWord, wordId, random, Alphabet.getDefault());
+    }
+
+    /**
+     * Constructor that initializes the game in a given alphabet
+     *
+     * @param secretWord The secret word that the player must guess
+     * @param wordId     The id of the word in the dictionary, or -1 if it does not come from one
+     * @param random     The source used to pick the letter revealed by each hint
+     * @param alphabet   The alphabet that decides which letters count apart, such as 'ñ' in Spanish
+     */
+    public Game(String secretWord, int wordId, RandomSource random, Alphabet alphabet) {
+        this.engine = new BitsetGameEngine(new WordIndex(secretWord, alphabet), random);
+        this.wordId = wordId;
+    }
+
+    /**
+     * Constructor that initializes the game over a prepared word index, for example one from a
+     * {@link WordIndexCache}, so the word is not folded again
+     *
+     * @param index  The index of the secret word
+     * @param wordId The id of the word in the dictionary, or -1 if it does not come from one
+     * @param random The source used to pick the letter revealed by each hint
+     */
+    public Game(WordIndex index, int wordId, RandomSource random) {
+        this(new BitsetGameEngine(index, random), wordId);
+    }
+
+    private Game(BitsetGameEngine engine, int wordId) {
+        this.engine = engine;
+        this.wordId = wordId;
+    }
+
+    /**
+     * Restores a game in progress from its saved state, in the default alphabet
+     *
+     * @param secretWord  The secret word
+     * @param wordId      The id of the word in the dictionary, or -1
+     * @param guessedMask The letters already tried, as returned by {@link GameEngine#guessedMask()}
+     * @param attempts    The failed attempts so far
+     * @return The restored game
+     */
+    public static Game restore(String secretWord, int wordId, long guessedMask, int attempts) {
+        return restore(secretWord, wordId, guessedMask, attempts, Alphabet.getDefault());
+    }
+
+    /**
+     * Restores a game in progress from its saved state, in a given alphabet
+     *
+     * @param secretWord  The secret word
+     * @param wordId      The id of the word in the dictionary, or -1
+     * @param guessedMask The letters already tried, as returned by {@link GameEngine#guessedMask()}
+     * @param attempts    The failed attempts so far
+     * @param alphabet    The alphabet the mask was built with
+     * @return The restored game
+     */
+    public static Game restore(String secretWord, int wordId, long guessedMask, int attempts, Alphabet alphabet) {
+        return new Game(new BitsetGameEngine(new WordIndex(secretWord, alphabet), guessedMask, attempts), wordId);
+    }
+
+    /**
+     * Starts a new round in this same game object, with a prepared word index
+     * <p>
+     * The per-round state is cleared in place instead of allocating a new game. The event stream of the previous
+     * round completes; {@link #events()} returns a new one for this round.
+     *
+     * @param index  The index of the new secret word
+     * @param wordId The id of the word in the dictionary, or -1 if it does not come from one
+     */
+    public synchronized void reset(WordIndex index, int wordId) {
+        closeEvents();
+        publisher = null;
+        engine.reset(index);
+        this.wordId = wordId;
+        currentGuess = null;
     }
 
     /**
@@ -43,112 +156,139 @@ public class Game {
      * The method ignores repeated guesses and stops processing if the game is already over.
      *
      * @param letter The letter guessed by the player. Accents will be removed, so 'a' and 'á' are treated as equivalent.
+     * @return The outcome of the guess
      */
 
-    public void makeGuess(char letter) {
-        letter = Character.toLowerCase(letter);
-
-        //Normalizar la letra ingresada por el usuario (eliminar tildes)
-        letter = normalizeCharacter(letter);
-
-        //Si la letra ya ha sido adivinada antes, no hacemos nada
-        if (guessedLetters.contains(letter) || isGameOver()) {
-            return;
-        }
-
-        guessedLetters.add(letter);
-
-        // Si la letra esta en la palabra secreta, actualizamos la palabra adivinada
-        if (normalizeString(secretWord).contains(String.valueOf(letter))) {
-            StringBuilder newGuess = new StringBuilder(currentGuess);
-            for (int i = 0; i < secretWord.length(); i++) {
-                //Se compara la version normalizada de la letra en la palabra
-                if (normalizeCharacter(secretWord.charAt(i)) == letter) {
-                    newGuess.setCharAt(i, secretWord.charAt(i)); //Manten la letra original (con tilde o no)
-                }
+    public GuessResult makeGuess(char letter) {
+        long start = GUESS_TIMER.start();
+        GuessResult result = applyGuess(letter);
+        if (MetricsRegistry.ENABLED) {
+            GUESS_TIMER.stop(start);
+            if (result == GuessResult.WON) {
+                WINS.increment();
+            } else if (result == GuessResult.LOST) {
+                LOSSES.increment();
             }
-            currentGuess = newGuess.toString();
-        } else {
-            // Incrementamos el contador de intentos si la letra no está en la palabra secreta
-            attempts++;
         }
+        return result;
     }
 
     /**
-     * Normalize a character by removing accents (tildes)
+     * Applies a recorded guess, for example to rebuild a round from a log
+     * <p>
+     * Unlike {@link #makeGuess(char)} the guess is not timed and does not count a win or a loss: those were counted
+     * when the player made it.
      *
-     * @param c The character eliminating accents (tildes)
-     * @return The character without accents
+     * @param letter The recorded letter; accents are ignored
+     * @return The outcome of the guess
      */
-    private char normalizeCharacter(char c) {
-        // Normaliza y elimina tildes
-        String normalized = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
-        return normalized.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "").charAt(0);
+    public GuessResult replayGuess(char letter) {
+        return applyGuess(letter);
     }
 
-    /**
-     * Normalizes an entire string by removing accents (tildes)
-     *
-     * @param input The string that you want to normalize
-     * @return The string without accents
-     */
-    private String normalizeString(String input) {
-        return Normalizer.normalize(input, Normalizer.Form.NFD).replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+    private GuessResult applyGuess(char letter) {
+        GuessResult result = engine.guess(letter);
+        if (result.revealed()) {
+            currentGuess = null;
+        }
+        SubmissionPublisher<GameEvent> events = publisher;
+        if (events != null && result != GuessResult.REPEAT) {
+            publishGuess(events, letter, result);
+        }
+        return result;
     }
 
     /**
      * Reveal a random unguessed letter from the secret word as a clue
      *
      * This method selects a random letter from the secret word that the player has not yet guessed
-     * updates the current guess with the revealed letter, and returns the letter to the caller
+     * updates the current guess with the revealed letter, and returns the letter to the caller.
+     * Every distinct hidden letter is equally likely, whatever its accents or number of occurrences.
      *
      * @return The revealed letter, or '_' if there are no more unrevealed letters
      */
 
     public char revealLetter() {
-        //Lista para almacenar las letras no adivinadas
-        List<Character> unrevealedLetters = new ArrayList<>();
-
-        //Recorrer la palabra secreta y añadir las letras no adivinadas a la lista
-        for (char letter : secretWord.toCharArray()) {
-            if (!guessedLetters.contains(letter)) {
-                unrevealedLetters.add(letter); //Añadir las letras no adivinadas
+        long start = REVEAL_TIMER.start();
+        char letter = engine.reveal();
+        if (letter != GameEngine.HIDDEN) {
+            currentGuess = null;
+            publishHint(letter);
+        }
+        if (MetricsRegistry.ENABLED) {
+            REVEAL_TIMER.stop(start);
+            if (letter != GameEngine.HIDDEN && engine.isWon()) {
+                WINS.increment(); //La pista destapo la ultima letra
             }
         }
+        return letter;
+    }
 
-        //Verificar si hay letras no adivinadas
-        if (!unrevealedLetters.isEmpty()){
-            //Seleccionar una letra aleatoria de las no adivinadas
-            Random rand = new Random();
-            char randomLetter = unrevealedLetters.get(rand.nextInt(unrevealedLetters.size()));
-
-            //Añadir la letra revelada a las letras adivinadas
-            guessedLetters.add(randomLetter);
+    /**
+     * Reveal a given letter of the secret word as a clue, for example to replay a recorded hint
+     *
+     * @param letter The letter to reveal; accents are ignored
+     * @return The revealed letter, or '_' if the letter is not hidden in the word
+     */
+    public char revealLetter(char letter) {
+        char revealed = engine.reveal(letter);
+        if (revealed != GameEngine.HIDDEN) {
+            currentGuess = null;
+            publishHint(revealed);
+        }
+        return revealed;
+    }
 
-            //Actualizar el estado de la palabra adivinada
-            currentGuess = updateCurrentGuess(randomLetter);
+    /**
+     * Gets the stream of changes of this game
+     * <p>
+     * Events are delivered on a shared pool, in order and with back pressure: each subscriber receives no more than it
+     * requested, and events that do not fit in a subscriber's buffer are dropped for that subscriber rather than
+     * slowing the game down. A subscriber finds the events it missed by a gap in {@link GameEvent#getSequence()}, and
+     * then reads the state of the game again. The stream completes after {@link GameEvent.Won} or
+     * {@link GameEvent.Lost}, or when {@link #closeEvents()} is called; the completion is never dropped, so a
+     * subscriber that missed the last events can still show the end of the game. A subscriber only sees the changes
+     * made after it subscribed.
+     *
+     * @return The publisher of the game events
+     */
+    public synchronized Flow.Publisher<GameEvent> events() {
+        if (publisher == null) {
+            publisher = new SubmissionPublisher<>();
+            if (engine.isOver()) {
+                publisher.close(); //La partida ya termino: no habra mas cambios
+            }
+        }
+        return publisher;
+    }
 
-            //Devolver la letra revelada
-            return randomLetter;
+    /**
+     * Completes the stream of changes, for example when the game is abandoned for a new one
+     */
+    public void closeEvents() {
+        SubmissionPublisher<GameEvent> events = publisher;
+        if (events != null) {
+            events.close();
         }
-        return '_'; //Si no quedan letras por revelar, devolver un valor por defecto
     }
 
     /**
-     * Updates the current string of guessed letters with the given letter
+     * Check if a character can be guessed in this game, with one table read for the letters of the alphabet
      *
-     * @param letter The letter was guessed correctly
-     * @return The updated chain with the letters revealed
+     * @param letter The character typed by the player
+     * @return {@code true} if it is a letter of the game's alphabet or a letter of the word outside it
      */
+    public boolean isGuessable(char letter) {
+        return engine.index().slotOf(letter) != Alphabet.NO_LETTER;
+    }
 
-    private String updateCurrentGuess(char letter) {
-        StringBuilder updatedGuess = new StringBuilder(currentGuess);
-        for (int i = 0; i < secretWord.length(); i++) {
-            if (secretWord.charAt(i) == letter) {
-                updatedGuess.setCharAt(i, letter);
-            }
-        }
-        return updatedGuess.toString();
+    /**
+     * Gets the alphabet of the game
+     *
+     * @return The alphabet that numbers the letters
+     */
+    public Alphabet getAlphabet() {
+        return engine.index().alphabet();
     }
 
     /**
@@ -158,7 +298,16 @@ public class Game {
      */
 
     public boolean isGameOver() {
-        return attempts >= 5 || currentGuess.equals(secretWord);
+        return engine.isOver();
+    }
+
+    /**
+     * Check if the player uncovered the whole word
+     *
+     * @return {@code true} if the game was won
+     */
+    public boolean isWon() {
+        return engine.isWon();
     }
 
     /**
@@ -167,7 +316,7 @@ public class Game {
      * @return The secret word
      */
     public String getSecretWord() {
-        return secretWord;
+        return engine.secretWord();
     }
 
     /**
@@ -176,15 +325,105 @@ public class Game {
      * @return The current progress chain
      */
     public String getCurrentGuess() {
+        if (currentGuess == null) {
+            currentGuess = engine.maskedWord().toString();
+        }
         return currentGuess;
     }
 
+    /**
+     * Reports the ranges of the masked word uncovered since the previous call, so a view of a long phrase can update
+     * only those characters; the first call reports the whole word
+     *
+     * @param listener Receives each changed range; the characters are read from {@link #getMaskedWord()}
+     */
+    public void pullChanges(MaskChangeListener listener) {
+        engine.pullChanges(listener);
+    }
+
+    /**
+     * Gets a live view of the masked word, without copying it
+     *
+     * @return The masked word, updated in place as the game advances
+     */
+    public CharSequence getMaskedWord() {
+        return engine.maskedWord();
+    }
+
     /**
      * Gets the number of attempts made
      *
      * @return The number of attempts
      */
     public int getAttempts() {
-        return attempts;
+        return engine.attempts();
+    }
+
+    /**
+     * Gets the id of the secret word in the dictionary it was taken from
+     *
+     * @return The word id, or -1 if the word does not come from a dictionary
+     */
+    public int getWordId() {
+        return wordId;
+    }
+
+    private void publishGuess(SubmissionPublisher<GameEvent> events, char letter, GuessResult result) {
+        if (events.hasSubscribers()) {
+            int attempts = engine.attempts();
+            if (result.revealed()) {
+                publish(events, revealedEvent(letter, attempts));
+            } else {
+                publish(events, new GameEvent.Miss(sequence++, attempts, letter));
+            }
+            if (result == GuessResult.WON) {
+                publish(events, new GameEvent.Won(sequence++, attempts));
+            } else if (result == GuessResult.LOST) {
+                publish(events, new GameEvent.Lost(sequence++, attempts, engine.secretWord()));
+            }
+        }
+        if (result.finished()) {
+            events.close();
+        }
+    }
+
+    private void publishHint(char letter) {
+        SubmissionPublisher<GameEvent> events = publisher;
+        if (events == null) {
+            return;
+        }
+        if (events.hasSubscribers()) {
+            int attempts = engine.attempts();
+            publish(events, new GameEvent.HintUsed(sequence++, attempts, letter));
+            publish(events, revealedEvent(letter, attempts));
+            if (engine.isWon()) {
+                publish(events, new GameEvent.Won(sequence++, attempts));
+            }
+        }
+        if (engine.isWon()) {
+            events.close();
+        }
+    }
+
+    private GameEvent revealedEvent(char letter, int attempts) {
+        WordIndex index = engine.index();
+        int[] positions = index.positionsOf(index.slotOf(letter));
+        return new GameEvent.LetterRevealed(sequence++, attempts, index.word(), positions);
+    }
+
+    private static void publish(SubmissionPublisher<GameEvent> events, GameEvent event) {
+        events.offer(event, (subscriber, dropped) -> {
+            EVENTS_DROPPED.increment(); //El suscriptor va atrasado: la partida no lo espera y el ve el hueco
+            return false;
+        });
+    }
+
+    /**
+     * Gets the headless engine behind this game
+     *
+     * @return The game engine
+     */
+    public GameEngine getEngine() {
+        return engine;
     }
-}
\ No newline at end of file
+}
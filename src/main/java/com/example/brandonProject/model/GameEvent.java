@@ -0,0 +1,166 @@
+/**
+ * Change in a game, published by {@link Game#events()}
+ * <p>
+ * Each event carries only what changed, so a subscriber can update its copy of the game without reading the whole
+ * state again. Events are numbered in the order the game published them: a gap in the numbers means the subscriber
+ * fell behind and missed events, and must read the state of the game again. Events are immutable and may be handed
+ * to other threads.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.model;
+
+public abstract class GameEvent {
+    private final long sequence;
+    private final int attempts;
+
+    GameEvent(long sequence, int attempts) {
+        this.sequence = sequence;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the number of the event among those published by its game, starting at 0
+     *
+     * @return The sequence number; the next event of the game has this number plus one
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the failed attempts of the game after the change
+     *
+     * @return The number of failed attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * A guess or a hint uncovered every position of a letter
+     */
+    public static final class LetterRevealed extends GameEvent {
+        private final String word;  // Palabra secreta, de ella se leen las letras reveladas
+        private final int[] positions;
+
+        LetterRevealed(long sequence, int attempts, String word, int[] positions) {
+            super(sequence, attempts);
+            this.word = word;
+            this.positions = positions;
+        }
+
+        /**
+         * Gets the number of uncovered positions
+         *
+         * @return The number of positions
+         */
+        public int size() {
+            return positions.length;
+        }
+
+        /**
+         * Gets an uncovered position, in increasing order
+         *
+         * @param i The index, from 0 to {@link #size()} - 1
+         * @return The position in the masked word
+         */
+        public int position(int i) {
+            return positions[i];
+        }
+
+        /**
+         * Gets the character shown at an uncovered position, with its original accent
+         *
+         * @param i The index, from 0 to {@link #size()} - 1
+         * @return The character of the secret word
+         */
+        public char glyph(int i) {
+            return word.charAt(positions[i]);
+        }
+
+        /**
+         * Gets the text of the secret word between two positions
+         *
+         * @param start The first position
+         * @param end   The position after the last one
+         * @return The uncovered text
+         */
+        public String text(int start, int end) {
+            return word.substring(start, end);
+        }
+    }
+
+    /**
+     * A guessed letter is not in the word and cost one attempt
+     */
+    public static final class Miss extends GameEvent {
+        private final char letter;
+
+        Miss(long sequence, int attempts, char letter) {
+            super(sequence, attempts);
+            this.letter = letter;
+        }
+
+        /**
+         * Gets the guessed letter
+         *
+         * @return The letter as typed by the player
+         */
+        public char getLetter() {
+            return letter;
+        }
+    }
+
+    /**
+     * A hint was used; it is followed by the {@link LetterRevealed} event of the letter
+     */
+    public static final class HintUsed extends GameEvent {
+        private final char letter;
+
+        HintUsed(long sequence, int attempts, char letter) {
+            super(sequence, attempts);
+            this.letter = letter;
+        }
+
+        /**
+         * Gets the revealed letter
+         *
+         * @return The letter of the secret word
+         */
+        public char getLetter() {
+            return letter;
+        }
+    }
+
+    /**
+     * The last hidden letter was uncovered; no event follows
+     */
+    public static final class Won extends GameEvent {
+        Won(long sequence, int attempts) {
+            super(sequence, attempts);
+        }
+    }
+
+    /**
+     * The last attempt was spent; no event follows
+     */
+    public static final class Lost extends GameEvent {
+        private final String secretWord;
+
+        Lost(long sequence, int attempts, String secretWord) {
+            super(sequence, attempts);
+            this.secretWord = secretWord;
+        }
+
+        /**
+         * Gets the word the player did not uncover
+         *
+         * @return The secret word
+         */
+        public String getSecretWord() {
+            return secretWord;
+        }
+    }
+}
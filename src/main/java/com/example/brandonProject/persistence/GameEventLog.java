@@ -0,0 +1,644 @@
+/**
+ * Append-only, crash-safe log of every round, guess and hint
+ * <p>
+ * Events are encoded as compact binary records in segment files that roll at a fixed size. Producers only enqueue
+ * events on a lock-free queue; a single writer thread packs whatever is pending into one batch, writes it with one
+ * {@link FileChannel} call and syncs it once (group commit). Every record points back to the previous record of the
+ * same player, so the current round of a player is rebuilt by following a short chain instead of scanning the log.
+ * <p>
+ * Record layout: length (int, whole record), CRC32C of the rest of the record (int), player id (int), event type
+ * (byte), address of the player's previous record (long, -1 if none) and the payload. A new round carries the id of
+ * the word in the dictionary (int, -1 if none), the position of its alphabet in {@link Alphabet#packs()} (byte) and
+ * the UTF-8 word with a short length prefix (a word, a phrase or a text of up to 64 KB); a guess or a hint carries
+ * one char. A record address is the segment number in the high 32 bits and the offset in the segment in the low 32
+ * bits.
+ * <p>
+ * Once a {@link SnapshotStore} has saved every session, the segments written before the snapshot are deleted, so
+ * opening the log only scans the events that came after the last snapshot.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.persistence;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+import com.example.brandonProject.session.SessionListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class GameEventLog implements SessionListener, Closeable {
+
+    /** System property with the directory used by {@link #getDefault()} */
+    public static final String DIRECTORY_PROPERTY = "eclipsedsun.eventlog";
+
+    /** Address meaning "no record" */
+    public static final long NO_ADDRESS = -1;
+
+    static final byte NEW_GAME = 1;
+    static final byte GUESS = 2;
+    static final byte HINT = 3;
+    private static final byte FLUSH = 0;  // Marcadores que no se escriben
+    private static final byte ROLL = -1;
+
+    static final int HEADER_SIZE = 21;  // length + crc + player + type + previous
+    private static final int MAX_WORD_BYTES = 0xFFFF;  // Frases y textos largos caben en el prefijo de longitud
+    private static final int ROUND_PREFIX = 4 + 1 + 2;  // Id de la palabra, alfabeto y longitud de la palabra
+    private static final int MAX_RECORD_SIZE = HEADER_SIZE + ROUND_PREFIX + MAX_WORD_BYTES;
+    private static final int READ_BUFFER_SIZE = 256;  // Se agranda solo al leer un texto largo
+    private static final int BATCH_SIZE = 1 << 20;  // Bytes maximos de un grupo de escritura
+    private static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    private static final long IDLE_PARK_NANOS = 1_000_000;  // Espera maxima del escritor sin eventos
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static volatile GameEventLog defaultLog;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final List<FileChannel> segments = new CopyOnWriteArrayList<>();  // Indice = numero de segmento, null si se compacto
+    private final Map<Integer, Long> heads = new ConcurrentHashMap<>();  // Ultimo registro durable de cada jugador
+    private final ConcurrentLinkedQueue<PendingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+
+    // Estado que solo toca el hilo escritor
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_SIZE);
+    private final List<PendingEvent> batchEvents = new ArrayList<>();
+    private final Map<Integer, Long> batchHeads = new HashMap<>();  // Registros del grupo aun no publicados
+    private final CRC32C crc = new CRC32C();
+    private long segmentPosition;  // Bytes ya escritos en el segmento actual
+    private PendingEvent carry;  // Evento que no cupo en el grupo anterior
+
+    private GameEventLog(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.writer = new Thread(this::writeLoop, "eclipsed-sun-event-log");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens a log directory, creating it if needed, and recovers the index of every player
+     * <p>
+     * A record cut short by a crash at the end of the last segment fails its checksum and is truncated away.
+     *
+     * @param directory The directory of the segment files
+     * @return The open log
+     * @throws IOException If the directory cannot be read or written
+     */
+    public static GameEventLog open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a log directory with a given segment size
+     *
+     * @param directory   The directory of the segment files
+     * @param segmentSize The size at which a segment is closed and a new one started
+     * @return The open log
+     * @throws IOException If the directory cannot be read or written
+     */
+    public static GameEventLog open(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < MAX_RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        GameEventLog log = new GameEventLog(directory, segmentSize);
+        log.recover();
+        log.writer.start();
+        return log;
+    }
+
+    /**
+     * Gets the log shared by the application, opening it on first use
+     * <p>
+     * The directory comes from the {@value #DIRECTORY_PROPERTY} system property, or {@code ~/.eclipsed-sun/events}.
+     *
+     * @return The shared log
+     * @throws IOException If the log cannot be opened
+     */
+    public static GameEventLog getDefault() throws IOException {
+        GameEventLog log = defaultLog;
+        if (log == null) {
+            synchronized (GameEventLog.class) {
+                log = defaultLog;
+                if (log == null) {
+                    String configured = System.getProperty(DIRECTORY_PROPERTY);
+                    Path directory = configured != null ? Path.of(configured)
+                            : Path.of(System.getProperty("user.home"), ".eclipsed-sun", "events");
+                    log = open(directory);
+                    defaultLog = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Records the start of a round
+     *
+     * @param playerId The player id
+     * @param game     The new game, right after it started
+     * @return Completes once the event is on disk
+     */
+    public CompletableFuture<Void> appendNewGame(int playerId, Game game) {
+        byte[] word = game.getSecretWord().getBytes(StandardCharsets.UTF_8);
+        if (word.length > MAX_WORD_BYTES) {
+            throw new IllegalArgumentException("The word is too long to be logged");
+        }
+        PendingEvent event = new PendingEvent(playerId, NEW_GAME, '\0', word);
+        event.wordId = game.getWordId();
+        event.alphabet = (byte) Alphabet.packs().indexOf(game.getAlphabet());
+        return enqueue(event);
+    }
+
+    /**
+     * Records a guessed letter
+     *
+     * @param playerId The player id
+     * @param letter   The guessed letter
+     * @return Completes once the event is on disk
+     */
+    public CompletableFuture<Void> appendGuess(int playerId, char letter) {
+        return enqueue(new PendingEvent(playerId, GUESS, letter, null));
+    }
+
+    /**
+     * Records a letter revealed by a hint
+     *
+     * @param playerId The player id
+     * @param letter   The revealed letter
+     * @return Completes once the event is on disk
+     */
+    public CompletableFuture<Void> appendHint(int playerId, char letter) {
+        return enqueue(new PendingEvent(playerId, HINT, letter, null));
+    }
+
+    @Override
+    public void onNewGame(int playerId, Game game) {
+        appendNewGame(playerId, game);
+    }
+
+    @Override
+    public void onGuess(int playerId, char letter) {
+        appendGuess(playerId, letter);
+    }
+
+    @Override
+    public void onHint(int playerId, char letter) {
+        appendHint(playerId, letter);
+    }
+
+    /**
+     * Rebuilds the current round of a player from the durable events
+     * <p>
+     * Follows the back pointers from the player's last record to the start of the round, so the cost depends on the
+     * moves of that round only.
+     *
+     * @param playerId The player id
+     * @return The session with the game and the hints left, or {@code null} if the player has no logged round
+     * @throws IOException If a record cannot be read or is corrupt
+     */
+    public GameSession replay(int playerId) throws IOException {
+        return replay(playerId, null);
+    }
+
+    /**
+     * Rebuilds the current round of a player on top of a saved session
+     * <p>
+     * If the start of the round was compacted away, the moves still in the log are applied to the saved session,
+     * which must come from a snapshot taken before those segments were deleted. Moves already reflected in the saved
+     * session change nothing, so events written while the snapshot was being taken are not counted twice.
+     *
+     * @param playerId The player id
+     * @param base     The session saved by the last snapshot, or {@code null}
+     * @return The session with the game and the hints left, or {@code base} if the log has nothing newer
+     * @throws IOException If a record cannot be read or is corrupt
+     */
+    public GameSession replay(int playerId, GameSession base) throws IOException {
+        Long head = heads.get(playerId);
+        if (head == null) {
+            return base;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        char[] moves = new char[32];
+        byte[] types = new byte[32];
+        int count = 0;
+        String word = null;
+        int wordId = -1;
+        Alphabet alphabet = Alphabet.getDefault();
+        for (long address = head; address != NO_ADDRESS && word == null; ) {
+            if (segments.get((int) (address >>> 32)) == null) {
+                break; //El inicio de la ronda ya se compacto
+            }
+            try {
+                record = readRecord(address, record);
+            } catch (ClosedChannelException e) {
+                break; //El segmento se compacto mientras se leia
+            }
+            record.position(8);
+            record.getInt(); //Id del jugador
+            byte type = record.get();
+            address = record.getLong();
+            if (type == NEW_GAME) {
+                wordId = record.getInt();
+                int pack = record.get();
+                if (pack < 0 || pack >= Alphabet.packs().size()) {
+                    throw new IOException("Unknown alphabet in event record at " + Long.toHexString(address));
+                }
+                alphabet = Alphabet.packs().get(pack);
+                word = readWord(record);
+            } else {
+                if (count == moves.length) {
+                    moves = Arrays.copyOf(moves, count * 2);
+                    types = Arrays.copyOf(types, count * 2);
+                }
+                types[count] = type;
+                moves[count++] = record.getChar();
+            }
+        }
+        if (word == null && base == null) {
+            return null;
+        }
+
+        //Los movimientos se leyeron del ultimo al primero: se aplican en orden inverso, sin contarlos otra vez en las
+        //metricas
+        Game game = word != null ? Game.restore(word, wordId, 0L, 0, alphabet) : base.getGame();
+        int helps = word != null ? GameSession.MAX_HELPS : base.getHelpsLeft();
+        for (int i = count - 1; i >= 0; i--) {
+            if (types[i] == GUESS) {
+                game.replayGuess(moves[i]);
+            } else if (game.revealLetter(moves[i]) != GameEngine.HIDDEN) {
+                helps--;
+            }
+        }
+        return new GameSession(game, Math.max(0, helps));
+    }
+
+    /**
+     * Gets the address of the last durable record of every player
+     *
+     * @return A read-only view of the player index
+     */
+    public Map<Integer, Long> heads() {
+        return Collections.unmodifiableMap(heads);
+    }
+
+    /**
+     * Gets the directory of the segment files
+     *
+     * @return The log directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Waits until every event enqueued so far is on disk
+     */
+    public void flush() {
+        enqueue(new PendingEvent(0, FLUSH, '\0', null)).join();
+    }
+
+    /**
+     * Writes the pending events and starts a new segment
+     * <p>
+     * Every event enqueued before this call ends up in an older segment, and every event enqueued after it in the
+     * returned segment or a newer one.
+     *
+     * @return The number of the new segment
+     */
+    public int startSegment() {
+        PendingEvent marker = new PendingEvent(0, ROLL, '\0', null);
+        enqueue(marker).join();
+        return marker.segment;
+    }
+
+    /**
+     * Deletes the segments older than a given one; the segment being written is never deleted
+     * <p>
+     * Players whose last record was in a deleted segment drop out of the index.
+     *
+     * @param segment The first segment to keep
+     * @return The number of deleted segments
+     * @throws IOException If a segment file cannot be deleted
+     */
+    public int deleteSegmentsBefore(int segment) throws IOException {
+        int deleted = 0;
+        int last = Math.min(segment, segments.size() - 1);
+        for (int number = 0; number < last; number++) {
+            FileChannel channel = segments.get(number);
+            if (channel == null) {
+                continue;
+            }
+            segments.set(number, null);
+            channel.close();
+            Files.deleteIfExists(directory.resolve(segmentName(number)));
+            deleted++;
+        }
+        heads.values().removeIf(address -> (address >>> 32) < last);
+        return deleted;
+    }
+
+    /**
+     * Writes the pending events and closes the segment files
+     *
+     * @throws IOException If a segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileChannel channel : segments) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(PendingEvent event) {
+        if (!running) {
+            throw new IllegalStateException("The event log is closed");
+        }
+        queue.offer(event);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return event.done;
+    }
+
+    private void writeLoop() {
+        while (running || carry != null || !queue.isEmpty()) {
+            PendingEvent first = carry != null ? carry : queue.poll();
+            carry = null;
+            if (first == null) {
+                writerParked = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+                continue;
+            }
+            try {
+                writeBatch(first);
+            } catch (IOException | RuntimeException e) {
+                for (PendingEvent event : batchEvents) {
+                    event.done.completeExceptionally(e);
+                }
+            }
+            batchEvents.clear();
+            batchHeads.clear();
+        }
+    }
+
+    /**
+     * Packs pending events into one batch, writes it and syncs it once
+     */
+    private void writeBatch(PendingEvent first) throws IOException {
+        batch.clear();
+        if (first.type == ROLL) {
+            batchEvents.add(first);
+            if (segments.isEmpty() || segmentPosition > 0) {
+                rollSegment();
+            }
+            first.segment = segments.size() - 1;
+            first.done.complete(null);
+            return;
+        }
+        if (segments.isEmpty() || segmentPosition + first.size() > segmentSize) {
+            rollSegment();
+        }
+        long segment = segments.size() - 1L;
+        for (PendingEvent event = first; event != null; event = queue.poll()) {
+            if (event.type == ROLL || batch.remaining() < event.size()
+                    || segmentPosition + batch.position() + event.size() > segmentSize) {
+                carry = event; //Va en el siguiente grupo (y quiza en el siguiente segmento)
+                break;
+            }
+            batchEvents.add(event);
+            if (event.type == FLUSH) {
+                continue; //Marcador de flush: no escribe nada
+            }
+            long address = (segment << 32) | (segmentPosition + batch.position());
+            Long previous = batchHeads.get(event.playerId);
+            if (previous == null) {
+                previous = heads.get(event.playerId);
+            }
+            encode(event, previous == null ? NO_ADDRESS : previous);
+            batchHeads.put(event.playerId, address); //Los siguientes eventos del grupo apuntan a este
+        }
+
+        FileChannel channel = segments.get((int) segment);
+        batch.flip();
+        long position = segmentPosition;
+        try {
+            while (batch.hasRemaining()) {
+                position += channel.write(batch, position);
+            }
+            channel.force(false); //Un solo fsync por grupo
+        } catch (IOException | RuntimeException e) {
+            //El grupo fallo: se quita lo que alcanzo a escribirse para que el siguiente grupo siga al ultimo
+            //registro valido y la recuperacion no corte el log en un registro a medias
+            try {
+                channel.truncate(segmentPosition);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        segmentPosition = position;
+        heads.putAll(batchHeads); //Solo se publican registros que ya estan en disco
+        for (PendingEvent event : batchEvents) {
+            event.done.complete(null);
+        }
+    }
+
+    private void encode(PendingEvent event, long previous) {
+        int start = batch.position();
+        int size = event.size();
+        batch.putInt(size).putInt(0).putInt(event.playerId).put(event.type).putLong(previous);
+        if (event.type == NEW_GAME) {
+            batch.putInt(event.wordId).put(event.alphabet).putShort((short) event.word.length).put(event.word);
+        } else {
+            batch.putChar(event.letter);
+        }
+        batch.putInt(start + 4, checksum(batch, start + 8, size - 8));
+    }
+
+    private int checksum(ByteBuffer buffer, int from, int length) {
+        crc.reset();
+        ByteBuffer view = buffer.duplicate();
+        view.limit(from + length).position(from);
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private void rollSegment() throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force(true);
+        }
+        Path file = directory.resolve(segmentName(segments.size()));
+        segments.add(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+        segmentPosition = 0;
+    }
+
+    /**
+     * Reads one record and checks its length and checksum
+     *
+     * @return The buffer holding the record: the given one, or a larger copy if the record did not fit
+     */
+    private ByteBuffer readRecord(long address, ByteBuffer record) throws IOException {
+        FileChannel channel = segments.get((int) (address >>> 32));
+        if (channel == null) {
+            throw new IOException("Event record in a compacted segment: " + Long.toHexString(address));
+        }
+        long offset = address & 0xFFFFFFFFL;
+        record.clear().limit(HEADER_SIZE);
+        readFully(channel, record, offset);
+        int size = record.getInt(0);
+        if (size < HEADER_SIZE || size > MAX_RECORD_SIZE) {
+            throw new IOException("Corrupt event record at " + Long.toHexString(address));
+        }
+        if (size > record.capacity()) {
+            record = ByteBuffer.allocate(size).put(record.flip());
+        }
+        record.limit(size);
+        readFully(channel, record, offset + HEADER_SIZE);
+        if (checksum(record, 8, size - 8) != record.getInt(4)) {
+            throw new IOException("Checksum mismatch in event record at " + Long.toHexString(address));
+        }
+        return record;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of event segment");
+            }
+            position += read;
+        }
+    }
+
+    private static String readWord(ByteBuffer record) {
+        int length = record.getShort() & 0xFFFF;
+        return new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Scans the segments left by the last compaction to rebuild the player index and drops a torn record at the end
+     * of the log
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)).sorted().toList();
+        }
+        int first = files.isEmpty() ? 0 : segmentNumber(files.get(0));
+        for (int number = 0; number < first; number++) {
+            segments.add(null); //Segmentos ya compactados: los numeros se conservan
+        }
+        int end = first + files.size();
+        ByteBuffer record = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        for (int number = first; number < end; number++) {
+            Path file = directory.resolve(segmentName(number));
+            if (!Files.exists(file)) {
+                throw new IOException("Missing event segment " + file);
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments.add(channel);
+            long size = channel.size();
+            long offset = 0;
+            while (offset + HEADER_SIZE <= size) {
+                long address = ((long) number << 32) | offset;
+                try {
+                    record = readRecord(address, record);
+                } catch (IOException e) {
+                    break; //Registro incompleto o dañado: aqui termina la parte valida del log
+                }
+                heads.put(record.getInt(8), address);
+                offset += record.getInt(0);
+            }
+            if (offset < size) {
+                if (number != end - 1) {
+                    throw new IOException("Corrupt event segment " + file + " at offset " + offset);
+                }
+                channel.truncate(offset);
+                channel.force(true);
+            }
+            segmentPosition = offset;
+        }
+    }
+
+    static String segmentName(int number) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private static int segmentNumber(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            throw new IOException("Unexpected file in the event log: " + file);
+        }
+    }
+
+    /**
+     * Event waiting to be written by the writer thread
+     */
+    private static final class PendingEvent {
+        private final int playerId;
+        private final byte type;
+        private final char letter;
+        private final byte[] word;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int segment;  // Segmento nuevo de un marcador de cambio de segmento
+        private int wordId = -1;  // Solo en una ronda nueva
+        private byte alphabet;
+
+        PendingEvent(int playerId, byte type, char letter, byte[] word) {
+            this.playerId = playerId;
+            this.type = type;
+            this.letter = letter;
+            this.word = word;
+        }
+
+        int size() {
+            if (type == FLUSH || type == ROLL) {
+                return 0;
+            }
+            return HEADER_SIZE + (type == NEW_GAME ? ROUND_PREFIX + word.length : 2);
+        }
+    }
+}
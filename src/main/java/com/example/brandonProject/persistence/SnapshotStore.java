@@ -0,0 +1,314 @@
+/**
+ * Periodic snapshots of every live session, so a restart loads one record per session instead of replaying the log
+ * <p>
+ * The unfinished rounds parked off-heap are saved too: their events may sit in the segments the snapshot deletes, so
+ * the snapshot is the only place they are kept after compaction. A snapshot stores, per player, the dictionary id of the secret word (or the word itself when it does not come from
+ * the dictionary), the alphabet of the round, the bitmask of tried letters, the failed attempts and the hints left.
+ * It is written to a temporary file, synced and renamed into place, so a crash leaves either the old or the new
+ * snapshot. Once the new one is on disk, older snapshots and the event segments it supersedes are deleted.
+ * <p>
+ * File layout: magic {@code "ESSN"} (int), version (int), creation time in milliseconds (long), first event segment
+ * not covered by the snapshot (int), size of the dictionary the word ids refer to (int), the number of live sessions
+ * (int) and the number of parked rounds (int), followed by the records of the live sessions and then those of the
+ * parked rounds: player id (varint) and the state frame of {@link WireCodec}. Version 1 files have no parked rounds
+ * and end the header after the number of live sessions.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.persistence;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+import com.example.brandonProject.session.ParkedGames;
+import com.example.brandonProject.session.SessionRegistry;
+import com.example.brandonProject.wire.WireCodec;
+import com.example.brandonProject.wire.WireState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class SnapshotStore {
+
+    /** System property with the directory of the snapshots written by the server */
+    public static final String DIRECTORY_PROPERTY = "eclipsedsun.snapshots";
+
+    private static final System.Logger LOG = System.getLogger(SnapshotStore.class.getName());
+
+    static final int MAGIC = 0x4553534E;  // "ESSN"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    private static final int COUNT_OFFSET = 24;
+    private static final int PARKED_COUNT_OFFSET = 28;
+    private static final int VERSION_1_HEADER_SIZE = 28;  // Sin partidas estacionadas
+    private static final int BUFFER_SIZE = 1 << 17;  // Cabe un registro con la palabra mas larga
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String TEMP_NAME = "snapshot.tmp";
+
+    private final Path directory;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);  // Solo se usa dentro de write
+    private long sequence;  // Numero del ultimo snapshot escrito
+
+    private SnapshotStore(Path directory, long sequence) {
+        this.directory = directory;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Opens a snapshot directory, creating it if needed
+     *
+     * @param directory The directory of the snapshot files
+     * @return The store
+     * @throws IOException If the directory cannot be read or created
+     */
+    public static SnapshotStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(TEMP_NAME)); //Restos de un snapshot que no termino
+        List<Path> snapshots = list(directory);
+        long sequence = snapshots.isEmpty() ? 0 : sequenceOf(snapshots.get(snapshots.size() - 1));
+        return new SnapshotStore(directory, sequence);
+    }
+
+    /**
+     * Saves every live session of a registry and every parked round, and compacts what the new snapshot supersedes
+     * <p>
+     * When a log is given, it first starts a new segment; after the snapshot is durable, the older segments are
+     * deleted. A move made while the sessions are being copied is both in the snapshot and in the kept segments,
+     * which is harmless because replaying it again changes nothing. The parked rounds are copied after the live
+     * sessions, so a session evicted meanwhile is still saved.
+     *
+     * @param registry The sessions to save
+     * @param parked   The parked rounds to save, or {@code null}
+     * @param words    The dictionary the word ids refer to
+     * @param log      The event log to compact, or {@code null}
+     * @return The number of saved sessions and rounds
+     * @throws IOException If the snapshot cannot be written
+     */
+    public synchronized int write(SessionRegistry registry, ParkedGames parked, WordRepository words,
+                                  GameEventLog log) throws IOException {
+        int firstSegment = log != null ? log.startSegment() : 0;
+        Path temp = directory.resolve(TEMP_NAME);
+        int[] count = new int[2];  // Sesiones vivas y partidas estacionadas
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putInt(firstSegment)
+                    .putInt(words.size()).putInt(0).putInt(0);
+            try {
+                registry.forEach((playerId, session) -> {
+                    writeRecord(channel, playerId, session);
+                    count[0]++;
+                });
+                if (parked != null) {
+                    parked.forEach((playerId, wordId, alphabet, guessedMask, attempts, helps) -> {
+                        writeRecord(channel, playerId, wordId, null, alphabet, guessedMask, attempts, helps);
+                        count[1]++;
+                    });
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            drain(channel);
+            channel.write(ByteBuffer.allocate(8).putInt(0, count[0]).putInt(4, count[1]), COUNT_OFFSET);
+            channel.force(true);
+        }
+
+        Path target = directory.resolve(snapshotName(sequence + 1));
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        sequence++;
+
+        //El nuevo snapshot ya esta en disco: lo anterior sobra
+        for (Path old : list(directory)) {
+            if (!old.equals(target)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        if (log != null) {
+            log.deleteSegmentsBefore(firstSegment);
+        }
+        return count[0] + count[1];
+    }
+
+    /**
+     * Loads the last snapshot into a registry and applies the moves logged after it
+     * <p>
+     * The snapshot is mapped into memory and read once, so the cost grows with the number of sessions rather than
+     * with the number of logged events. Players with a round in the log but not in the snapshot are restored too.
+     * Parked rounds go back to the parked store, unless the player is also saved as a live session or played after
+     * the snapshot, in which case the round is rebuilt in the registry.
+     *
+     * @param registry The registry that receives the sessions
+     * @param parked   The store that receives the parked rounds, or {@code null} to put them in the registry
+     * @param words    The dictionary the word ids refer to, which must be the one used to write the snapshot
+     * @param log      The event log opened on the same data, or {@code null}
+     * @return The number of restored sessions and rounds
+     * @throws IOException If the snapshot or the log cannot be read, or the dictionary does not match
+     */
+    public synchronized int load(SessionRegistry registry, ParkedGames parked, WordRepository words,
+                                 GameEventLog log) throws IOException {
+        Set<Integer> restored = new HashSet<>();
+        List<Path> snapshots = list(directory);
+        if (!snapshots.isEmpty()) {
+            Path file = snapshots.get(snapshots.size() - 1);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int version = data.limit() >= VERSION_1_HEADER_SIZE && data.getInt(0) == MAGIC ? data.getInt(4) : 0;
+                int headerSize = version == VERSION ? HEADER_SIZE : VERSION_1_HEADER_SIZE;
+                if ((version != VERSION && version != 1) || data.limit() < headerSize) {
+                    throw new IOException("Not a session snapshot: " + file);
+                }
+                if (data.getInt(20) != words.size()) {
+                    throw new IOException("The snapshot " + file + " was written with another dictionary");
+                }
+                int count = data.getInt(COUNT_OFFSET);
+                int parkedCount = version == VERSION ? data.getInt(PARKED_COUNT_OFFSET) : 0;
+                data.position(headerSize);
+                WireState state = new WireState();
+                for (int i = 0; i < count + parkedCount; i++) {
+                    int playerId = WireCodec.getVarint(data);
+                    WireCodec.readState(data, state);
+                    if (i >= count && restored.contains(playerId)) {
+                        continue; //La sesion se desalojo mientras se copiaba: vale la copia viva
+                    }
+                    GameSession session = state.toSession(words);
+                    if (i >= count && parked != null && (log == null || !log.heads().containsKey(playerId))) {
+                        parked.park(playerId, session);
+                    } else {
+                        if (log != null) {
+                            session = log.replay(playerId, session);
+                        }
+                        registry.put(playerId, session);
+                    }
+                    restored.add(playerId);
+                }
+            }
+        }
+        if (log != null) {
+            for (Integer playerId : log.heads().keySet()) {
+                if (!restored.contains(playerId)) {
+                    GameSession session = log.replay(playerId);
+                    if (session != null) {
+                        registry.put(playerId, session);
+                        restored.add(playerId);
+                    }
+                }
+            }
+        }
+        return restored.size();
+    }
+
+    /**
+     * Writes a snapshot periodically in the background
+     *
+     * @param scheduler The executor that writes the snapshots
+     * @param registry  The sessions to save
+     * @param parked    The parked rounds to save, or {@code null}
+     * @param words     The dictionary the word ids refer to
+     * @param log       The event log to compact, or {@code null}
+     * @param period    The time between snapshots
+     * @return The scheduled task, which can be cancelled
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, SessionRegistry registry,
+                                       ParkedGames parked, WordRepository words, GameEventLog log,
+                                       Duration period) {
+        long nanos = period.toNanos();
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                write(registry, parked, words, log);
+            } catch (IOException | RuntimeException e) {
+                LOG.log(System.Logger.Level.ERROR, "No se pudo guardar el snapshot de sesiones", e);
+            }
+        }, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the directory of the snapshot files
+     *
+     * @return The snapshot directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void writeRecord(FileChannel channel, int playerId, GameSession session) {
+        int wordId;
+        String word;
+        Alphabet alphabet;
+        int helps;
+        long guessedMask;
+        int attempts;
+        //Las jugadas y los reinicios bloquean la sesion: la palabra y el avance se copian de la misma ronda
+        synchronized (session) {
+            Game game = session.getGame();
+            wordId = game.getWordId();
+            word = game.getSecretWord();
+            alphabet = game.getAlphabet();
+            helps = session.getHelpsLeft();
+            guessedMask = game.getEngine().guessedMask();
+            attempts = game.getAttempts();
+        }
+        writeRecord(channel, playerId, wordId, word, alphabet, guessedMask, attempts, helps);
+    }
+
+    private void writeRecord(FileChannel channel, int playerId, int wordId, String word, Alphabet alphabet,
+                             long guessedMask, int attempts, int helps) {
+        int size = WireCodec.varintSize(playerId) + WireCodec.stateSize(wordId, word, guessedMask);
+        try {
+            if (buffer.remaining() < size) {
+                drain(channel);
+            }
+            WireCodec.putVarint(buffer, playerId);
+            WireCodec.writeState(buffer, wordId, word, alphabet, guessedMask, attempts, helps);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain(FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static long sequenceOf(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            throw new IOException("Unexpected file in the snapshot directory: " + file);
+        }
+    }
+
+    static String snapshotName(long sequence) {
+        return String.format("%s%016d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+    }
+}
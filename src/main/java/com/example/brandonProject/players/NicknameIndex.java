@@ -0,0 +1,470 @@
+/**
+ * Index of registered nicknames for "name taken" checks and prefix suggestions over millions of players
+ * <p>
+ * Nicknames are compared case-insensitively after trimming. Most names live in an immutable base: their UTF-8 bytes
+ * packed in one sorted array with offsets and player ids, so millions of names cost a few arrays instead of millions
+ * of strings, and a prefix search is a binary search followed by a scan. A Bloom filter over the base answers most
+ * checks for free names without touching the array. Names registered since the last compaction wait in a small
+ * sorted delta, and when the delta grows past a fraction of the base both are merged into a new base, so the cost of
+ * a merge is spread over many registrations.
+ * <p>
+ * Reads never lock. Registrations are serialized and appended to a text file, one {@code id<TAB>nickname} line each,
+ * so the index survives restarts; when a nickname appears more than once, its first line wins.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.players;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public final class NicknameIndex {
+
+    /** Maximum number of characters of a nickname */
+    public static final int MAX_LENGTH = 32;
+
+    private static final System.Logger LOG = System.getLogger(NicknameIndex.class.getName());
+    private static final String FILE_NAME = "nicknames.txt";
+    private static final int MIN_COMPACTION = 4096;  // Tamano minimo del delta antes de fusionarlo con la base
+    private static final int BLOOM_BITS_PER_NAME = 10;  // Con 7 funciones da cerca de 1% de falsos positivos
+    private static final int BLOOM_HASHES = 7;
+    private static final int MAX_SUGGESTION_PROBES = 1000;
+
+    private static volatile NicknameIndex defaultIndex;
+
+    private final BufferedWriter journal;  // Registro de altas, null si el indice solo vive en memoria
+    private volatile Base base;
+    private final ConcurrentSkipListMap<String, Integer> delta = new ConcurrentSkipListMap<>(NicknameIndex::compare);
+
+    /**
+     * Creates an empty index that only lives in memory
+     */
+    public NicknameIndex() {
+        this(Base.EMPTY, null);
+    }
+
+    private NicknameIndex(Base base, BufferedWriter journal) {
+        this.base = base;
+        this.journal = journal;
+    }
+
+    /**
+     * Loads the index kept in a file and keeps appending new nicknames to it, creating it if needed
+     *
+     * @param file The file with one {@code id<TAB>nickname} line per registered player
+     * @return The index
+     * @throws IOException If the file cannot be read or opened for appending
+     */
+    public static NicknameIndex open(Path file) throws IOException {
+        NavigableMap<String, Integer> names = new TreeMap<>(NicknameIndex::compare);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                try {
+                    names.putIfAbsent(normalize(line.substring(tab + 1)), Integer.parseInt(line.substring(0, tab)));
+                } catch (NumberFormatException e) {
+                    LOG.log(System.Logger.Level.WARNING, "Linea ignorada en el indice de nicknames: {0}", line);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            //Todavia no se registro ningun jugador
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        BufferedWriter journal = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        return new NicknameIndex(Base.of(names), journal);
+    }
+
+    /**
+     * Gets the index shared by the application, loading it on the first call
+     * <p>
+     * The file lives next to the one of {@link PlayerIdAllocator#getDefault()}.
+     *
+     * @return The shared index
+     * @throws IOException If the file cannot be read
+     */
+    public static NicknameIndex getDefault() throws IOException {
+        NicknameIndex index = defaultIndex;
+        if (index == null) {
+            synchronized (NicknameIndex.class) {
+                index = defaultIndex;
+                if (index == null) {
+                    index = open(PlayerIdAllocator.defaultDirectory().resolve(FILE_NAME));
+                    defaultIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the key a nickname is indexed by
+     *
+     * @param nickname The nickname as typed
+     * @return The trimmed, lower-case nickname
+     */
+    public static String normalize(String nickname) {
+        return nickname.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check if a nickname can be registered: not blank, at most {@value #MAX_LENGTH} characters and no control
+     * characters
+     *
+     * @param nickname The nickname as typed
+     * @return {@code true} if the nickname is valid
+     */
+    public static boolean isValid(String nickname) {
+        String key = normalize(nickname);
+        if (key.isEmpty() || key.length() > MAX_LENGTH) {
+            return false;
+        }
+        //Los caracteres de control romperian el archivo y los sustitutos sueltos el orden UTF-8
+        return key.codePoints().noneMatch(c -> Character.isISOControl(c) || Character.getType(c) == Character.SURROGATE);
+    }
+
+    /**
+     * Check if a nickname is already registered
+     *
+     * @param nickname The nickname as typed
+     * @return {@code true} if a player has it
+     */
+    public boolean isTaken(String nickname) {
+        return idOf(nickname) >= 0;
+    }
+
+    /**
+     * Gets the player that registered a nickname
+     *
+     * @param nickname The nickname as typed
+     * @return The player id, or -1 if the nickname is free
+     */
+    public int idOf(String nickname) {
+        String key = normalize(nickname);
+        Integer recent = delta.get(key);
+        if (recent != null) {
+            return recent;
+        }
+        Base current = base;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes, 0, bytes.length);
+        if (!current.mightContain(hash)) {
+            return -1; //El filtro descarta casi todos los nombres libres sin buscar en la base
+        }
+        int at = current.lowerBound(bytes);
+        return at < current.size() && current.compareAt(at, bytes) == 0 ? current.ids[at] : -1;
+    }
+
+    /**
+     * Registers a nickname for a player, unless it is already registered
+     *
+     * @param nickname The nickname as typed
+     * @param playerId The id of the new player
+     * @return The id of the player that has the nickname: {@code playerId}, or the one that registered it before
+     * @throws IllegalArgumentException If the nickname is not valid
+     * @throws IOException              If the nickname cannot be saved
+     */
+    public synchronized int register(String nickname, int playerId) throws IOException {
+        if (!isValid(nickname)) {
+            throw new IllegalArgumentException("Invalid nickname: " + nickname);
+        }
+        int existing = idOf(nickname);
+        if (existing >= 0) {
+            return existing;
+        }
+        String key = normalize(nickname);
+        if (journal != null) {
+            journal.write(playerId + "\t" + nickname.trim() + "\n");
+            journal.flush();
+        }
+        delta.put(key, playerId);
+        if (delta.size() > Math.max(MIN_COMPACTION, base.size() / 8)) {
+            compact();
+        }
+        return playerId;
+    }
+
+    /**
+     * Gets registered nicknames that start with a prefix, in code point order
+     *
+     * @param prefix The prefix as typed
+     * @param limit  The maximum number of nicknames returned
+     * @return The normalized nicknames
+     */
+    public List<String> withPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> found = new ArrayList<>(Math.min(limit, 16));
+        Base current = base;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int at = current.lowerBound(bytes);
+        Iterator<String> recent = delta.tailMap(key).keySet().iterator();
+        String fromBase = at < current.size() && current.startsWith(at, bytes) ? current.key(at) : null;
+        String fromDelta = next(recent, key);
+        while (found.size() < limit && (fromBase != null || fromDelta != null)) {
+            int order = fromBase == null ? 1 : fromDelta == null ? -1 : compare(fromBase, fromDelta);
+            found.add(order <= 0 ? fromBase : fromDelta);
+            if (order <= 0) { //Durante una compactacion un nombre puede estar en los dos lados
+                at++;
+                fromBase = at < current.size() && current.startsWith(at, bytes) ? current.key(at) : null;
+            }
+            if (order >= 0) {
+                fromDelta = next(recent, key);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Suggests free nicknames close to one the player typed: the nickname itself if it is free, then the nickname
+     * followed by 2, 3 and so on
+     *
+     * @param nickname The nickname as typed
+     * @param limit    The maximum number of suggestions
+     * @return The free nicknames
+     */
+    public List<String> suggestFree(String nickname, int limit) {
+        String name = nickname.trim();
+        List<String> free = new ArrayList<>(limit);
+        if (!isValid(name)) {
+            return free;
+        }
+        if (!isTaken(name)) {
+            free.add(name);
+        }
+        for (int n = 2; free.size() < limit && n < MAX_SUGGESTION_PROBES; n++) {
+            String candidate = name + n;
+            if (candidate.length() > MAX_LENGTH) {
+                break;
+            }
+            if (!isTaken(candidate)) {
+                free.add(candidate);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Gets the number of registered nicknames
+     *
+     * @return The number of nicknames
+     */
+    public int size() {
+        return base.size() + delta.size();
+    }
+
+    /**
+     * Merges the delta into a new base; the base is published before the delta is emptied so readers never miss a name
+     */
+    private void compact() {
+        Base merged = Base.merge(base, delta);
+        base = merged;
+        delta.clear(); //Las altas estan serializadas: nadie agrego nombres desde la fusion
+    }
+
+    private static String next(Iterator<String> keys, String prefix) {
+        if (keys.hasNext()) {
+            String key = keys.next();
+            return key.startsWith(prefix) ? key : null;
+        }
+        return null;
+    }
+
+    /**
+     * Compares two keys by code point, the order of their UTF-8 bytes
+     */
+    private static int compare(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by a 64-bit finalizer, so both halves are usable as Bloom hashes
+     */
+    private static long hash(byte[] bytes, int from, int to) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            h = (h ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Immutable sorted names with their Bloom filter
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(new byte[0], new int[1], new int[0]);
+
+        final byte[] keys;  // Bytes UTF-8 de todos los nombres, uno detras de otro en orden
+        final int[] offsets;  // Inicio de cada nombre en keys, con un elemento final para el fin del ultimo
+        final int[] ids;
+        final long[] bloom;
+        final int bloomMask;
+
+        Base(byte[] keys, int[] offsets, int[] ids) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.ids = ids;
+            int bits = Integer.highestOneBit(Math.max(64, ids.length * BLOOM_BITS_PER_NAME) - 1) << 1;
+            this.bloom = new long[bits >>> 6];
+            this.bloomMask = bits - 1;
+            for (int i = 0; i < ids.length; i++) {
+                long hash = hash(keys, offsets[i], offsets[i + 1]);
+                int h1 = (int) hash;
+                int h2 = (int) (hash >>> 32) | 1;
+                for (int k = 0; k < BLOOM_HASHES; k++) {
+                    int bit = (h1 + k * h2) & bloomMask;
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        static Base of(Map<String, Integer> sorted) {
+            Builder builder = new Builder(sorted.size());
+            sorted.forEach(builder::add);
+            return builder.build();
+        }
+
+        /**
+         * Merges a base with a delta that has no name of the base
+         */
+        static Base merge(Base base, NavigableMap<String, Integer> delta) {
+            Builder builder = new Builder(base.size() + delta.size());
+            int at = 0;
+            for (Map.Entry<String, Integer> entry : delta.entrySet()) {
+                byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                for (; at < base.size() && base.compareAt(at, bytes) < 0; at++) {
+                    builder.add(base, at);
+                }
+                builder.add(bytes, entry.getValue());
+            }
+            for (; at < base.size(); at++) {
+                builder.add(base, at);
+            }
+            return builder.build();
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = (h1 + k * h2) & bloomMask;
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Finds the first name that is not less than some bytes
+         */
+        int lowerBound(byte[] bytes) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareAt(mid, bytes) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int compareAt(int at, byte[] bytes) {
+            return Arrays.compareUnsigned(keys, offsets[at], offsets[at + 1], bytes, 0, bytes.length);
+        }
+
+        boolean startsWith(int at, byte[] prefix) {
+            int start = offsets[at];
+            return offsets[at + 1] - start >= prefix.length
+                    && Arrays.equals(keys, start, start + prefix.length, prefix, 0, prefix.length);
+        }
+
+        String key(int at) {
+            return new String(keys, offsets[at], offsets[at + 1] - offsets[at], StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Appends names in order into the arrays of a new base
+     */
+    private static final class Builder {
+        private byte[] keys;
+        private final int[] offsets;
+        private final int[] ids;
+        private int size;
+
+        Builder(int capacity) {
+            this.keys = new byte[Math.max(16, capacity * 8)];
+            this.offsets = new int[capacity + 1];
+            this.ids = new int[capacity];
+        }
+
+        void add(String key, int id) {
+            add(key.getBytes(StandardCharsets.UTF_8), id);
+        }
+
+        void add(byte[] bytes, int id) {
+            append(bytes, 0, bytes.length, id);
+        }
+
+        void add(Base base, int at) {
+            append(base.keys, base.offsets[at], base.offsets[at + 1] - base.offsets[at], base.ids[at]);
+        }
+
+        private void append(byte[] source, int from, int length, int id) {
+            int end = offsets[size];
+            if (end + length > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(end + length, keys.length + (keys.length >> 1)));
+            }
+            System.arraycopy(source, from, keys, end, length);
+            ids[size] = id;
+            offsets[++size] = end + length;
+        }
+
+        Base build() {
+            return new Base(Arrays.copyOf(keys, offsets[size]), offsets, ids);
+        }
+    }
+}
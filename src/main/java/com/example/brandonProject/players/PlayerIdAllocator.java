@@ -0,0 +1,204 @@
+/**
+ * Hands out unique player ids without a global lock
+ * <p>
+ * Ids are reserved in blocks: a shared high-water mark advances by a whole block at a time and each stripe of threads
+ * spends its own block with a compare-and-set, so only one id in {@value #DEFAULT_BLOCK_SIZE} touches the lock. When
+ * the allocator is backed by a file, the high-water mark is read and advanced under a file lock and synced before the
+ * block is used, so ids stay unique across restarts and across processes (nodes) that share the file. The ids left
+ * in unfinished blocks when the process stops are skipped, never reused.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.players;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class PlayerIdAllocator {
+
+    /** System property with the directory of the player files used by the default allocator and nickname index */
+    public static final String DIRECTORY_PROPERTY = "eclipsedsun.players";
+
+    /** Ids reserved at a time by each stripe */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /** First id handed out by a new allocator; 0 and negative ids are never used */
+    public static final int FIRST_ID = 1;
+
+    private static final String FILE_NAME = "player-ids.bin";
+
+    private static volatile PlayerIdAllocator defaultAllocator;
+
+    private final FileChannel channel;  // Guarda la marca de agua, null si solo vive en memoria
+    private final int blockSize;
+    private final AtomicLongArray stripes;  // Por franja: fin del bloque (32 bits altos) y siguiente id (bajos)
+    private final int stripeMask;
+    private long highWater;  // Primer id no reservado por este proceso, solo sin archivo
+
+    private PlayerIdAllocator(FileChannel channel, int blockSize, int firstId) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive: " + blockSize);
+        }
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.highWater = firstId;
+        //Potencia de dos con al menos dos franjas por nucleo
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1);
+        this.stripes = new AtomicLongArray(stripeCount); //Todas empiezan vacias: siguiente = fin = 0
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Creates an allocator that only lives in memory, for example for tests or a single run of the load generator
+     *
+     * @param firstId   The first id to hand out
+     * @param blockSize The ids reserved at a time by each stripe
+     * @return The allocator
+     */
+    public static PlayerIdAllocator inMemory(int firstId, int blockSize) {
+        return new PlayerIdAllocator(null, blockSize, Math.max(FIRST_ID, firstId));
+    }
+
+    /**
+     * Opens an allocator whose high-water mark is kept in a file, creating it if needed
+     *
+     * @param file      The file with the high-water mark, shared by every process that allocates from it
+     * @param blockSize The ids reserved at a time by each stripe
+     * @return The allocator
+     * @throws IOException If the file cannot be opened
+     */
+    public static PlayerIdAllocator open(Path file, int blockSize) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new PlayerIdAllocator(channel, blockSize, FIRST_ID);
+    }
+
+    /**
+     * Gets the allocator shared by the application
+     * <p>
+     * The file lives in the directory named by {@value #DIRECTORY_PROPERTY}, or {@code ~/.eclipsed-sun/players}.
+     *
+     * @return The shared allocator
+     * @throws IOException If the file cannot be opened
+     */
+    public static PlayerIdAllocator getDefault() throws IOException {
+        PlayerIdAllocator allocator = defaultAllocator;
+        if (allocator == null) {
+            synchronized (PlayerIdAllocator.class) {
+                allocator = defaultAllocator;
+                if (allocator == null) {
+                    allocator = open(defaultDirectory().resolve(FILE_NAME), DEFAULT_BLOCK_SIZE);
+                    defaultAllocator = allocator;
+                }
+            }
+        }
+        return allocator;
+    }
+
+    /**
+     * Gets the directory of the player files of the application
+     *
+     * @return The directory named by {@value #DIRECTORY_PROPERTY}, or {@code ~/.eclipsed-sun/players}
+     */
+    static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        return configured != null ? Path.of(configured) : Path.of(System.getProperty("user.home"), ".eclipsed-sun",
+                "players");
+    }
+
+    /**
+     * Hands out a new player id
+     *
+     * @return An id never returned before by any allocator sharing the same file
+     * @throws UncheckedIOException  If a new block cannot be reserved in the file
+     * @throws IllegalStateException If every positive int id was used
+     */
+    public int nextId() {
+        int stripe = stripe();
+        while (true) {
+            long state = stripes.get(stripe);
+            int next = (int) state;
+            int end = (int) (state >>> 32);
+            if (next < end) {
+                if (stripes.compareAndSet(stripe, state, pack(next + 1, end))) {
+                    return next;
+                }
+            } else {
+                refill(stripe, state);
+            }
+        }
+    }
+
+    /**
+     * Gives an exhausted stripe a new block, unless another thread already did
+     */
+    private synchronized void refill(int stripe, long exhausted) {
+        if (stripes.get(stripe) != exhausted) {
+            return;
+        }
+        int start;
+        try {
+            start = reserve();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reserve player ids", e);
+        }
+        stripes.set(stripe, pack(start, start + blockSize));
+    }
+
+    /**
+     * Advances the high-water mark by one block
+     *
+     * @return The first id of the reserved block
+     */
+    private int reserve() throws IOException {
+        if (channel == null) {
+            int start = checkedBlock(highWater);
+            highWater += blockSize;
+            return start;
+        }
+        //El candado del archivo ordena a todos los procesos que comparten la marca de agua
+        FileLock lock = channel.lock();
+        try {
+            ByteBuffer mark = ByteBuffer.allocate(Long.BYTES);
+            while (mark.hasRemaining() && channel.read(mark, mark.position()) >= 0) {
+                //Lee la marca completa, si existe
+            }
+            long start = mark.position() == Long.BYTES ? mark.flip().getLong() : FIRST_ID;
+            int first = checkedBlock(start);
+            channel.write(mark.clear().putLong(start + blockSize).flip(), 0);
+            channel.force(false);
+            return first;
+        } finally {
+            lock.release();
+        }
+    }
+
+    private int checkedBlock(long start) {
+        if (start < FIRST_ID || start + blockSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("No player ids left after " + (start - 1));
+        }
+        return (int) start;
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    private static long pack(int next, int end) {
+        return ((long) end << 32) | (next & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * Room where many players race to uncover the same secret word
+ * <p>
+ * The word index is built once and shared by every seat. Each player only owns a letter mask and a miss counter,
+ * packed together in one {@code long} (the mask takes the low {@value #MASK_BITS} bits) and updated with a single
+ * compare-and-set, so guesses from many threads never lock. A guess marks its seat as dirty; on every tick the room
+ * sends one batch with the seats that changed to all subscribers, however many moves they made in between.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.race;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import com.example.brandonProject.engine.WordIndex;
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class RaceRoom {
+
+    /** Seat number meaning "nobody" */
+    public static final int NO_SEAT = -1;
+
+    /**
+     * Letter slots a room can track per seat; the bits above hold the miss counter
+     * <p>
+     * A word index may number up to 64 slots: the letters of its alphabet first, then the letters of the word that
+     * are outside it. Since an alphabet has at most {@value Alphabet#MAX_LETTERS} letters, only a word with many
+     * distinct letters foreign to its alphabet reaches the last four slots, and the room rejects it.
+     */
+    public static final int MASK_BITS = 60;
+
+    private static final long MASK = (1L << MASK_BITS) - 1;
+    private static final Counter BATCHES = MetricsRegistry.getDefault().counter("race.batches");
+
+    private final WordIndex index;  // Compartido por todos los jugadores de la sala
+    private final int capacity;
+    private final AtomicLongArray states;  // Por asiento: fallos en los 4 bits altos, letras probadas en los demas
+    private final AtomicLongArray dirty;  // Un bit por asiento que cambio desde el ultimo tick
+    private final AtomicInteger seats = new AtomicInteger();
+    private final AtomicInteger winner = new AtomicInteger(NO_SEAT);
+    private final List<RaceSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long ticks;  // Solo lo usa el hilo que ejecuta tick()
+
+    /**
+     * Creates a room for a secret word
+     *
+     * @param secretWord The word all players race on
+     * @param capacity   The maximum number of players
+     */
+    public RaceRoom(String secretWord, int capacity) {
+        this(new WordIndex(secretWord), capacity);
+    }
+
+    /**
+     * Creates a room over an already built word index
+     *
+     * @param index    The index of the secret word
+     * @param capacity The maximum number of players
+     * @throws IllegalArgumentException If the capacity is not positive, or the word uses letter slots beyond
+     *                                  {@link #MASK_BITS}
+     */
+    public RaceRoom(WordIndex index, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        if ((index.letterMask() & ~MASK) != 0) {
+            throw new IllegalArgumentException("Too many distinct letters for a race: " + index.word());
+        }
+        this.index = index;
+        this.capacity = capacity;
+        this.states = new AtomicLongArray(capacity);
+        this.dirty = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    /**
+     * Takes the next free seat
+     *
+     * @return The seat number of the new player
+     * @throws IllegalStateException If the room is full
+     */
+    public int join() {
+        int seat = seats.getAndIncrement();
+        if (seat >= capacity) {
+            seats.decrementAndGet();
+            throw new IllegalStateException("The room is full");
+        }
+        markDirty(seat);
+        return seat;
+    }
+
+    /**
+     * Applies a player's guess; accents and case are ignored
+     * <p>
+     * Only the player's own state changes: each seat has its own {@value GameEngine#MAX_ATTEMPTS}-miss budget. A
+     * letter with no slot in the word's index, that is, one outside the alphabet of the word that the word does not
+     * contain, counts as a miss every time, since the seat keeps no list of such letters.
+     *
+     * @param seat   The player's seat
+     * @param letter The guessed letter
+     * @return The outcome of the guess; {@link GuessResult#REPEAT} once the player's game is over
+     */
+    public GuessResult guess(int seat, char letter) {
+        checkSeat(seat);
+        int slot = index.slotOf(letter);
+        long bit = slot == Alphabet.NO_LETTER ? 0 : 1L << slot;
+        while (true) {
+            long state = states.get(seat);
+            long mask = mask(state);
+            int misses = misses(state);
+            if (isOver(mask, misses) || (mask & bit) != 0) {
+                return GuessResult.REPEAT;
+            }
+            boolean hit = (index.letterMask() & bit) != 0;
+            long newMask = (mask | bit) & MASK;
+            int newMisses = hit ? misses : misses + 1;
+            if (states.compareAndSet(seat, state, pack(newMask, newMisses))) {
+                markDirty(seat);
+                if (!hit) {
+                    return newMisses >= GameEngine.MAX_ATTEMPTS ? GuessResult.LOST : GuessResult.MISS;
+                }
+                if ((index.letterMask() & ~newMask) == 0) {
+                    winner.compareAndSet(NO_SEAT, seat); //Solo el primero en completar la palabra gana la carrera
+                    return GuessResult.WON;
+                }
+                return GuessResult.HIT;
+            }
+        }
+    }
+
+    /**
+     * Gets the masked word as a player sees it
+     *
+     * @param seat The player's seat
+     * @return The word with the player's guessed letters uncovered
+     */
+    public String maskedWord(int seat) {
+        checkSeat(seat);
+        char[] masked = new char[index.length()];
+        index.copyMask(mask(states.get(seat)), masked);
+        return new String(masked);
+    }
+
+    /**
+     * Gets the failed attempts of a player
+     *
+     * @param seat The player's seat
+     * @return The number of misses
+     */
+    public int getMisses(int seat) {
+        checkSeat(seat);
+        return misses(states.get(seat));
+    }
+
+    /**
+     * Check if a player's game is over
+     *
+     * @param seat The player's seat
+     * @return {@code true} if the player uncovered the word or ran out of attempts
+     */
+    public boolean isGameOver(int seat) {
+        checkSeat(seat);
+        long state = states.get(seat);
+        return isOver(mask(state), misses(state));
+    }
+
+    /**
+     * Check if a player uncovered the whole word
+     *
+     * @param seat The player's seat
+     * @return {@code true} if no letter is left
+     */
+    public boolean isWon(int seat) {
+        checkSeat(seat);
+        return (index.letterMask() & ~mask(states.get(seat))) == 0;
+    }
+
+    /**
+     * Gets the player who uncovered the word first
+     *
+     * @return The seat of the winner, or {@link #NO_SEAT} if nobody has won yet
+     */
+    public int getWinner() {
+        return winner.get();
+    }
+
+    /**
+     * Gets the number of seated players
+     *
+     * @return The number of players
+     */
+    public int getPlayerCount() {
+        return Math.min(seats.get(), capacity);
+    }
+
+    /**
+     * Gets the secret word
+     *
+     * @return The secret word in lowercase
+     */
+    public String getSecretWord() {
+        return index.word();
+    }
+
+    /**
+     * Starts receiving the room's batches; the first one describes every seat
+     *
+     * @param queueCapacity The batches the subscriber may fall behind by before older ones are replaced by a full
+     *                      snapshot
+     * @return The subscription, which the subscriber polls from its own thread
+     */
+    public RaceSubscription subscribe(int queueCapacity) {
+        RaceSubscription subscription = new RaceSubscription(this, queueCapacity);
+        subscription.requestSnapshot();
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    void unsubscribe(RaceSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Runs {@link #tick()} periodically
+     *
+     * @param scheduler The executor that runs the ticks; a single thread must run them
+     * @param period    The time between ticks
+     * @return The scheduled task, which can be cancelled
+     */
+    public ScheduledFuture<?> start(ScheduledExecutorService scheduler, Duration period) {
+        long nanos = period.toNanos();
+        return scheduler.scheduleAtFixedRate(this::tick, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends the seats that changed since the previous tick to every subscriber, as one batch
+     * <p>
+     * A subscriber whose queue is full does not slow the others down: its pending batches are dropped and replaced
+     * by a full snapshot of the room. Ticks must not run concurrently.
+     */
+    public void tick() {
+        ticks++;
+        int[] changed = collectDirty();
+        RaceUpdate delta = changed.length == 0 ? null : update(changed, false);
+        RaceUpdate snapshot = null;
+        for (RaceSubscription subscription : subscriptions) {
+            if (subscription.needsSnapshot()) {
+                if (snapshot == null) {
+                    snapshot = update(allSeats(), true);
+                }
+                subscription.deliverSnapshot(snapshot);
+            } else if (delta != null && !subscription.deliver(delta)) {
+                if (snapshot == null) {
+                    snapshot = update(allSeats(), true);
+                }
+                subscription.deliverSnapshot(snapshot); //Cliente lento: se descarta lo pendiente
+            }
+        }
+        if (delta != null) {
+            BATCHES.increment();
+        }
+    }
+
+    private RaceUpdate update(int[] seatList, boolean full) {
+        long[] seatStates = new long[seatList.length];
+        for (int i = 0; i < seatList.length; i++) {
+            seatStates[i] = states.get(seatList[i]);
+        }
+        return new RaceUpdate(ticks, full, index.letterMask(), winner.get(), seatList, seatStates);
+    }
+
+    private int[] collectDirty() {
+        int count = 0;
+        long[] words = new long[dirty.length()];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = dirty.getAndSet(w, 0);
+            count += Long.bitCount(words[w]);
+        }
+        int[] changed = new int[count];
+        int next = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                changed[next++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return changed;
+    }
+
+    private int[] allSeats() {
+        int[] all = new int[getPlayerCount()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private void markDirty(int seat) {
+        long bit = 1L << seat;
+        dirty.getAndAccumulate(seat >>> 6, bit, (current, added) -> current | added);
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= getPlayerCount()) {
+            throw new IllegalArgumentException("No player in seat " + seat);
+        }
+    }
+
+    private boolean isOver(long mask, int misses) {
+        return misses >= GameEngine.MAX_ATTEMPTS || (index.letterMask() & ~mask) == 0;
+    }
+
+    static long mask(long state) {
+        return state & MASK;
+    }
+
+    static int misses(long state) {
+        return (int) (state >>> MASK_BITS);
+    }
+
+    private static long pack(long mask, int misses) {
+        return ((long) misses << MASK_BITS) | mask;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * In-process simulation of a race room
+ * Seats many simulated players that guess at random speeds, each one following its own room subscription, plus a few
+ * slow spectators that fall behind, and reports the winner and the fan-out figures
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.race;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.RandomSource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RaceSimulation {
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int SLOW_POLL_TICKS = 4 * QUEUE_CAPACITY;  // Los espectadores lentos leen con este retraso
+
+    private final RaceRoom room;
+    private final RandomSource random;
+    private final LongAdder received = new LongAdder();
+
+    /**
+     * Creates a simulation over a room
+     *
+     * @param room   The room, with no players yet
+     * @param random The source of the players' letter orders and speeds
+     */
+    public RaceSimulation(RaceRoom room, RandomSource random) {
+        this.room = room;
+        this.random = random;
+    }
+
+    /**
+     * Plays one race until every player is done
+     *
+     * @param players      The number of simulated players
+     * @param spectators   The number of slow spectators
+     * @param tick         The time between room ticks
+     * @param scheduler    The executor that runs the players' moves
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public void run(int players, int spectators, Duration tick, ScheduledExecutorService scheduler)
+            throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(players);
+        List<RaceSubscription> subscriptions = new ArrayList<>();
+        List<ScheduledFuture<?>> tasks = new ArrayList<>();
+        long tickNanos = tick.toNanos();
+
+        for (int i = 0; i < players; i++) {
+            int seat = room.join();
+            RaceSubscription subscription = room.subscribe(QUEUE_CAPACITY);
+            subscriptions.add(subscription);
+            RandomSource own = random.split();
+            char[] order = shuffledAlphabet(own);
+            long period = tickNanos / 2 + own.nextInt((int) Math.min(Integer.MAX_VALUE, tickNanos * 4));
+            int[] next = {0};
+            tasks.add(scheduler.scheduleAtFixedRate(() -> {
+                drain(subscription);
+                if (next[0] < order.length && !room.isGameOver(seat)) {
+                    room.guess(seat, order[next[0]++]);
+                    if (room.isGameOver(seat)) {
+                        finished.countDown();
+                    }
+                }
+            }, period, period, TimeUnit.NANOSECONDS));
+        }
+        for (int i = 0; i < spectators; i++) {
+            RaceSubscription subscription = room.subscribe(QUEUE_CAPACITY);
+            subscriptions.add(subscription);
+            long period = tickNanos * SLOW_POLL_TICKS;
+            tasks.add(scheduler.scheduleAtFixedRate(() -> drain(subscription), period, period, TimeUnit.NANOSECONDS));
+        }
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "eclipsed-sun-race-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        room.start(ticker, tick);
+        finished.await();
+        tasks.forEach(task -> task.cancel(false));
+        ticker.shutdown();
+        ticker.awaitTermination(1, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        long dropped = 0;
+        for (RaceSubscription subscription : subscriptions) {
+            dropped += subscription.getDropped();
+            subscription.close();
+        }
+        report(players, spectators, elapsed, dropped);
+    }
+
+    private void drain(RaceSubscription subscription) {
+        while (subscription.poll() != null) {
+            received.increment();
+        }
+    }
+
+    private void report(int players, int spectators, long elapsedNanos, long dropped) {
+        int winner = room.getWinner();
+        int winners = 0;
+        for (int seat = 0; seat < players; seat++) {
+            if (room.isWon(seat)) {
+                winners++;
+            }
+        }
+        System.out.printf("word=%s players=%d spectators=%d winner=%s solved=%d%n", room.getSecretWord(), players,
+                spectators, winner == RaceRoom.NO_SEAT ? "none" : Integer.toString(winner), winners);
+        System.out.printf("time=%.0f ms batches received=%d dropped=%d%n",
+                elapsedNanos / 1e6, received.sum(), dropped);
+    }
+
+    private static char[] shuffledAlphabet(RandomSource random) {
+        Alphabet alphabet = Alphabet.getDefault(); //El de la palabra de la sala
+        char[] letters = new char[alphabet.size()];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = alphabet.letterAt(i);
+        }
+        for (int i = letters.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char swap = letters[i];
+            letters[i] = letters[j];
+            letters[j] = swap;
+        }
+        return letters;
+    }
+
+    /**
+     * Runs the simulation from the command line
+     *
+     * @param args Optional number of players (default 200), slow spectators (default 5), tick in milliseconds
+     *             (default 50) and seed
+     * @throws IOException          If the dictionary cannot be read
+     * @throws InterruptedException If the run is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int spectators = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int tickMillis = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        RandomSource random = args.length > 3
+                ? RandomSource.seeded(Long.parseLong(args[3])) : RandomSource.seeded(System.nanoTime());
+
+        WordRepository words = WordRepository.getDefault();
+        RaceRoom room = new RaceRoom(words.word(words.sampleId(random)), players);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            new RaceSimulation(room, random).run(players, spectators, Duration.ofMillis(tickMillis), scheduler);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
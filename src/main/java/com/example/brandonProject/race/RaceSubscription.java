@@ -0,0 +1,101 @@
+/**
+ * Bounded queue of the batches a race room sends to one subscriber
+ * <p>
+ * The room never waits for a subscriber: when the queue is full, the pending batches are dropped and replaced by a
+ * full snapshot, so a slow client skips intermediate states but always catches up with the current one.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.race;
+
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RaceSubscription implements AutoCloseable {
+
+    private static final Counter DROPPED = MetricsRegistry.getDefault().counter("race.dropped");
+
+    private final RaceRoom room;
+    private final BlockingQueue<RaceUpdate> queue;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean snapshotRequested;
+
+    RaceSubscription(RaceRoom room, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be positive: " + capacity);
+        }
+        this.room = room;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes the oldest pending batch
+     *
+     * @return The batch, or {@code null} if none is pending
+     */
+    public RaceUpdate poll() {
+        return queue.poll();
+    }
+
+    /**
+     * Takes the oldest pending batch, waiting for one if needed
+     *
+     * @param timeout The longest time to wait
+     * @param unit    The unit of the timeout
+     * @return The batch, or {@code null} if none arrived in time
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public RaceUpdate poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    /**
+     * Gets the batches dropped because the subscriber fell behind
+     *
+     * @return The number of dropped batches
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Asks the room to send a full snapshot on the next tick, for example after a reconnection
+     */
+    public void requestSnapshot() {
+        snapshotRequested = true;
+    }
+
+    /**
+     * Stops receiving batches
+     */
+    @Override
+    public void close() {
+        room.unsubscribe(this);
+        queue.clear();
+    }
+
+    boolean needsSnapshot() {
+        return snapshotRequested;
+    }
+
+    boolean deliver(RaceUpdate update) {
+        return queue.offer(update);
+    }
+
+    void deliverSnapshot(RaceUpdate snapshot) {
+        snapshotRequested = false;
+        int lost = queue.size();
+        queue.clear(); //Un snapshot completo reemplaza todo lo pendiente
+        if (lost > 0) {
+            dropped.add(lost);
+            DROPPED.add(lost);
+        }
+        queue.offer(snapshot);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Batch of seat states sent by a race room on one tick
+ * <p>
+ * A delta batch only lists the seats that changed since the previous tick; a full batch lists every seat and
+ * replaces whatever the subscriber knew. Batches are immutable and shared by all subscribers.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.race;
+
+import com.example.brandonProject.engine.GameEngine;
+
+public final class RaceUpdate {
+
+    private final long tick;
+    private final boolean full;
+    private final long letterMask;  // Letras de la palabra secreta, para saber cuantas faltan sin enviar la palabra
+    private final int winner;
+    private final int[] seats;
+    private final long[] states;
+
+    RaceUpdate(long tick, boolean full, long letterMask, int winner, int[] seats, long[] states) {
+        this.tick = tick;
+        this.full = full;
+        this.letterMask = letterMask;
+        this.winner = winner;
+        this.seats = seats;
+        this.states = states;
+    }
+
+    /**
+     * Gets the tick that produced the batch
+     *
+     * @return The tick number, starting at 1
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Check if the batch describes every seat
+     *
+     * @return {@code true} for a full snapshot, {@code false} for a delta
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Gets the first player who uncovered the word, as of this tick
+     *
+     * @return The seat of the winner, or {@link RaceRoom#NO_SEAT}
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of seats in the batch
+     *
+     * @return The number of seats
+     */
+    public int size() {
+        return seats.length;
+    }
+
+    /**
+     * Gets a seat of the batch
+     *
+     * @param i The position in the batch
+     * @return The seat number
+     */
+    public int seat(int i) {
+        return seats[i];
+    }
+
+    /**
+     * Gets the letters of the secret word a seat has uncovered
+     *
+     * @param i The position in the batch
+     * @return The number of distinct letters uncovered
+     */
+    public int revealed(int i) {
+        return Long.bitCount(RaceRoom.mask(states[i]) & letterMask);
+    }
+
+    /**
+     * Gets the letters of the secret word a seat still has to uncover
+     *
+     * @param i The position in the batch
+     * @return The number of distinct letters left
+     */
+    public int remaining(int i) {
+        return Long.bitCount(letterMask & ~RaceRoom.mask(states[i]));
+    }
+
+    /**
+     * Gets the failed attempts of a seat
+     *
+     * @param i The position in the batch
+     * @return The number of misses
+     */
+    public int misses(int i) {
+        return RaceRoom.misses(states[i]);
+    }
+
+    /**
+     * Check if a seat uncovered the whole word
+     *
+     * @param i The position in the batch
+     * @return {@code true} if no letter is left
+     */
+    public boolean won(int i) {
+        return remaining(i) == 0;
+    }
+
+    /**
+     * Check if a seat's game is over
+     *
+     * @param i The position in the batch
+     * @return {@code true} if the seat won or ran out of attempts
+     */
+    public boolean finished(int i) {
+        return won(i) || misses(i) >= GameEngine.MAX_ATTEMPTS;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * Serves one client connection of the game server
+ * Each connection owns an independent game session and reusable fixed-size buffers
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.server;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.persistence.GameEventLog;
+import com.example.brandonProject.session.GameSession;
+import com.example.brandonProject.session.ParkedGames;
+import com.example.brandonProject.session.SessionListener;
+import com.example.brandonProject.session.SessionRegistry;
+import com.example.brandonProject.stats.Leaderboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+class ConnectionHandler implements Runnable {
+    private static final System.Logger LOG = System.getLogger(ConnectionHandler.class.getName());
+    private static final int IO_BUFFER_SIZE = 512;
+    private static final int LINE_TOO_LONG = -2;
+
+    private final Socket socket;
+    private final WordRepository words;
+    private final GameServer server;
+    private final SessionRegistry registry;
+    private final ParkedGames parkedGames;  // Rondas sin terminar de las sesiones desalojadas
+    private final GameEventLog eventLog;  // Puede ser null si el servidor no guarda eventos
+    private final Leaderboard leaderboard;
+    private final RandomSource random;  // Fuente propia de la conexion para las palabras y las pistas
+    private final byte[] line = new byte[Protocol.MAX_LINE_BYTES];  // Linea actual, se reutiliza
+    private final StringBuilder reply = new StringBuilder(64);  // Respuesta actual, se reutiliza
+    private GameSession session;  // Se crea con el primer NEW o se recupera con PLAYER
+    private int playerId = -1;  // Jugador de la conexion, -1 si es anonima
+
+    ConnectionHandler(Socket socket, WordRepository words, GameServer server, SessionRegistry registry,
+                      ParkedGames parkedGames, GameEventLog eventLog, Leaderboard leaderboard, RandomSource random) {
+        this.socket = socket;
+        this.words = words;
+        this.server = server;
+        this.registry = registry;
+        this.parkedGames = parkedGames;
+        this.eventLog = eventLog;
+        this.leaderboard = leaderboard;
+        this.random = random;
+    }
+
+    @Override
+    public void run() {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream(), IO_BUFFER_SIZE);
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8),
+                     IO_BUFFER_SIZE)) {
+            int length;
+            while ((length = readLine(in)) != -1) {
+                reply.setLength(0);
+                boolean keepOpen = length == LINE_TOO_LONG ? error("line too long") : handle(length);
+                out.append(reply).append('\n');
+                out.flush();
+                if (!keepOpen) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            //El cliente cerro la conexion: no hay nada que responder
+        } finally {
+            if (session != null) {
+                session.detach(); //Desde ahora la sesion se puede estacionar si se desaloja
+            }
+            server.connectionClosed();
+        }
+    }
+
+    /**
+     * Executes one command and writes its reply
+     *
+     * @param length The number of bytes of the command line
+     * @return {@code false} if the connection must be closed
+     */
+    private boolean handle(int length) {
+        String command = new String(line, 0, length, StandardCharsets.UTF_8).trim();
+        int space = command.indexOf(' ');
+        String name = space < 0 ? command : command.substring(0, space);
+
+        switch (name.toUpperCase()) {
+            case Protocol.PLAYER:
+                int requested;
+                try {
+                    requested = Integer.parseInt(space < 0 ? "" : command.substring(space + 1).trim());
+                } catch (NumberFormatException e) {
+                    return error("expected PLAYER <id>");
+                }
+                if (requested < 0) {
+                    return error("expected PLAYER <id>"); //Los ids negativos marcan las conexiones anonimas
+                }
+                playerId = requested;
+                attach(registry.getOrCreate(playerId, this::resumeOrStart));
+                session.setListener(playerId, SessionListener.of(eventLog, leaderboard));
+                synchronized (session) {
+                    appendState(Protocol.OK);
+                }
+                return true;
+            case Protocol.NEW:
+                if (session == null) {
+                    attach(new GameSession(newGame()));
+                } else {
+                    //La partida se reinicia en el lugar con la plantilla de la palabra: no se crea otra
+                    int wordId = words.sampleId(random);
+                    session.restart(words.templates().get(wordId), wordId);
+                }
+                if (playerId >= 0) {
+                    registry.put(playerId, session); //Vuelve a registrar la sesion por si fue desalojada
+                    parkedGames.remove(playerId); //La ronda estacionada quedo atras
+                }
+                synchronized (session) {
+                    appendState(Protocol.OK);
+                }
+                return true;
+            case Protocol.GUESS:
+                String argument = space < 0 ? "" : command.substring(space + 1).trim();
+                if (argument.length() != 1) {
+                    return error("expected GUESS <letter>");
+                }
+                if (session == null) {
+                    return error("send NEW first");
+                }
+                //La respuesta se arma con el candado de la jugada: otra conexion de la misma sesion no se cuela
+                synchronized (session) {
+                    if (!session.getGame().isGuessable(argument.charAt(0))) {
+                        return error("not a letter of the alphabet " + session.getGame().getAlphabet());
+                    }
+                    GuessResult result = session.guess(argument.charAt(0));
+                    appendState(result.name());
+                    if (result == GuessResult.LOST) {
+                        Protocol.appendWord(reply.append(' '), session.getGame().getSecretWord());
+                    }
+                }
+                touch();
+                return true;
+            case Protocol.HINT:
+                if (session == null) {
+                    return error("send NEW first");
+                }
+                touch();
+                synchronized (session) {
+                    char hint = session.useHelp();
+                    if (hint == GameEngine.HIDDEN) {
+                        return error("no hints left");
+                    }
+                    appendState(Protocol.HINT);
+                    reply.append(' ').append(hint);
+                }
+                return true;
+            case Protocol.STATE:
+                if (session == null) {
+                    return error("send NEW first");
+                }
+                touch();
+                synchronized (session) {
+                    appendState(Protocol.STATE);
+                    Game current = session.getGame();
+                    reply.append(' ').append(current.isWon() ? "WON" : current.isGameOver() ? "LOST" : "PLAYING");
+                }
+                return true;
+            case Protocol.TOP:
+                reply.append(Protocol.TOP);
+                for (Leaderboard.Entry entry : leaderboard.top(Protocol.TOP_SIZE)) {
+                    reply.append(' ').append(entry.getPlayerId()).append(':').append(entry.getWins());
+                }
+                return true;
+            case Protocol.QUIT:
+                reply.append(Protocol.BYE);
+                return false;
+            default:
+                return error("unknown command");
+        }
+    }
+
+    /**
+     * Rehydrates the player's parked round, rebuilds it from the event log, or starts a new one
+     *
+     * @param id The player id
+     * @return The player's session
+     */
+    private GameSession resumeOrStart(int id) {
+        GameSession parked = parkedGames.unpark(id, words);
+        if (parked != null) {
+            return parked;
+        }
+        if (eventLog != null) {
+            try {
+                GameSession restored = eventLog.replay(id);
+                if (restored != null && !restored.getGame().isGameOver()) {
+                    return restored;
+                }
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "No se pudo recuperar la partida del jugador " + id, e);
+            }
+        }
+        GameSession created = new GameSession(newGame());
+        if (eventLog != null) {
+            eventLog.appendNewGame(id, created.getGame());
+        }
+        return created;
+    }
+
+    /**
+     * Makes a session the one played by this connection
+     *
+     * @param next The session to play
+     */
+    private void attach(GameSession next) {
+        if (next == session) {
+            return;
+        }
+        next.attach(); //Una sesion unida a una conexion no se estaciona al desalojarla
+        if (session != null) {
+            session.detach();
+        }
+        session = next;
+    }
+
+    /**
+     * Keeps the player's session registered and fresh while the connection plays it
+     */
+    private void touch() {
+        if (playerId >= 0) {
+            registry.touch(playerId, session);
+        }
+    }
+
+    private Game newGame() {
+        int wordId = words.sampleId(random);
+        return new Game(words.templates().get(wordId), wordId, random);
+    }
+
+    /**
+     * Appends the state of the session; must be called holding the session's lock, so the word, the attempts and the
+     * hints all come from the same move
+     */
+    private void appendState(String keyword) {
+        Game game = session.getGame();
+        Protocol.appendWord(reply.append(keyword).append(' '), game.getEngine().maskedWord()).append(' ')
+                .append(GameEngine.MAX_ATTEMPTS - game.getAttempts()).append(' ')
+                .append(session.getHelpsLeft());
+    }
+
+    private boolean error(String message) {
+        reply.append(Protocol.ERR).append(' ').append(message);
+        return true;
+    }
+
+    /**
+     * Reads one line into the reusable buffer
+     *
+     * @param in The input of the connection
+     * @return The number of bytes read, -1 at the end of the stream or {@link #LINE_TOO_LONG}
+     * @throws IOException If the connection fails
+     */
+    private int readLine(InputStream in) throws IOException {
+        int length = 0;
+        boolean overflow = false;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return overflow ? LINE_TOO_LONG : length;
+            }
+            if (b == '\r') {
+                continue;
+            }
+            if (length < line.length) {
+                line[length++] = (byte) b;
+            } else {
+                overflow = true; //Se descarta el resto de la linea
+            }
+        }
+        return length > 0 && !overflow ? length : -1;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Thread factory for one thread per connection
+ * Uses virtual threads when the running JDK has them and small-stack daemon threads otherwise
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class ConnectionThreads {
+    //Pila reducida para los hilos de plataforma: una conexion solo necesita unos pocos marcos
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private ConnectionThreads() {
+    }
+
+    /**
+     * Creates a factory for connection threads
+     * <p>
+     * The project compiles for Java 17, so the virtual thread builder is looked up reflectively and only used
+     * when the JVM provides it (Java 21 or later).
+     *
+     * @param prefix The prefix of the thread names
+     * @return The thread factory
+     */
+    static ThreadFactory create(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return platformFactory(prefix);
+        }
+    }
+
+    /**
+     * Check if the factories created here produce virtual threads
+     *
+     * @return {@code true} on a JDK with virtual threads
+     */
+    static boolean virtualThreadsAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory platformFactory(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return task -> {
+            Thread thread = new Thread(null, task, prefix + counter.getAndIncrement(), PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * TCP server that hosts "The Eclipsed Sun" for many remote players at once
+ * Runs one thread per connection (virtual when available) and speaks the line protocol of {@link Protocol}
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.server;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.persistence.GameEventLog;
+import com.example.brandonProject.persistence.SnapshotStore;
+import com.example.brandonProject.session.ParkedGames;
+import com.example.brandonProject.session.SessionRegistry;
+import com.example.brandonProject.stats.Leaderboard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameServer implements Closeable {
+
+    /** System property with the seed that makes the words and hints of every connection reproducible */
+    public static final String SEED_PROPERTY = "eclipsedsun.seed";
+
+    private static final System.Logger LOG = System.getLogger(GameServer.class.getName());
+    private static final int ACCEPT_BACKLOG = 4096;  // Conexiones pendientes que el sistema puede encolar
+    private static final Duration EVICTION_PERIOD = Duration.ofSeconds(30);  // Cada cuanto se limpian sesiones inactivas
+    private static final Duration SNAPSHOT_PERIOD = Duration.ofMinutes(1);  // Cada cuanto se guardan todas las sesiones
+    private static final int PARKED_CAPACITY = 1 << 20;  // Partidas sin terminar que se guardan fuera del heap
+
+    private final InetSocketAddress address;
+    private final WordRepository words;
+    private final SessionRegistry registry;
+    private final GameEventLog eventLog;  // Puede ser null si no se guardan los eventos
+    private final RandomSource random;  // Cada conexion recibe una rama propia, solo lo usa el hilo que acepta
+    private final Leaderboard leaderboard = Leaderboard.getDefault();  // Recibe las rondas de los jugadores identificados
+    private final ParkedGames parkedGames = new ParkedGames(PARKED_CAPACITY);  // Rondas de las sesiones desalojadas
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "eclipsed-sun-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadFactory connectionThreads = ConnectionThreads.create("eclipsed-sun-conn-");
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+
+    /**
+     * Creates a server that will listen on an address
+     *
+     * @param address The address to bind; port 0 picks a free port
+     * @param words   The dictionary used to pick secret words
+     */
+    public GameServer(InetSocketAddress address, WordRepository words) {
+        this(address, words, SessionRegistry.getDefault());
+    }
+
+    /**
+     * Creates a server that keeps player sessions in a given registry
+     *
+     * @param address  The address to bind; port 0 picks a free port
+     * @param words    The dictionary used to pick secret words
+     * @param registry The registry where sessions of identified players are kept
+     */
+    public GameServer(InetSocketAddress address, WordRepository words, SessionRegistry registry) {
+        this(address, words, registry, null);
+    }
+
+    /**
+     * Creates a server that also records the moves of identified players
+     *
+     * @param address  The address to bind; port 0 picks a free port
+     * @param words    The dictionary used to pick secret words
+     * @param registry The registry where sessions of identified players are kept
+     * @param eventLog The log where moves are recorded and unfinished rounds recovered, or {@code null}
+     */
+    public GameServer(InetSocketAddress address, WordRepository words, SessionRegistry registry,
+                      GameEventLog eventLog) {
+        this(address, words, registry, eventLog, RandomSource.threadLocal());
+    }
+
+    /**
+     * Creates a server whose word picks and hints come from a given source
+     * <p>
+     * Every accepted connection gets its own {@link RandomSource#split() split}, so with a seeded source the n-th
+     * connection always plays the same words and gets the same hints.
+     *
+     * @param address  The address to bind; port 0 picks a free port
+     * @param words    The dictionary used to pick secret words
+     * @param registry The registry where sessions of identified players are kept
+     * @param eventLog The log where moves are recorded and unfinished rounds recovered, or {@code null}
+     * @param random   The source split for each connection
+     */
+    public GameServer(InetSocketAddress address, WordRepository words, SessionRegistry registry,
+                      GameEventLog eventLog, RandomSource random) {
+        this.address = address;
+        this.words = words;
+        this.registry = registry;
+        this.eventLog = eventLog;
+        this.random = random;
+    }
+
+    /**
+     * Binds the socket and starts accepting connections in the background
+     *
+     * @throws IOException If the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The server is already running");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address, ACCEPT_BACKLOG);
+        registry.setEvictionListener(parkedGames::park); //Las rondas sin terminar se retoman al volver el jugador
+        registry.scheduleEviction(maintenance, EVICTION_PERIOD);
+        acceptor = new Thread(this::acceptLoop, "eclipsed-sun-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server is listening on
+     *
+     * @return The local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of open connections
+     *
+     * @return The number of connected clients
+     */
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * Gets the registry of player sessions
+     *
+     * @return The session registry
+     */
+    public SessionRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the unfinished rounds of players whose sessions were evicted
+     *
+     * @return The parked rounds
+     */
+    public ParkedGames getParkedGames() {
+        return parkedGames;
+    }
+
+    /**
+     * Gets the ranking of the players of this server
+     *
+     * @return The leaderboard
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Saves every session and parked round periodically on the maintenance thread, compacting the event log after
+     * each snapshot
+     *
+     * @param store  The store that keeps the snapshots
+     * @param period The time between snapshots
+     * @return The scheduled task, which can be cancelled
+     */
+    public ScheduledFuture<?> scheduleSnapshots(SnapshotStore store, Duration period) {
+        return store.schedule(maintenance, registry, parkedGames, words, eventLog, period);
+    }
+
+    /**
+     * Stops accepting connections; open connections end when their clients disconnect
+     *
+     * @throws IOException If the socket cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        maintenance.shutdownNow();
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    void connectionClosed() {
+        activeConnections.decrementAndGet();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                activeConnections.incrementAndGet();
+                connectionThreads.newThread(new ConnectionHandler(socket, words, this, registry, parkedGames,
+                        eventLog, leaderboard, random.split())).start();
+            } catch (SocketException e) {
+                return; //El socket del servidor se cerro
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "Error al aceptar una conexion", e);
+            }
+        }
+    }
+
+    /**
+     * Starts a server from the command line
+     *
+     * @param args Optional port (default {@value Protocol#DEFAULT_PORT}) and bind host (default all interfaces);
+     *             moves are logged when {@value GameEventLog#DIRECTORY_PROPERTY} is set, and sessions are
+     *             restored from and saved to snapshots when {@value SnapshotStore#DIRECTORY_PROPERTY} is set;
+     *             {@value #SEED_PROPERTY} makes word picks and hints reproducible
+     * @throws IOException If the server cannot start
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Protocol.DEFAULT_PORT;
+        InetSocketAddress address = args.length > 1 ? new InetSocketAddress(args[1], port) : new InetSocketAddress(port);
+
+        //Los movimientos solo se guardan si se indica el directorio del registro de eventos
+        GameEventLog eventLog = System.getProperty(GameEventLog.DIRECTORY_PROPERTY) != null
+                ? GameEventLog.getDefault() : null;
+        WordRepository words = WordRepository.getDefault();
+        SessionRegistry registry = SessionRegistry.getDefault();
+        String seed = System.getProperty(SEED_PROPERTY);
+        RandomSource random = seed != null ? RandomSource.seeded(Long.parseLong(seed)) : RandomSource.threadLocal();
+        GameServer server = new GameServer(address, words, registry, eventLog, random);
+
+        //Con snapshots, el arranque lee una entrada por sesion y solo repite los eventos posteriores
+        String snapshots = System.getProperty(SnapshotStore.DIRECTORY_PROPERTY);
+        if (snapshots != null) {
+            SnapshotStore store = SnapshotStore.open(Path.of(snapshots));
+            long started = System.nanoTime();
+            int restored = store.load(registry, server.getParkedGames(), words, eventLog);
+            System.out.printf("Restored %d sessions in %.1f ms%n", restored, (System.nanoTime() - started) / 1e6);
+            server.scheduleSnapshots(store, SNAPSHOT_PERIOD);
+        }
+        if (MetricsRegistry.ENABLED) {
+            MetricsRegistry.getDefault().registerMBean();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(MetricsRegistry.getDefault().dump()),
+                    "eclipsed-sun-metrics-dump"));
+        }
+        server.start();
+        System.out.println("Eclipsed Sun server listening on " + address.getHostString() + ":" + server.getPort()
+                + (ConnectionThreads.virtualThreadsAvailable() ? " (virtual threads)" : " (platform threads)"));
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Load generator for the game server
+ * Opens many concurrent connections that play full rounds over loopback and reports throughput and latency
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.server;
+
+import com.example.brandonProject.engine.Alphabet;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadGenerator {
+    private final String host;
+    private final int port;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a load generator for a server
+     *
+     * @param host The server host
+     * @param port The server port
+     */
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Keeps a number of clients connected and playing for a while
+     * <p>
+     * All connections are opened before the measurement starts, so the server holds every session at once.
+     *
+     * @param clients  The number of concurrent connections
+     * @param duration How long the clients play
+     * @param unit     The unit of the duration
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public void run(int clients, long duration, TimeUnit unit) throws InterruptedException {
+        ThreadFactory threads = ConnectionThreads.create("eclipsed-sun-client-");
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch finished = new CountDownLatch(clients);
+        long[] deadline = new long[1];
+        CountDownLatch go = new CountDownLatch(1);
+
+        for (int i = 0; i < clients; i++) {
+            threads.newThread(() -> {
+                boolean ready = false;
+                try (Socket socket = new Socket(host, port)) {
+                    socket.setTcpNoDelay(true);
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 256);
+                    Writer out = new BufferedWriter(
+                            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 256);
+                    ready = true;
+                    connected.countDown();
+                    go.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        playRound(in, out);
+                    }
+                    send(in, out, Protocol.QUIT);
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                    if (!ready) {
+                        connected.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+
+        connected.await();
+        long start = System.nanoTime();
+        deadline[0] = start + unit.toNanos(duration);
+        go.countDown();
+        finished.await();
+        report(clients, System.nanoTime() - start);
+    }
+
+    private void playRound(BufferedReader in, Writer out) throws IOException {
+        String reply = send(in, out, Protocol.NEW);
+        for (int i = 0; i < Alphabet.FREQUENCY_ORDER.length() && !reply.startsWith("WON") && !reply.startsWith("LOST"); i++) {
+            reply = send(in, out, Protocol.GUESS + ' ' + Alphabet.FREQUENCY_ORDER.charAt(i));
+        }
+        rounds.increment();
+        if (reply.startsWith("WON")) {
+            wins.increment();
+        }
+    }
+
+    private String send(BufferedReader in, Writer out, String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("The server closed the connection");
+        }
+        long elapsed = System.nanoTime() - start;
+        requests.increment();
+        latencyNanos.add(elapsed);
+        maxLatencyNanos.accumulate(elapsed);
+        return reply;
+    }
+
+    private void report(int clients, long elapsedNanos) {
+        long total = requests.sum();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("clients=%d failed=%d rounds=%d wins=%d requests=%d%n",
+                clients, failures.get(), rounds.sum(), wins.sum(), total);
+        System.out.printf("throughput=%.0f req/s mean=%.1f us max=%.1f us%n",
+                total / seconds, total == 0 ? 0.0 : latencyNanos.sum() / 1e3 / total, maxLatencyNanos.get() / 1e3);
+    }
+
+    /**
+     * Runs the load generator from the command line
+     *
+     * @param args Optional host (default localhost), port, number of clients (default 10000) and seconds (default 30)
+     * @throws InterruptedException If the run is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : Protocol.DEFAULT_PORT;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        new LoadGenerator(host, port).run(clients, seconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Text protocol spoken between the game server and its clients
+ * <p>
+ * Every message is one UTF-8 line. Client commands:
+ * <pre>
+ * PLAYER id        bind the connection to a player (id >= 0), resuming the player's live round if there is one
+ * NEW              start a new round with a random word
+ * GUESS x          guess the letter x
+ * HINT             reveal a letter, spending one of the round's hints
+ * STATE            describe the round without changing it
+ * TOP              list the ten players with most wins
+ * QUIT             close the connection
+ * </pre>
+ * Server replies start with a keyword ({@code OK}, {@code HIT}, {@code MISS}, {@code REPEAT}, {@code WON},
+ * {@code LOST}, {@code HINT}, {@code STATE}, {@code BYE} or {@code ERR}) followed by the masked word, the attempts
+ * left and the hints left, separated by spaces. {@code LOST} also carries the secret word. {@code TOP} is answered
+ * with {@code TOP} followed by one {@code id:wins} pair per ranked player.
+ * <p>
+ * Words may be phrases, so the masked word and the secret word are sent with {@link #appendWord}: every space,
+ * control character and {@code %} is written as {@code %} and two hex digits ({@code "la_c_sa"} with a space becomes
+ * {@code "la%20c_sa"}), and clients read them back with {@link #decodeWord}. Hidden characters stay {@code _}.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.server;
+
+public final class Protocol {
+
+    public static final String PLAYER = "PLAYER";
+    public static final String NEW = "NEW";
+    public static final String GUESS = "GUESS";
+    public static final String HINT = "HINT";
+    public static final String STATE = "STATE";
+    public static final String TOP = "TOP";
+    public static final String QUIT = "QUIT";
+
+    public static final String OK = "OK";
+    public static final String BYE = "BYE";
+    public static final String ERR = "ERR";
+
+    /** Longest command line accepted, in bytes; longer lines are rejected */
+    public static final int MAX_LINE_BYTES = 64;
+
+    /** Players listed in the reply to {@link #TOP} */
+    public static final int TOP_SIZE = 10;
+
+    /** Default TCP port of the server */
+    public static final int DEFAULT_PORT = 5050;
+
+    private Protocol() {
+    }
+
+    /**
+     * Appends a word to a reply so that it is a single space-free token
+     *
+     * @param reply The reply being built
+     * @param word  The masked or secret word
+     * @return The reply
+     */
+    public static StringBuilder appendWord(StringBuilder reply, CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c <= ' ' || c == '%') {
+                reply.append('%').append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                reply.append(c);
+            }
+        }
+        return reply;
+    }
+
+    /**
+     * Reads back a word written with {@link #appendWord}
+     *
+     * @param token The token of the reply
+     * @return The word
+     * @throws IllegalArgumentException If an escape is not {@code %} followed by two hex digits
+     */
+    public static String decodeWord(String token) {
+        if (token.indexOf('%') < 0) {
+            return token;
+        }
+        StringBuilder word = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '%') {
+                word.append(c);
+                continue;
+            }
+            int high = i + 2 < token.length() ? Character.digit(token.charAt(i + 1), 16) : -1;
+            int low = high >= 0 ? Character.digit(token.charAt(i + 2), 16) : -1;
+            if (low < 0) {
+                throw new IllegalArgumentException("Bad escape in word: " + token);
+            }
+            word.append((char) (high << 4 | low));
+            i += 2;
+        }
+        return word.toString();
+    }
+}
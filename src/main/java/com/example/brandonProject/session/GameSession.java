@@ -0,0 +1,177 @@
+/**
+ * State of one player's round: the game plus the remaining help budget
+ * Shared by the JavaFX controller and the network server so both apply the same rules; the moves lock the session,
+ * so a snapshot taken from another thread while holding the same lock sees a consistent state
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import com.example.brandonProject.engine.WordIndex;
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.model.Game;
+
+public class GameSession {
+    private static final Counter HELPS_USED = MetricsRegistry.getDefault().counter("session.helps");
+
+    /** Number of hints a player can ask for in one round */
+    public static final int MAX_HELPS = 3;
+
+    //Se cambian con el candado de la sesion; volatile para quien los lee sin el, como la vista
+    private volatile Game game;  // Partida en curso
+    private volatile int helpsLeft;  // Ayudas que le quedan al jugador
+    private int playerId = -1;  // Jugador dueño de la sesion, -1 si es anonima
+    private SessionListener listener;  // Recibe los movimientos, puede ser null
+    private int connections;  // Conexiones que juegan esta sesion; solo se cambia con el candado de la sesion
+
+    /**
+     * Starts a session with a game
+     *
+     * @param game The first game of the session
+     */
+    public GameSession(Game game) {
+        restart(game);
+    }
+
+    /**
+     * Restores a session with a game in progress
+     *
+     * @param game      The game in progress
+     * @param helpsLeft The hints the player has left
+     */
+    public GameSession(Game game, int helpsLeft) {
+        this.game = game;
+        this.helpsLeft = helpsLeft;
+    }
+
+    /**
+     * Binds the session to a player and reports its moves from now on
+     *
+     * @param playerId The player id
+     * @param listener Receives the moves, or {@code null} to stop reporting them
+     */
+    public synchronized void setListener(int playerId, SessionListener listener) {
+        this.playerId = playerId;
+        this.listener = listener;
+    }
+
+    /**
+     * Replaces the current game and restores the help budget
+     *
+     * @param game The new game
+     */
+    public synchronized void restart(Game game) {
+        if (this.game != null && this.game != game) {
+            this.game.closeEvents(); //Los suscriptores de la partida abandonada terminan
+        }
+        this.game = game;
+        this.helpsLeft = MAX_HELPS;
+        if (listener != null) {
+            listener.onNewGame(playerId, game);
+        }
+    }
+
+    /**
+     * Starts a new round over a prepared word, resetting the current game in place and restoring the help budget
+     * <p>
+     * Unlike {@link #restart(Game)}, no game object is created; whoever follows the game must subscribe again to
+     * {@link Game#events()}.
+     *
+     * @param index  The index of the new secret word
+     * @param wordId The id of the word in the dictionary, or -1 if it does not come from one
+     */
+    public synchronized void restart(WordIndex index, int wordId) {
+        game.reset(index, wordId);
+        this.helpsLeft = MAX_HELPS;
+        if (listener != null) {
+            listener.onNewGame(playerId, game);
+        }
+    }
+
+    /**
+     * Guesses a letter in the current game
+     *
+     * @param letter The letter guessed by the player
+     * @return The outcome of the guess
+     */
+    public synchronized GuessResult guess(char letter) {
+        GuessResult result = game.makeGuess(letter);
+        if (listener != null && result != GuessResult.REPEAT) {
+            listener.onGuess(playerId, letter);
+            if (result.finished()) {
+                listener.onGameOver(playerId, result == GuessResult.WON, game.getAttempts(), MAX_HELPS - helpsLeft);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reveals a letter if the player still has hints and the game is not over
+     *
+     * @return The revealed letter, or {@link GameEngine#HIDDEN} if no hint was given
+     */
+    public synchronized char useHelp() {
+        if (helpsLeft <= 0 || game.isGameOver()) {
+            return GameEngine.HIDDEN;
+        }
+        char hint = game.revealLetter();
+        if (hint != GameEngine.HIDDEN) {
+            helpsLeft--;
+            HELPS_USED.increment();
+            if (listener != null) {
+                listener.onHint(playerId, hint);
+                if (game.isWon()) { //La ayuda destapo la ultima letra
+                    listener.onGameOver(playerId, true, game.getAttempts(), MAX_HELPS - helpsLeft);
+                }
+            }
+        }
+        return hint;
+    }
+
+    /**
+     * Records that a connection plays this session from now on
+     */
+    public synchronized void attach() {
+        connections++;
+    }
+
+    /**
+     * Records that a connection stopped playing this session
+     */
+    public synchronized void detach() {
+        if (connections > 0) {
+            connections--;
+        }
+    }
+
+    /**
+     * Check if some connection still plays this session; must be called holding the session's lock
+     *
+     * @return {@code true} if the session is attached to a connection
+     */
+    public boolean isAttached() {
+        return connections > 0;
+    }
+
+    /**
+     * Gets the game in progress
+     *
+     * @return The current game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the number of hints left
+     *
+     * @return The remaining help budget
+     */
+    public int getHelpsLeft() {
+        return helpsLeft;
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * Off-heap store of the unfinished rounds of players who left mid-game
+ * <p>
+ * A parked round is a fixed {@value #RECORD_SIZE}-byte record in direct memory: the guessed-letter mask (long), the
+ * player id (int), the dictionary id of the secret word (int), the failed attempts, the hints left and the alphabet
+ * (one byte each). Records live in direct buffers of {@value #SEGMENT_RECORDS} records that are allocated as the
+ * store grows, and freed records are chained in a free list through their word id field. Player ids are found with
+ * an open-addressing table of record numbers, also off-heap, so parking millions of rounds adds no objects to the
+ * heap and parking or rehydrating one costs a few reads regardless of how many are parked.
+ * <p>
+ * Only rounds whose word comes from the dictionary can be parked; the word itself is read back by id. Sessions still
+ * attached to a connection are never parked, since the connection keeps playing them.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import com.example.brandonProject.model.Game;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public final class ParkedGames {
+    private static final Counter PARKED = MetricsRegistry.getDefault().counter("session.parked");
+    private static final Counter UNPARKED = MetricsRegistry.getDefault().counter("session.unparked");
+
+    /** Bytes of one parked round */
+    public static final int RECORD_SIZE = 24;
+
+    /** Largest capacity whose lookup table fits in one direct buffer */
+    public static final int MAX_CAPACITY = 1 << 27;
+
+    private static final int SEGMENT_RECORDS = 1 << 16;  // Registros por bloque de memoria directa
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int MASK_OFFSET = 0;
+    private static final int PLAYER_OFFSET = 8;
+    private static final int WORD_OFFSET = 12;  // En un registro libre guarda el siguiente registro libre
+    private static final int ATTEMPTS_OFFSET = 16;
+    private static final int HELPS_OFFSET = 17;
+    private static final int ALPHABET_OFFSET = 18;
+    private static final int NO_RECORD = -1;
+    private static final List<Alphabet> ALPHABETS = Alphabet.packs();
+
+    private final int capacity;  // Cantidad maxima de partidas estacionadas
+    private final ByteBuffer[] segments;  // Se reservan a medida que se necesitan
+    private final ByteBuffer table;  // Numero de registro + 1 por casilla, 0 si esta vacia
+    private final int tableMask;
+    private int freeHead = NO_RECORD;  // Primer registro de la lista libre
+    private int used;  // Registros entregados alguna vez; los siguientes nunca se usaron
+    private int size;
+
+    /**
+     * Creates an empty store; only the lookup table is allocated up front
+     *
+     * @param capacity The maximum number of parked rounds, at most {@value #MAX_CAPACITY}
+     */
+    public ParkedGames(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.segments = new ByteBuffer[(capacity + SEGMENT_RECORDS - 1) >>> SEGMENT_SHIFT];
+        //La tabla queda a lo sumo medio llena para que las busquedas lineales sean cortas
+        int slots = Math.max(2, Integer.highestOneBit(capacity - 1) << 2);
+        this.table = ByteBuffer.allocateDirect(slots * 4);
+        this.tableMask = slots - 1;
+    }
+
+    /**
+     * Parks the round of a player, replacing the one already parked for that player
+     * <p>
+     * Finished rounds, rounds whose word is not in the dictionary, sessions still attached to a connection and rounds
+     * arriving when the store is full are not parked.
+     *
+     * @param playerId The player id
+     * @param session  The player's session
+     * @return {@code true} if the round was parked
+     */
+    public boolean park(int playerId, GameSession session) {
+        int helps;
+        long mask;
+        int attempts;
+        int wordId;
+        int alphabet;
+        synchronized (session) { //Los movimientos toman el mismo candado: se copia un estado consistente
+            Game game = session.getGame();
+            if (session.isAttached() || game.isGameOver() || game.getWordId() < 0) {
+                return false;
+            }
+            helps = session.getHelpsLeft();
+            mask = game.getEngine().guessedMask();
+            attempts = game.getAttempts();
+            wordId = game.getWordId();
+            alphabet = ALPHABETS.indexOf(game.getAlphabet());
+        }
+
+        synchronized (this) {
+            int slot = find(playerId);
+            int record = slot >= 0 ? table.getInt(slot) - 1 : allocate();
+            if (record == NO_RECORD) {
+                return false;
+            }
+            if (slot < 0) {
+                table.putInt(~slot, record + 1);
+                size++;
+            }
+            ByteBuffer segment = segments[record >>> SEGMENT_SHIFT];
+            int at = (record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE;
+            segment.putLong(at + MASK_OFFSET, mask)
+                    .putInt(at + PLAYER_OFFSET, playerId)
+                    .putInt(at + WORD_OFFSET, wordId)
+                    .put(at + ATTEMPTS_OFFSET, (byte) attempts)
+                    .put(at + HELPS_OFFSET, (byte) helps)
+                    .put(at + ALPHABET_OFFSET, (byte) alphabet);
+        }
+        PARKED.increment();
+        return true;
+    }
+
+    /**
+     * Takes the parked round of a player out of the store and rebuilds its session
+     *
+     * @param playerId The player id
+     * @param words    The dictionary the word ids refer to
+     * @return The session with the round in progress, or {@code null} if the player has no parked round
+     */
+    public GameSession unpark(int playerId, WordRepository words) {
+        long mask;
+        int wordId;
+        int attempts;
+        int helps;
+        int alphabet;
+        synchronized (this) {
+            int slot = find(playerId);
+            if (slot < 0) {
+                return null;
+            }
+            int record = table.getInt(slot) - 1;
+            ByteBuffer segment = segments[record >>> SEGMENT_SHIFT];
+            int at = (record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE;
+            mask = segment.getLong(at + MASK_OFFSET);
+            wordId = segment.getInt(at + WORD_OFFSET);
+            attempts = segment.get(at + ATTEMPTS_OFFSET);
+            helps = segment.get(at + HELPS_OFFSET);
+            alphabet = segment.get(at + ALPHABET_OFFSET);
+            delete(slot);
+            release(record);
+        }
+        UNPARKED.increment();
+        Alphabet letters = alphabet >= 0 ? ALPHABETS.get(alphabet) : Alphabet.getDefault();
+        return new GameSession(Game.restore(words.word(wordId), wordId, mask, attempts, letters), helps);
+    }
+
+    /**
+     * Drops the parked round of a player, if any
+     *
+     * @param playerId The player id
+     * @return {@code true} if a round was dropped
+     */
+    public synchronized boolean remove(int playerId) {
+        int slot = find(playerId);
+        if (slot < 0) {
+            return false;
+        }
+        int record = table.getInt(slot) - 1;
+        delete(slot);
+        release(record);
+        return true;
+    }
+
+    /**
+     * Check if a player has a parked round
+     *
+     * @param playerId The player id
+     * @return {@code true} if the player has a parked round
+     */
+    public synchronized boolean contains(int playerId) {
+        return find(playerId) >= 0;
+    }
+
+    /**
+     * Visits every parked round without taking it out of the store
+     * <p>
+     * The visitor runs while the store is locked, so the rounds it sees are consistent but parking and rehydrating
+     * wait until it returns; it should only copy the values it needs.
+     *
+     * @param visitor Receives the fields of each parked round
+     */
+    public synchronized void forEach(RoundVisitor visitor) {
+        for (int slot = 0; slot <= tableMask; slot++) {
+            int entry = table.getInt(slot << 2);
+            if (entry == 0) {
+                continue;
+            }
+            int record = entry - 1;
+            ByteBuffer segment = segments[record >>> SEGMENT_SHIFT];
+            int at = (record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE;
+            int alphabet = segment.get(at + ALPHABET_OFFSET);
+            visitor.visit(segment.getInt(at + PLAYER_OFFSET), segment.getInt(at + WORD_OFFSET),
+                    alphabet >= 0 ? ALPHABETS.get(alphabet) : Alphabet.getDefault(),
+                    segment.getLong(at + MASK_OFFSET), segment.get(at + ATTEMPTS_OFFSET),
+                    segment.get(at + HELPS_OFFSET));
+        }
+    }
+
+    /**
+     * Gets the number of parked rounds
+     *
+     * @return The number of rounds
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of parked rounds
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the direct memory reserved so far, including the lookup table
+     *
+     * @return The number of bytes
+     */
+    public synchronized long offHeapBytes() {
+        long bytes = table.capacity();
+        for (ByteBuffer segment : segments) {
+            if (segment != null) {
+                bytes += segment.capacity();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Finds the table slot of a player
+     *
+     * @return The slot, or the complement of the empty slot where the player would go
+     */
+    private int find(int playerId) {
+        for (int slot = hash(playerId); ; slot = (slot + 1) & tableMask) {
+            int entry = table.getInt(slot << 2);
+            if (entry == 0) {
+                return ~(slot << 2);
+            }
+            if (playerOf(entry - 1) == playerId) {
+                return slot << 2;
+            }
+        }
+    }
+
+    /**
+     * Empties a table slot, moving back the entries of the same run so every lookup still finds them
+     */
+    private void delete(int slotOffset) {
+        int hole = slotOffset >>> 2;
+        for (int slot = (hole + 1) & tableMask; ; slot = (slot + 1) & tableMask) {
+            int entry = table.getInt(slot << 2);
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(playerOf(entry - 1));
+            //Solo se mueve si su casilla de origen no queda entre el hueco y su posicion actual
+            if (((slot - home) & tableMask) >= ((slot - hole) & tableMask)) {
+                table.putInt(hole << 2, entry);
+                hole = slot;
+            }
+        }
+        table.putInt(hole << 2, 0);
+        size--;
+    }
+
+    private int allocate() {
+        if (freeHead != NO_RECORD) {
+            int record = freeHead;
+            freeHead = segments[record >>> SEGMENT_SHIFT].getInt((record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE
+                    + WORD_OFFSET);
+            return record;
+        }
+        if (used == capacity) {
+            return NO_RECORD;
+        }
+        int record = used++;
+        if (segments[record >>> SEGMENT_SHIFT] == null) {
+            int records = Math.min(SEGMENT_RECORDS, capacity - (record & ~(SEGMENT_RECORDS - 1)));
+            segments[record >>> SEGMENT_SHIFT] = ByteBuffer.allocateDirect(records * RECORD_SIZE);
+        }
+        return record;
+    }
+
+    private void release(int record) {
+        segments[record >>> SEGMENT_SHIFT].putInt((record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE + WORD_OFFSET,
+                freeHead);
+        freeHead = record;
+    }
+
+    private int playerOf(int record) {
+        return segments[record >>> SEGMENT_SHIFT].getInt((record & (SEGMENT_RECORDS - 1)) * RECORD_SIZE
+                + PLAYER_OFFSET);
+    }
+
+    private int hash(int playerId) {
+        int h = playerId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & tableMask;
+    }
+
+    /**
+     * Receives the rounds visited by {@link #forEach(RoundVisitor)}
+     */
+    @FunctionalInterface
+    public interface RoundVisitor {
+        void visit(int playerId, int wordId, Alphabet alphabet, long guessedMask, int attempts, int helps);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Receives the moves of a game session, for example to persist them
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import com.example.brandonProject.model.Game;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public interface SessionListener {
+
+    /**
+     * Called when a player starts a round
+     *
+     * @param playerId The player id
+     * @param game     The new game, read while the session is locked
+     */
+    void onNewGame(int playerId, Game game);
+
+    /**
+     * Called after a player guesses a letter that changed the game (repeated letters are not reported)
+     *
+     * @param playerId The player id
+     * @param letter   The guessed letter
+     */
+    void onGuess(int playerId, char letter);
+
+    /**
+     * Called after a hint reveals a letter
+     *
+     * @param playerId The player id
+     * @param letter   The revealed letter
+     */
+    void onHint(int playerId, char letter);
+
+    /**
+     * Called once when a round ends, whether by a guess or by a hint that uncovers the last letter
+     *
+     * @param playerId  The player id
+     * @param won       {@code true} if the player uncovered the word
+     * @param misses    The failed attempts of the round
+     * @param hintsUsed The hints used in the round
+     */
+    default void onGameOver(int playerId, boolean won, int misses, int hintsUsed) {
+    }
+
+    /**
+     * Combines several listeners into one that calls them in order
+     *
+     * @param listeners The listeners; {@code null} entries are skipped
+     * @return The combined listener, or {@code null} if none was given
+     */
+    static SessionListener of(SessionListener... listeners) {
+        SessionListener[] all = Arrays.stream(listeners).filter(Objects::nonNull).toArray(SessionListener[]::new);
+        if (all.length <= 1) {
+            return all.length == 0 ? null : all[0];
+        }
+        return new SessionListener() {
+            @Override
+            public void onNewGame(int playerId, Game game) {
+                for (SessionListener listener : all) {
+                    listener.onNewGame(playerId, game);
+                }
+            }
+
+            @Override
+            public void onGuess(int playerId, char letter) {
+                for (SessionListener listener : all) {
+                    listener.onGuess(playerId, letter);
+                }
+            }
+
+            @Override
+            public void onHint(int playerId, char letter) {
+                for (SessionListener listener : all) {
+                    listener.onHint(playerId, letter);
+                }
+            }
+
+            @Override
+            public void onGameOver(int playerId, boolean won, int misses, int hintsUsed) {
+                for (SessionListener listener : all) {
+                    listener.onGameOver(playerId, won, misses, hintsUsed);
+                }
+            }
+        };
+    }
+}
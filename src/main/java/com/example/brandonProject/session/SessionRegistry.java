@@ -0,0 +1,406 @@
+/**
+ * Concurrent registry of live game sessions keyed by player id
+ * Backed by a {@link ConcurrentHashMap}, so lookups never take a global lock; idle sessions are evicted by
+ * time to live and, when the registry is full, by approximate least-recent use
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+public class SessionRegistry {
+    //Al superar la capacidad se libera un poco mas de lo necesario para no desalojar en cada insercion
+    private static final double EVICTION_TARGET = 0.9;
+
+    private static volatile SessionRegistry defaultRegistry;
+
+    private final ConcurrentHashMap<Integer, Entry> sessions = new ConcurrentHashMap<>();
+    private final int capacity;  // Cantidad maxima de sesiones vivas
+    private final long ttlNanos;  // Tiempo maximo sin actividad
+    private final LongSupplier clock;  // Reloj en nanosegundos
+    private final AtomicBoolean evicting = new AtomicBoolean();  // Solo un hilo desaloja a la vez
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+    private volatile SessionVisitor evictionListener;  // Recibe las sesiones desalojadas, puede ser null
+
+    /**
+     * Creates a registry
+     *
+     * @param capacity The maximum number of live sessions
+     * @param ttl      How long a session may stay idle before it is evicted
+     */
+    public SessionRegistry(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a registry with its own clock
+     *
+     * @param capacity The maximum number of live sessions
+     * @param ttl      How long a session may stay idle before it is evicted
+     * @param clock    The time source, in nanoseconds
+     */
+    public SessionRegistry(int capacity, Duration ttl, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the registry shared by the application, with room for 100 000 sessions idle for up to 30 minutes
+     *
+     * @return The shared registry
+     */
+    public static SessionRegistry getDefault() {
+        SessionRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (SessionRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = new SessionRegistry(100_000, Duration.ofMinutes(30));
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Gets the live session of a player and marks it as used
+     *
+     * @param playerId The player id
+     * @return The session, or {@code null} if the player has none or it expired
+     */
+    public GameSession get(int playerId) {
+        Entry entry = sessions.get(playerId);
+        long now = clock.getAsLong();
+        if (entry == null || expired(entry, now)) {
+            if (entry != null && removeIfIdle(playerId, entry, now - ttlNanos - 1)) {
+                expirations.increment();
+                evicted(playerId, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.increment();
+        return entry.session;
+    }
+
+    /**
+     * Gets the live session of a player, creating it if there is none
+     * <p>
+     * The factory runs outside the map, so it may do slow work such as reading files; if another thread registers a
+     * session for the same player meanwhile, that session wins and the created one is dropped.
+     *
+     * @param playerId The player id
+     * @param factory  Creates the session from the player id
+     * @return The existing or new session
+     */
+    public GameSession getOrCreate(int playerId, IntFunction<GameSession> factory) {
+        GameSession session = get(playerId);
+        if (session != null) {
+            return session;
+        }
+        GameSession created = factory.apply(playerId);
+        Entry existing = sessions.putIfAbsent(playerId, new Entry(created, clock.getAsLong()));
+        if (existing != null) {
+            existing.lastAccess = clock.getAsLong();
+            return existing.session;
+        }
+        evictIfFull();
+        return created;
+    }
+
+    /**
+     * Marks the session of a player as used, registering it again if it was evicted
+     * <p>
+     * Connections call it on every move, so a session that is being played never reaches the time to live. If
+     * another session was registered for the player meanwhile, nothing changes.
+     *
+     * @param playerId The player id
+     * @param session  The player's session
+     */
+    public void touch(int playerId, GameSession session) {
+        long now = clock.getAsLong();
+        Entry entry = sessions.get(playerId);
+        if (entry == null) {
+            if (sessions.putIfAbsent(playerId, new Entry(session, now)) == null) {
+                evictIfFull();
+            }
+        } else if (entry.session == session) {
+            entry.lastAccess = now;
+        }
+    }
+
+    /**
+     * Registers or replaces the session of a player
+     *
+     * @param playerId The player id
+     * @param session  The player's session
+     */
+    public void put(int playerId, GameSession session) {
+        sessions.put(playerId, new Entry(session, clock.getAsLong()));
+        evictIfFull();
+    }
+
+    /**
+     * Removes the session of a player
+     *
+     * @param playerId The player id
+     * @return The removed session, or {@code null} if there was none
+     */
+    public GameSession remove(int playerId) {
+        Entry entry = sessions.remove(playerId);
+        return entry == null ? null : entry.session;
+    }
+
+    /**
+     * Sets who receives the sessions evicted by time to live or by capacity, for example to park unfinished rounds
+     * <p>
+     * Sessions removed with {@link #remove(int)} or replaced with {@link #put(int, GameSession)} are not reported.
+     *
+     * @param listener Receives the player id and the evicted session, or {@code null} to stop reporting them
+     */
+    public void setEvictionListener(SessionVisitor listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * Gets the number of registered sessions, including expired ones not evicted yet
+     *
+     * @return The number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Visits every live session
+     *
+     * @param visitor Receives the player id and the session
+     */
+    public void forEach(SessionVisitor visitor) {
+        long now = clock.getAsLong();
+        for (Map.Entry<Integer, Entry> e : sessions.entrySet()) {
+            if (!expired(e.getValue(), now)) {
+                visitor.visit(e.getKey(), e.getValue().session);
+            }
+        }
+    }
+
+    /**
+     * Removes every session idle for longer than the time to live
+     *
+     * @return The number of evicted sessions
+     */
+    public int evictExpired() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Iterator<Map.Entry<Integer, Entry>> it = sessions.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Entry> e = it.next();
+            if (expired(e.getValue(), now) && removeIfIdle(e.getKey(), e.getValue(), now - ttlNanos - 1)) {
+                evicted++;
+                evicted(e.getKey(), e.getValue());
+            }
+        }
+        expirations.add(evicted);
+        return evicted;
+    }
+
+    /**
+     * Runs {@link #evictExpired()} periodically
+     *
+     * @param scheduler The executor that runs the sweep
+     * @param period    The time between sweeps
+     * @return The scheduled task, which can be cancelled
+     */
+    public ScheduledFuture<?> scheduleEviction(ScheduledExecutorService scheduler, Duration period) {
+        long nanos = period.toNanos();
+        return scheduler.scheduleAtFixedRate(this::evictExpired, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes a snapshot of the usage counters
+     *
+     * @return The current counters
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), expirations.sum(), capacityEvictions.sum(), sessions.size());
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.lastAccess > ttlNanos;
+    }
+
+    /**
+     * Removes an entry only if it is still the one registered for the player and was not used after a time
+     * <p>
+     * The iterators of the map may return entries that were replaced or used after they were checked; the check is
+     * repeated while the map holds the entry, so a live session is never removed and reported as evicted.
+     *
+     * @param idleSince The entry is removed only if its last use is not after this time
+     * @return {@code true} if the entry was removed
+     */
+    private boolean removeIfIdle(int playerId, Entry entry, long idleSince) {
+        boolean[] removed = new boolean[1];
+        sessions.computeIfPresent(playerId, (id, current) -> {
+            if (current == entry && current.lastAccess - idleSince <= 0) {
+                removed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        return removed[0];
+    }
+
+    private void evicted(int playerId, Entry entry) {
+        SessionVisitor listener = evictionListener;
+        if (listener != null) {
+            listener.visit(playerId, entry.session);
+        }
+    }
+
+    /**
+     * Evicts the least recently used sessions once the registry goes over capacity
+     * <p>
+     * A single thread does the work while the rest keep reading and writing the map. The cut-off time is taken
+     * from the access times of all entries, so each eviction pass frees about 10% of the capacity at once.
+     */
+    private void evictIfFull() {
+        if (sessions.size() <= capacity || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = (int) (capacity * EVICTION_TARGET);
+            int excess = sessions.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            long[] accessTimes = new long[sessions.size()];
+            int count = 0;
+            for (Entry entry : sessions.values()) {
+                if (count == accessTimes.length) {
+                    break;
+                }
+                accessTimes[count++] = entry.lastAccess;
+            }
+            Arrays.sort(accessTimes, 0, count);
+            long cutoff = accessTimes[Math.min(excess, count) - 1];
+
+            int evicted = 0;
+            for (Iterator<Map.Entry<Integer, Entry>> it = sessions.entrySet().iterator();
+                 it.hasNext() && evicted < excess; ) {
+                Map.Entry<Integer, Entry> e = it.next();
+                if (e.getValue().lastAccess - cutoff <= 0 && removeIfIdle(e.getKey(), e.getValue(), cutoff)) {
+                    evicted++;
+                    evicted(e.getKey(), e.getValue());
+                }
+            }
+            capacityEvictions.add(evicted);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Receives the sessions visited by {@link #forEach(SessionVisitor)}
+     */
+    @FunctionalInterface
+    public interface SessionVisitor {
+        void visit(int playerId, GameSession session);
+    }
+
+    /**
+     * Usage counters of the registry
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long expirations;
+        private final long capacityEvictions;
+        private final int size;
+
+        Stats(long hits, long misses, long expirations, long capacityEvictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.expirations = expirations;
+            this.capacityEvictions = capacityEvictions;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Gets the sessions evicted for being idle longer than the time to live
+         *
+         * @return The number of expired sessions
+         */
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * Gets the sessions evicted to keep the registry under its capacity
+         *
+         * @return The number of sessions evicted by capacity
+         */
+        public long getCapacityEvictions() {
+            return capacityEvictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Gets the share of lookups that found a live session
+         *
+         * @return The hit ratio between 0 and 1
+         */
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "size=" + size + " hits=" + hits + " misses=" + misses + " expirations=" + expirations
+                    + " capacityEvictions=" + capacityEvictions;
+        }
+    }
+
+    private static final class Entry {
+        private final GameSession session;
+        private volatile long lastAccess;  // Ultimo uso, en nanosegundos del reloj del registro
+
+        Entry(GameSession session, long lastAccess) {
+            this.session = session;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Batch tool that rates every word of a dictionary by how many misses an optimal player needs
+ * Plays the regular {@link Game} rules against the {@link Solver} on all cores and streams a
+ * {@link DifficultyTable} to disk, with checkpoints so an interrupted run can resume
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.solver;
+
+import com.example.brandonProject.dictionary.DifficultyTable;
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.model.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class DifficultyScorer {
+    private static final int CHUNK_SIZE = 16_384;  // Palabras puntuadas entre dos puntos de control
+    //Estados con al menos esta cantidad de candidatas se calculan una sola vez y se comparten entre partidas
+    private static final int SHARED_MOVE_THRESHOLD = 256;
+    private static final int MAX_SHARED_MOVES = 1 << 16;  // Tope de la cache; al llenarse solo se leen las jugadas
+
+    private final WordRepository words;
+    private final SolverDictionary dictionary;
+    private final ForkJoinPool pool;
+    private final ConcurrentHashMap<String, Character> sharedMoves = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a scorer for a dictionary
+     *
+     * @param words The dictionary to score
+     * @param pool  The pool that plays the games; idle workers steal games from busy ones
+     */
+    public DifficultyScorer(WordRepository words, ForkJoinPool pool) {
+        this.words = words;
+        this.dictionary = SolverDictionary.of(words);
+        this.pool = pool;
+    }
+
+    /**
+     * Scores the whole dictionary into a table file
+     * <p>
+     * Scores are written chunk by chunk and synced to disk before the checkpoint file ({@code output + ".ckpt"})
+     * records the next word to score. If the checkpoint exists and the table was started for a dictionary of the same
+     * size, the run resumes from it; otherwise it starts over. Only one chunk of results is held in memory at a time.
+     * The checkpoint is deleted when the table is complete.
+     *
+     * @param output The table file
+     * @throws IOException          If the table cannot be written
+     * @throws InterruptedException If the run is interrupted; it can be resumed later
+     */
+    public void score(Path output) throws IOException, InterruptedException {
+        Path checkpoint = output.resolveSibling(output.getFileName() + ".ckpt");
+        int total = words.size();
+        int next = resumePoint(checkpoint, output, total);
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (next == 0) {
+                channel.truncate(0);
+                channel.write(DifficultyTable.header(total), 0);
+            } else {
+                channel.truncate(DifficultyTable.HEADER_SIZE + (long) next); //Descarta puntajes sin punto de control
+            }
+
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (next < total) {
+                int start = next;
+                int end = Math.min(total, start + CHUNK_SIZE);
+                try {
+                    pool.submit(() -> IntStream.range(start, end).parallel()
+                            .forEach(id -> chunk[id - start] = (byte) play(words.word(id)))).get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Scoring failed near word " + start, e.getCause());
+                }
+
+                ByteBuffer scores = ByteBuffer.wrap(chunk, 0, end - start);
+                long position = DifficultyTable.HEADER_SIZE + (long) start;
+                while (scores.hasRemaining()) {
+                    position += channel.write(scores, position);
+                }
+                channel.force(false);
+                next = end;
+                writeCheckpoint(checkpoint, next);
+                System.out.printf("Scored %d/%d words%n", next, total);
+            }
+        }
+        Files.deleteIfExists(checkpoint);
+    }
+
+    /**
+     * Plays one word with the solver
+     *
+     * @param word The secret word
+     * @return The misses the solver needed, {@link DifficultyTable#LOST} if it lost, or
+     * {@link DifficultyTable#UNSCORED} if the word cannot be indexed by the solver
+     */
+    int play(String word) {
+        if (dictionary.fold(word) == null) {
+            return DifficultyTable.UNSCORED;
+        }
+        Game game = new Game(word, -1, RandomSource.threadLocal(), dictionary.alphabet());
+        Solver solver = new Solver(dictionary, word.length(), pool);
+        while (!game.isGameOver()) {
+            game.makeGuess(nextGuess(game, solver));
+            solver.update(game);
+        }
+        return game.isWon() ? game.getAttempts() : DifficultyTable.LOST;
+    }
+
+    /**
+     * Picks the solver's move, reusing it when another game already reached the same state
+     * <p>
+     * The move depends only on the word length, the masked pattern and the letters tried, so the first moves of
+     * every word of a length are the same. Only states with many candidates are shared, which keeps the cache
+     * small while skipping the expensive partitions; once it holds {@value #MAX_SHARED_MOVES} states no more are
+     * added. The move is computed outside the map: the solver forks tasks, and a worker that joins them may play
+     * other games that update the same map, which a mapping function of {@link ConcurrentHashMap} must not do.
+     */
+    private char nextGuess(Game game, Solver solver) {
+        if (solver.getCandidateCount() < SHARED_MOVE_THRESHOLD) {
+            return solver.nextGuess();
+        }
+        String state = game.getEngine().guessedMask() + ":" + game.getEngine().maskedWord();
+        Character shared = sharedMoves.get(state);
+        if (shared != null) {
+            return shared;
+        }
+        char move = solver.nextGuess();
+        if (sharedMoves.size() < MAX_SHARED_MOVES) {
+            sharedMoves.putIfAbsent(state, move); //Si otra partida llego antes, ambas jugadas son la misma
+        }
+        return move;
+    }
+
+    /**
+     * Finds where an interrupted run stopped
+     * <p>
+     * The checkpoint is only trusted when the table header matches the dictionary being scored and the table already
+     * holds every score before it; a table left by another dictionary is scored again from the first word.
+     *
+     * @return The next word to score, or 0 to start over
+     */
+    private static int resumePoint(Path checkpoint, Path output, int total) throws IOException {
+        if (!Files.exists(checkpoint) || !Files.exists(output)) {
+            return 0;
+        }
+        int next;
+        try {
+            next = Integer.parseInt(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        if (next <= 0 || next > total || Files.size(output) < DifficultyTable.HEADER_SIZE + (long) next) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(DifficultyTable.HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                //Lee la cabecera completa
+            }
+        }
+        header.flip();
+        return header.equals(DifficultyTable.header(total)) ? next : 0; //Mismo formato y mismo numero de palabras
+    }
+
+    private static void writeCheckpoint(Path checkpoint, int next) throws IOException {
+        //Se escribe en un archivo temporal y se renombra, asi nunca queda un punto de control a medias
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Integer.toString(next), StandardCharsets.UTF_8);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Scores a dictionary from the command line
+     *
+     * @param args The dictionary file, the output table and an optional number of threads (default: all cores)
+     * @throws Exception If the run fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: DifficultyScorer <dictionary.txt> <output.bin> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            new DifficultyScorer(WordRepository.open(Path.of(args[0])), pool).score(Path.of(args[1]));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * Bot player that picks the letter with the highest expected information
+ * Candidate words are narrowed incrementally between moves with the precomputed bitsets of
+ * {@link SolverDictionary}, and the letters are scored on a fork/join pool when there are many candidates.
+ * Letters are numbered by the dictionary's {@link Alphabet}, which must be the alphabet of the games it plays
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.solver;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.model.Game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class Solver {
+    //A partir de esta cantidad de candidatas se reparte el puntaje de las letras entre varios hilos
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final SolverDictionary dictionary;
+    private final Alphabet alphabet;
+    private final long allLetters;  // Un bit por letra del alfabeto
+    private final ForkJoinPool pool;
+    private final SolverDictionary.Bucket bucket;  // Palabras con la longitud de la partida
+    private final long[] candidates;  // Palabras que siguen siendo posibles
+    private final int length;
+    private long appliedMask;  // Letras ya aplicadas al conjunto de candidatas
+    private int candidateCount;
+
+    /**
+     * Creates a solver for a word of a given length
+     *
+     * @param dictionary The indexed word list
+     * @param length     The length of the secret word
+     * @param pool       The pool used to score letters on large candidate sets
+     */
+    public Solver(SolverDictionary dictionary, int length, ForkJoinPool pool) {
+        this.dictionary = dictionary;
+        this.alphabet = dictionary.alphabet();
+        this.allLetters = (1L << alphabet.size()) - 1; //Alphabet.MAX_LETTERS cabe en un long
+        this.pool = pool;
+        this.length = length;
+        this.bucket = dictionary.bucket(length);
+        this.candidates = bucket == null ? new long[0] : bucket.all();
+        this.candidateCount = bucket == null ? 0 : bucket.size;
+    }
+
+    /**
+     * Creates a solver for a game, using the common fork/join pool
+     *
+     * @param dictionary The indexed word list
+     * @param game       The game to play
+     * @return The solver, already updated with the game state
+     * @throws IllegalArgumentException If the game is played in another alphabet than the dictionary
+     */
+    public static Solver forGame(SolverDictionary dictionary, Game game) {
+        Solver solver = new Solver(dictionary, game.getSecretWord().length(), ForkJoinPool.commonPool());
+        solver.update(game);
+        return solver;
+    }
+
+    /**
+     * Narrows the candidates with the current state of a game
+     *
+     * @param game The game being played
+     * @throws IllegalArgumentException If the game is played in another alphabet than the dictionary
+     */
+    public void update(Game game) {
+        if (game.getAlphabet() != alphabet) {
+            //Los bits de la mascara numeran otras letras: las candidatas quedarian mal filtradas
+            throw new IllegalArgumentException("The game uses the alphabet " + game.getAlphabet()
+                    + " but the dictionary uses " + alphabet);
+        }
+        update(game.getEngine().maskedWord(), game.getEngine().guessedMask());
+    }
+
+    /**
+     * Narrows the candidates with a masked pattern and the letters tried so far
+     * <p>
+     * Only the letters that were not applied in an earlier call are processed, so each letter costs one pass of
+     * bitset operations over the candidates for the whole game.
+     *
+     * @param pattern     The masked word, with {@link GameEngine#HIDDEN} for hidden characters
+     * @param guessedMask The guessed letters, one bit per letter index of the dictionary's alphabet; other bits are
+     *                    ignored
+     */
+    public void update(CharSequence pattern, long guessedMask) {
+        long fresh = guessedMask & allLetters & ~appliedMask;
+        if (bucket == null || fresh == 0) {
+            appliedMask |= fresh;
+            return;
+        }
+        if (pattern.length() != length) {
+            throw new IllegalArgumentException("Expected a pattern of " + length + " characters: " + pattern);
+        }
+
+        for (long letters = fresh; letters != 0; letters &= letters - 1) {
+            int letter = Long.numberOfTrailingZeros(letters);
+            boolean present = false;
+            for (int p = 0; p < length; p++) {
+                char c = pattern.charAt(p);
+                if (c != GameEngine.HIDDEN && alphabet.letterIndex(c) == letter) {
+                    and(candidates, bucket.letterAt[p][letter]); //La letra esta en esta posicion
+                    present = true;
+                }
+            }
+            if (present) {
+                //Ninguna posicion oculta puede tener la letra, de lo contrario se habria revelado
+                for (int p = 0; p < length; p++) {
+                    if (pattern.charAt(p) == GameEngine.HIDDEN) {
+                        andNot(candidates, bucket.letterAt[p][letter]);
+                    }
+                }
+            } else {
+                andNot(candidates, bucket.withLetter[letter]);
+            }
+        }
+        appliedMask |= fresh;
+        candidateCount = count(candidates);
+    }
+
+    /**
+     * Picks the next letter to guess
+     * <p>
+     * For every letter not tried yet, the candidates are partitioned by the positions where the letter appears
+     * (no position at all is one more part). The letter whose partition has the highest entropy is picked; ties go
+     * to the letter found in more candidates, which is less likely to cost an attempt.
+     *
+     * @return The letter to guess, or {@link GameEngine#HIDDEN} if every letter was tried
+     */
+    public char nextGuess() {
+        long open = allLetters & ~appliedMask;
+        if (open == 0) {
+            return GameEngine.HIDDEN;
+        }
+        if (candidateCount == 0) { //La palabra no esta en el diccionario: se sigue el orden de frecuencia
+            for (int i = 0; i < Alphabet.FREQUENCY_ORDER.length(); i++) {
+                int letter = alphabet.letterIndex(Alphabet.FREQUENCY_ORDER.charAt(i));
+                if (letter != Alphabet.NO_LETTER && (open & (1L << letter)) != 0) {
+                    return alphabet.letterAt(letter);
+                }
+            }
+            return alphabet.letterAt(Long.numberOfTrailingZeros(open)); //Alfabeto sin las letras latinas
+        }
+
+        int[] ids = candidateIndexes();
+        double[] entropy = new double[alphabet.size()];
+        int[] hits = new int[alphabet.size()];
+        List<LetterScore> tasks = new ArrayList<>(Long.bitCount(open));
+        for (long letters = open; letters != 0; letters &= letters - 1) {
+            tasks.add(new LetterScore(Long.numberOfTrailingZeros(letters), ids, entropy, hits));
+        }
+        if (ids.length >= PARALLEL_THRESHOLD) {
+            pool.invoke(new ScoreAll(tasks));
+        } else {
+            tasks.forEach(LetterScore::compute);
+        }
+
+        int best = -1;
+        for (LetterScore task : tasks) {
+            int letter = task.letter;
+            if (best < 0 || entropy[letter] > entropy[best]
+                    || (entropy[letter] == entropy[best] && hits[letter] > hits[best])) {
+                best = letter;
+            }
+        }
+        return alphabet.letterAt(best);
+    }
+
+    /**
+     * Gets the number of words still compatible with the game
+     *
+     * @return The number of candidates
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Gets up to a number of candidate words, in dictionary order
+     *
+     * @param limit The maximum number of words
+     * @return The candidate words
+     */
+    public List<String> getCandidates(int limit) {
+        List<String> words = new ArrayList<>(Math.min(limit, candidateCount));
+        for (int w = 0; w < candidates.length && words.size() < limit; w++) {
+            for (long bits = candidates[w]; bits != 0 && words.size() < limit; bits &= bits - 1) {
+                words.add(dictionary.word(bucket.ids[(w << 6) + Long.numberOfTrailingZeros(bits)]));
+            }
+        }
+        return words;
+    }
+
+    private int[] candidateIndexes() {
+        int[] ids = new int[candidateCount];
+        int n = 0;
+        for (int w = 0; w < candidates.length; w++) {
+            for (long bits = candidates[w]; bits != 0; bits &= bits - 1) {
+                ids[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ids;
+    }
+
+    private static void and(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= mask[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~mask[i];
+        }
+    }
+
+    private static int count(long[] set) {
+        int total = 0;
+        for (long word : set) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    /**
+     * Scores one letter by the entropy of the partition it induces on the candidates
+     */
+    private final class LetterScore extends RecursiveAction {
+        private final int letter;
+        private final int[] ids;
+        private final double[] entropy;
+        private final int[] hits;
+
+        LetterScore(int letter, int[] ids, double[] entropy, int[] hits) {
+            this.letter = letter;
+            this.ids = ids;
+            this.entropy = entropy;
+            this.hits = hits;
+        }
+
+        @Override
+        protected void compute() {
+            long[] masks = new long[ids.length];
+            int withLetter = 0;
+            for (int i = 0; i < ids.length; i++) {
+                int base = ids[i] * length;
+                long mask = 0;
+                for (int p = 0; p < length; p++) {
+                    if (bucket.letters[base + p] == letter) {
+                        mask |= 1L << p;
+                    }
+                }
+                masks[i] = mask;
+                if (mask != 0) {
+                    withLetter++;
+                }
+            }
+            Arrays.sort(masks);
+
+            //Entropia de Shannon de los tamaños de cada parte
+            double total = masks.length;
+            double sum = 0;
+            for (int start = 0; start < masks.length; ) {
+                int end = start + 1;
+                while (end < masks.length && masks[end] == masks[start]) {
+                    end++;
+                }
+                double p = (end - start) / total;
+                sum -= p * Math.log(p);
+                start = end;
+            }
+            entropy[letter] = sum;
+            hits[letter] = withLetter;
+        }
+    }
+
+    /**
+     * Scores every open letter in parallel, letting idle workers steal the remaining letters
+     */
+    private static final class ScoreAll extends RecursiveAction {
+        private final List<LetterScore> tasks;
+
+        ScoreAll(List<LetterScore> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+}
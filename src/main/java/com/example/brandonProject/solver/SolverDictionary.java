@@ -0,0 +1,215 @@
+/**
+ * Read-only index of a word list used by the solver
+ * Groups the folded words by length and precomputes, for every bucket, one bitset per letter and per
+ * (position, letter) pair over the words of the bucket. Words are folded with an {@link Alphabet}, so letters such as
+ * 'ñ' in Spanish keep their own slot, as they do in the game
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.solver;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public final class SolverDictionary {
+
+    /** Longest word indexed; position masks of a word must fit in a long */
+    public static final int MAX_LENGTH = 63;
+
+    private final Alphabet alphabet;  // Numera las letras igual que las partidas que resuelve
+    private final Bucket[] buckets;  // Un grupo por cada longitud de palabra
+    private final IntFunction<String> wordById;  // Decodifica una palabra a partir de su id de origen
+
+    private SolverDictionary(Alphabet alphabet, Bucket[] buckets, IntFunction<String> wordById) {
+        this.alphabet = alphabet;
+        this.buckets = buckets;
+        this.wordById = wordById;
+    }
+
+    /**
+     * Indexes every word of a repository in the default alphabet; words with characters outside it are skipped
+     *
+     * @param repository The word repository
+     * @return The solver dictionary, whose word ids are the repository ids
+     */
+    public static SolverDictionary of(WordRepository repository) {
+        return of(repository, Alphabet.getDefault());
+    }
+
+    /**
+     * Indexes every word of a repository; words with characters outside the alphabet are skipped
+     *
+     * @param repository The word repository
+     * @param alphabet   The alphabet of the games the solver will play
+     * @return The solver dictionary, whose word ids are the repository ids
+     */
+    public static SolverDictionary of(WordRepository repository, Alphabet alphabet) {
+        return build(alphabet, repository.size(), repository::word);
+    }
+
+    /**
+     * Indexes a list of words in the default alphabet; words with characters outside it are skipped
+     *
+     * @param words The words
+     * @return The solver dictionary, whose word ids are the positions in the list
+     */
+    public static SolverDictionary of(List<String> words) {
+        return of(words, Alphabet.getDefault());
+    }
+
+    /**
+     * Indexes a list of words; words with characters outside the alphabet are skipped
+     *
+     * @param words    The words
+     * @param alphabet The alphabet of the games the solver will play
+     * @return The solver dictionary, whose word ids are the positions in the list
+     */
+    public static SolverDictionary of(List<String> words, Alphabet alphabet) {
+        List<String> copy = List.copyOf(words);
+        return build(alphabet, copy.size(), copy::get);
+    }
+
+    private static SolverDictionary build(Alphabet alphabet, int size, IntFunction<String> wordById) {
+        //Primera pasada: pliega cada palabra y cuenta cuantas hay de cada longitud
+        byte[][] folded = new byte[size][];
+        int[] counts = new int[MAX_LENGTH + 1];
+        for (int id = 0; id < size; id++) {
+            byte[] letters = fold(wordById.apply(id), alphabet);
+            if (letters != null) {
+                folded[id] = letters;
+                counts[letters.length]++;
+            }
+        }
+
+        Bucket[] buckets = new Bucket[MAX_LENGTH + 1];
+        int[] fill = new int[MAX_LENGTH + 1];
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            if (counts[length] > 0) {
+                buckets[length] = new Bucket(length, counts[length], alphabet.size());
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            if (folded[id] != null) {
+                int length = folded[id].length;
+                buckets[length].add(fill[length]++, id, folded[id]);
+            }
+        }
+        return new SolverDictionary(alphabet, buckets, wordById);
+    }
+
+    /**
+     * Folds a word to the letter indexes of this dictionary's alphabet
+     *
+     * @param word The word
+     * @return The letter index of every character, or {@code null} if the word cannot be indexed
+     */
+    byte[] fold(String word) {
+        return fold(word, alphabet);
+    }
+
+    private static byte[] fold(String word, Alphabet alphabet) {
+        if (word.isEmpty() || word.length() > MAX_LENGTH) {
+            return null;
+        }
+        byte[] letters = new byte[word.length()];
+        for (int i = 0; i < letters.length; i++) {
+            int letter = alphabet.letterIndex(word.charAt(i));
+            if (letter == Alphabet.NO_LETTER) {
+                return null;
+            }
+            letters[i] = (byte) letter;
+        }
+        return letters;
+    }
+
+    /**
+     * Gets the alphabet that numbers the letters of the dictionary
+     *
+     * @return The alphabet
+     */
+    public Alphabet alphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Gets the bucket of words of a length
+     *
+     * @param length The word length
+     * @return The bucket, or {@code null} if there are no words of that length
+     */
+    Bucket bucket(int length) {
+        return length > 0 && length <= MAX_LENGTH ? buckets[length] : null;
+    }
+
+    /**
+     * Decodes a word by its source id
+     *
+     * @param id The id in the repository or list the dictionary was built from
+     * @return The word
+     */
+    public String word(int id) {
+        return wordById.apply(id);
+    }
+
+    /**
+     * Gets the number of indexed words of a length
+     *
+     * @param length The word length
+     * @return The number of words
+     */
+    public int size(int length) {
+        Bucket bucket = bucket(length);
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    /**
+     * Words of the same length with their letter bitsets
+     */
+    static final class Bucket {
+        final int length;
+        final int size;
+        final int[] ids;  // Id de origen de cada palabra del grupo
+        final byte[] letters;  // Letras plegadas, length bytes por palabra
+        final long[][] withLetter;  // [letra] palabras que contienen la letra
+        final long[][][] letterAt;  // [posicion][letra] palabras con esa letra en esa posicion
+
+        Bucket(int length, int size, int alphabetSize) {
+            this.length = length;
+            this.size = size;
+            this.ids = new int[size];
+            this.letters = new byte[size * length];
+            int words = (size + 63) >>> 6;
+            this.withLetter = new long[alphabetSize][words];
+            this.letterAt = new long[length][alphabetSize][words];
+        }
+
+        private void add(int index, int id, byte[] word) {
+            ids[index] = id;
+            System.arraycopy(word, 0, letters, index * length, length);
+            long bit = 1L << index;
+            for (int p = 0; p < length; p++) {
+                withLetter[word[p]][index >>> 6] |= bit;
+                letterAt[p][word[p]][index >>> 6] |= bit;
+            }
+        }
+
+        /**
+         * Creates a bitset with every word of the bucket
+         *
+         * @return The full candidate set
+         */
+        long[] all() {
+            long[] set = new long[(size + 63) >>> 6];
+            Arrays.fill(set, -1L);
+            if ((size & 63) != 0) {
+                set[set.length - 1] = (1L << size) - 1;
+            }
+            return set;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Per-player statistics and a global ranking by wins, fed by the rounds that finish
+ * <p>
+ * The statistics of each player are striped counters, so recording a round never takes a global lock. The ranking
+ * keeps only the best {@code size} players in a sorted array that is replaced as a whole on every change; readers
+ * get that array without copying or sorting. A win only takes the ranking lock when it can change the ranking, that
+ * is, when the player is already ranked or now has more wins than the last ranked player.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.stats;
+
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.SessionListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Leaderboard implements SessionListener {
+
+    /** Number of players kept in the ranking by {@link #getDefault()} */
+    public static final int DEFAULT_SIZE = 100;
+
+    private static volatile Leaderboard defaultLeaderboard;
+
+    private final ConcurrentHashMap<Integer, PlayerStats> players = new ConcurrentHashMap<>();
+    private final int size;  // Jugadores que caben en la clasificacion
+    private final Object rankingLock = new Object();  // Solo lo toman las victorias que cambian la clasificacion
+    private volatile Entry[] ranking = new Entry[0];  // Ordenada por victorias, nunca se modifica una vez publicada
+    private volatile long threshold = -1;  // Victorias del ultimo clasificado con la tabla llena, -1 si hay sitio
+
+    /**
+     * Creates a leaderboard
+     *
+     * @param size The number of players kept in the ranking
+     */
+    public Leaderboard(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The ranking size must be positive: " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Gets the leaderboard shared by the application, ranking the best {@value #DEFAULT_SIZE} players
+     *
+     * @return The shared leaderboard
+     */
+    public static Leaderboard getDefault() {
+        Leaderboard leaderboard = defaultLeaderboard;
+        if (leaderboard == null) {
+            synchronized (Leaderboard.class) {
+                leaderboard = defaultLeaderboard;
+                if (leaderboard == null) {
+                    leaderboard = new Leaderboard(DEFAULT_SIZE);
+                    defaultLeaderboard = leaderboard;
+                }
+            }
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Records a finished round
+     *
+     * @param playerId  The player id
+     * @param won       {@code true} if the player uncovered the word
+     * @param misses    The failed attempts of the round
+     * @param hintsUsed The hints used in the round
+     */
+    public void record(int playerId, boolean won, int misses, int hintsUsed) {
+        PlayerStats stats = players.computeIfAbsent(playerId, PlayerStats::new);
+        stats.record(won, misses, hintsUsed);
+        //Un clasificado puede subir de puesto aunque no supere al ultimo de la tabla
+        if (won && (stats.ranked || stats.getWins() > threshold)) {
+            promote(stats);
+        }
+    }
+
+    /**
+     * Sets the nickname shown for a player
+     *
+     * @param playerId The player id
+     * @param nickName The player's nickname
+     */
+    public void setNickName(int playerId, String nickName) {
+        players.computeIfAbsent(playerId, PlayerStats::new).setNickName(nickName);
+    }
+
+    /**
+     * Gets the statistics of a player
+     *
+     * @param playerId The player id
+     * @return The statistics, or {@code null} if the player has not finished a round
+     */
+    public PlayerStats getStats(int playerId) {
+        return players.get(playerId);
+    }
+
+    /**
+     * Gets the best players, most wins first; players with the same wins keep the order in which they got them
+     *
+     * @param limit The maximum number of players, at most the size of the ranking
+     * @return A read-only view of the ranking
+     */
+    public List<Entry> top(int limit) {
+        Entry[] current = ranking;
+        return Collections.unmodifiableList(Arrays.asList(current).subList(0, Math.min(limit, current.length)));
+    }
+
+    /**
+     * Gets the number of players with at least one finished round
+     *
+     * @return The number of players
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    @Override
+    public void onNewGame(int playerId, Game game) {
+    }
+
+    @Override
+    public void onGuess(int playerId, char letter) {
+    }
+
+    @Override
+    public void onHint(int playerId, char letter) {
+    }
+
+    @Override
+    public void onGameOver(int playerId, boolean won, int misses, int hintsUsed) {
+        record(playerId, won, misses, hintsUsed);
+    }
+
+    /**
+     * Moves a player to the place given by their wins and publishes the new ranking
+     */
+    private void promote(PlayerStats stats) {
+        synchronized (rankingLock) {
+            Entry[] current = ranking;
+            long wins = stats.getWins(); //Se relee dentro del candado para no publicar un valor viejo
+            int existing = indexOf(current, stats.getPlayerId());
+            if (existing < 0 && current.length == size && wins <= current[size - 1].wins) {
+                return;
+            }
+            if (existing >= 0 && current[existing].wins == wins) {
+                return;
+            }
+
+            int length = existing >= 0 || current.length == size ? current.length : current.length + 1;
+            Entry[] updated = new Entry[length];
+            Entry entry = new Entry(stats, wins);
+            int target = 0;
+            boolean placed = false;
+            for (Entry other : current) {
+                if (other.stats == stats) {
+                    continue;
+                }
+                if (!placed && wins > other.wins) {
+                    updated[target++] = entry;
+                    placed = true;
+                }
+                if (target == length) {
+                    break;
+                }
+                updated[target++] = other;
+            }
+            if (!placed && target < length) {
+                updated[target] = entry;
+            }
+            if (existing < 0 && current.length == size) {
+                current[size - 1].stats.ranked = false; //El ultimo sale de la tabla
+            }
+            stats.ranked = true;
+            ranking = updated;
+            threshold = updated.length == size ? updated[size - 1].wins : -1;
+        }
+    }
+
+    private static int indexOf(Entry[] entries, int playerId) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].stats.getPlayerId() == playerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A ranked player with the wins that gave them their place
+     */
+    public static final class Entry {
+        private final PlayerStats stats;
+        private final long wins;
+
+        Entry(PlayerStats stats, long wins) {
+            this.stats = stats;
+            this.wins = wins;
+        }
+
+        public int getPlayerId() {
+            return stats.getPlayerId();
+        }
+
+        public String getNickName() {
+            return stats.getNickName();
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        /**
+         * Gets the live statistics of the player
+         *
+         * @return The player's statistics
+         */
+        public PlayerStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public String toString() {
+            return (stats.getNickName() != null ? stats.getNickName() : "#" + stats.getPlayerId()) + " " + wins;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Running totals of one player's finished rounds
+ * Every counter is a {@link LongAdder}, so many threads can record rounds of the same player without contending
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class PlayerStats {
+    private final int playerId;
+    private volatile String nickName;  // Puede ser null si el jugador no se identifico con un apodo
+    private final LongAdder games = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder misses = new LongAdder();  // Intentos fallidos de todas las rondas
+    private final LongAdder hintsUsed = new LongAdder();
+    volatile boolean ranked;  // Si el jugador esta en la clasificacion, lo mantiene el Leaderboard
+
+    PlayerStats(int playerId) {
+        this.playerId = playerId;
+    }
+
+    void record(boolean won, int roundMisses, int roundHints) {
+        games.increment();
+        if (won) {
+            wins.increment();
+        }
+        misses.add(roundMisses);
+        hintsUsed.add(roundHints);
+    }
+
+    void setNickName(String nickName) {
+        this.nickName = nickName;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public String getNickName() {
+        return nickName;
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * Gets the rounds the player lost
+     *
+     * @return The number of lost rounds
+     */
+    public long getLosses() {
+        return games.sum() - wins.sum();
+    }
+
+    /**
+     * Gets the failed attempts per round
+     *
+     * @return The average misses, or 0 if the player has not finished a round
+     */
+    public double getAverageMisses() {
+        long played = games.sum();
+        return played == 0 ? 0 : (double) misses.sum() / played;
+    }
+
+    public long getHintsUsed() {
+        return hintsUsed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "player=" + playerId + " games=" + getGames() + " wins=" + getWins()
+                + " averageMisses=" + String.format("%.2f", getAverageMisses()) + " hints=" + getHintsUsed();
+    }
+}
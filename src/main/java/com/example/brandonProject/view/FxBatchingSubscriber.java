@@ -0,0 +1,111 @@
+/**
+ * Subscriber that hands the items of a publisher to the JavaFX thread in batches
+ * Items that arrive between two runs of the JavaFX thread are applied together by a single
+ * {@link Platform#runLater(Runnable)}, and more items are only requested once a batch has been applied, so a busy
+ * interface slows the stream down instead of queueing an unbounded number of tasks
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.view;
+
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public final class FxBatchingSubscriber<T> implements Flow.Subscriber<T> {
+    private static final System.Logger LOG = System.getLogger(FxBatchingSubscriber.class.getName());
+    private static final int BATCH_SIZE = 64;  // Elementos pedidos por adelantado
+
+    private final Consumer<? super T> action;
+    private final Runnable completion;
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();  // Hay un runLater en camino
+    private volatile boolean completed;  // El flujo termino; se avisa despues del ultimo elemento
+    private volatile Flow.Subscription subscription;
+    private boolean cancelled;  // Solo se usa en el hilo de JavaFX
+
+    /**
+     * Creates a subscriber
+     *
+     * @param action Applies one item; always called on the JavaFX thread, in the order the items were published
+     */
+    public FxBatchingSubscriber(Consumer<? super T> action) {
+        this(action, () -> {
+        });
+    }
+
+    /**
+     * Creates a subscriber that is also told when the stream ends
+     *
+     * @param action     Applies one item; always called on the JavaFX thread, in the order the items were published
+     * @param completion Runs once on the JavaFX thread after the last item, unless the subscriber was cancelled
+     */
+    public FxBatchingSubscriber(Consumer<? super T> action, Runnable completion) {
+        this.action = action;
+        this.completion = completion;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(BATCH_SIZE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        pending.add(item);
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        LOG.log(System.Logger.Level.WARNING, "Error en el flujo de eventos", throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+        schedule();
+    }
+
+    /**
+     * Stops applying items, including those already on their way, and the end of the stream is no longer reported;
+     * must be called on the JavaFX thread
+     */
+    public void cancel() {
+        cancelled = true;
+        pending.clear();
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false); //Lo que llegue desde ahora programa otro lote
+        boolean ended = completed; //Se lee antes de vaciar la cola: el fin llega despues del ultimo elemento
+        int applied = 0;
+        for (T item; !cancelled && (item = pending.poll()) != null; applied++) {
+            action.accept(item);
+        }
+        Flow.Subscription current = subscription;
+        if (applied > 0 && !cancelled && current != null) {
+            current.request(applied);
+        }
+        if (ended && !cancelled) {
+            cancelled = true; //El aviso de fin se da una sola vez
+            completion.run();
+        }
+    }
+}
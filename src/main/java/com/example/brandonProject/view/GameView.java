@@ -9,12 +9,8 @@ package com.example.brandonProject.view;
 
 import com.example.brandonProject.controllers.GameController;
 import java.io.IOException;
-import java.util.Objects;
 
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 public class GameView extends Stage {
@@ -22,24 +18,23 @@ public class GameView extends Stage {
     private GameController gameController;
 
     /**
-     * Constructor que carga la vista del juego desde el archivo FXML
+     * Constructor que arma la ventana del juego con la vista FXML
+     * <p>
+     * El FXML normalmente ya fue cargado en segundo plano por {@link ViewPreloader} mientras se mostraba la
+     * bienvenida; si no, se espera a que termine.
      *
      * @throws IOException Si ocurre un error al cargar el archivo FXML
      */
     public GameView() throws IOException {
-        //Carga el archivo FXMl de la vida del juego
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/brandonProject/hello-java-fx-view.fxml"));
-        Parent root = loader.load();
+        ViewPreloader.LoadedView view = ViewPreloader.gameView();
 
         //Obtiene el controlador asociado al FXML
-        this.gameController = loader.getController();
+        this.gameController = view.getController();
 
         //Configura la escene y la muestra
         this.setTitle("Eclipsed Sun");
-        Scene scene = new Scene(root);
-        this.getIcons().add(new Image(
-                Objects.requireNonNull(getClass().getResourceAsStream("/com/example/brandonProject/images/icono.png"))
-        ));
+        Scene scene = new Scene(view.getRoot());
+        this.getIcons().add(ViewPreloader.icon());
         this.setScene(scene);
         this.show();
     }
@@ -55,17 +50,25 @@ public class GameView extends Stage {
     }
 
     /**
-     * Obtiene la instancia única de la vista del juego
+     * Obtiene la instancia única de la vista del juego, creandola la primera vez; debe llamarse desde el hilo de JavaFX
+     * <p>
+     * Si la ventana ya existe se vuelve a mostrar y se trae al frente en lugar de abrir otra.
      *
      * @return La instancia de la vista del juego
      * @throws IOException Si ocurre un error al crear la instancia
      */
     public static GameView getInstance() throws IOException {
-        return GameViewHolder.INSTANCE = new GameView(); //Crea una instancia unica de la vista del juego
+        if (GameViewHolder.INSTANCE == null) {
+            GameViewHolder.INSTANCE = new GameView(); //Crea una instancia unica de la vista del juego
+        } else {
+            GameViewHolder.INSTANCE.show();
+            GameViewHolder.INSTANCE.toFront();
+        }
+        return GameViewHolder.INSTANCE;
     }
 
     private static class GameViewHolder {
-        private static GameView INSTANCE;
+        private static GameView INSTANCE;  // Solo se usa desde el hilo de JavaFX
 
         private GameViewHolder() {
         }
@@ -0,0 +1,152 @@
+/**
+ * Draws the eclipsed sun on a canvas
+ * Precomputes the dot coordinates and an image of each eclipse state, repaints only when the number of failed
+ * attempts changes and animates the new black dots on the JavaFX pulse
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.view;
+
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.metrics.Histogram;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+public class SunRenderer {
+    private static final double RADIUS = 100;
+    private static final double POINT_SIZE = 5;
+    private static final double ANGLE_INCREMENT = 9;  // Angulo entre dos puntos
+    private static final int POINTS = (int) (360 / ANGLE_INCREMENT);  // 40 puntos en el circulo
+    private static final int POINTS_PER_ATTEMPT = POINTS / GameEngine.MAX_ATTEMPTS;  // Cada intento cubre 72 grados
+    private static final long NANOS_PER_POINT = 30_000_000L;  // Cada punto nuevo se oscurece a los 30 ms
+    private static final Histogram FRAME_TIME = MetricsRegistry.getDefault().histogram("view.sunFrame.nanos");
+
+    private final Canvas canvas;
+    private final double[] pointX = new double[POINTS];  // Esquina superior izquierda de cada punto
+    private final double[] pointY = new double[POINTS];
+    private final WritableImage[] states = new WritableImage[GameEngine.MAX_ATTEMPTS + 1];  // Imagen de cada estado
+    private final AnimationTimer animation;
+    private int shownAttempts = -1;  // Estado dibujado, -1 antes del primer dibujo
+    private int blackPoints;  // Puntos negros ya pintados en el canvas
+    private int targetPoints;  // Puntos negros que debe tener el canvas al terminar la animacion
+    private long animationStart;
+
+    /**
+     * Prepares the renderer for a canvas; must be called on the JavaFX thread
+     *
+     * @param canvas The canvas where the sun is drawn
+     */
+    public SunRenderer(Canvas canvas) {
+        this.canvas = canvas;
+        double centerX = canvas.getWidth() / 2;
+        double centerY = canvas.getHeight() / 2;
+        for (int i = 0; i < POINTS; i++) {
+            double angle = Math.toRadians(i * ANGLE_INCREMENT);
+            pointX[i] = centerX + RADIUS * Math.cos(angle) - POINT_SIZE / 2;
+            pointY[i] = centerY + RADIUS * Math.sin(angle) - POINT_SIZE / 2;
+        }
+        this.animation = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+                step(now);
+                if (MetricsRegistry.ENABLED) {
+                    FRAME_TIME.recordSince(start); //Costo de la animacion en cada pulso
+                }
+            }
+        };
+    }
+
+    /**
+     * Shows the sun for a number of failed attempts
+     * <p>
+     * Nothing is drawn if that state is already on screen. One more failed attempt is animated, darkening only the
+     * new dots on each pulse; any other change (such as a restart) paints the cached image of the state at once.
+     *
+     * @param attempts Number of failed attempts by the player
+     */
+    public void show(int attempts) {
+        attempts = Math.max(0, Math.min(GameEngine.MAX_ATTEMPTS, attempts));
+        if (attempts == shownAttempts) {
+            return;
+        }
+        int target = attempts * POINTS_PER_ATTEMPT;
+        if (shownAttempts >= 0 && attempts > shownAttempts) {
+            targetPoints = target;
+            animationStart = 0;
+            animation.start();
+        } else {
+            animation.stop();
+            paintState(attempts);
+        }
+        shownAttempts = attempts;
+    }
+
+    /**
+     * Paints the new black dots that are due at this pulse
+     *
+     * @param now The pulse time in nanoseconds
+     */
+    private void step(long now) {
+        if (animationStart == 0) {
+            animationStart = now - NANOS_PER_POINT; //El primer punto se pinta en este mismo pulso
+        }
+        int due = (int) Math.min(targetPoints, blackPoints + (now - animationStart) / NANOS_PER_POINT);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.BLACK);
+        for (; blackPoints < due; blackPoints++) {
+            gc.fillOval(pointX[blackPoints], pointY[blackPoints], POINT_SIZE, POINT_SIZE);
+            animationStart = now; //Solo se redibujan los puntos que cambian
+        }
+        if (blackPoints >= targetPoints) {
+            animation.stop();
+        }
+    }
+
+    private void paintState(int attempts) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (Platform.isFxApplicationThread()) {
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            gc.drawImage(stateImage(attempts), 0, 0);
+        } else {
+            drawState(gc, attempts); //Las capturas exigen el hilo de JavaFX: una vista precargada dibuja los puntos
+        }
+        blackPoints = attempts * POINTS_PER_ATTEMPT;
+        targetPoints = blackPoints;
+    }
+
+    /**
+     * Gets the image of an eclipse state, drawing it the first time it is needed
+     */
+    private WritableImage stateImage(int attempts) {
+        WritableImage image = states[attempts];
+        if (image == null) {
+            drawState(canvas.getGraphicsContext2D(), attempts);
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            image = canvas.snapshot(parameters, null);
+            states[attempts] = image;
+        }
+        return image;
+    }
+
+    private void drawState(GraphicsContext gc, int attempts) {
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        int black = attempts * POINTS_PER_ATTEMPT;
+        gc.setFill(Color.WHITE);
+        for (int i = 0; i < POINTS; i++) {
+            gc.fillOval(pointX[i], pointY[i], POINT_SIZE, POINT_SIZE);
+        }
+        gc.setFill(Color.BLACK);
+        for (int i = 0; i < black; i++) {
+            gc.fillOval(pointX[i], pointY[i], POINT_SIZE, POINT_SIZE);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Loads the game view and the window icon on a background thread while the welcome screen is up
+ * <p>
+ * Parsing FXML and decoding images do not need the JavaFX thread as long as the nodes are not on screen yet, so by
+ * the time the player sends a nickname the game view only has to be put in a window.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.view;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+public final class ViewPreloader {
+    static final String GAME_FXML = "/com/example/brandonProject/hello-java-fx-view.fxml";
+    static final String WELCOME_FXML = "/com/example/brandonProject/welcome-view.fxml";
+    static final String ICON = "/com/example/brandonProject/images/icono.png";
+
+    private static CompletableFuture<Image> icon;  // Se decodifica primero: la bienvenida la necesita enseguida
+    private static CompletableFuture<LoadedView> gameView;
+
+    private ViewPreloader() {
+    }
+
+    /**
+     * Starts loading the icon and the game view in the background; later calls do nothing
+     */
+    public static synchronized void start() {
+        if (icon != null) {
+            return;
+        }
+        Executor loader = task -> {
+            Thread thread = new Thread(task, "eclipsed-sun-preloader");
+            thread.setDaemon(true);
+            thread.start();
+        };
+        icon = CompletableFuture.supplyAsync(ViewPreloader::loadIcon, loader);
+        gameView = icon.thenApply(loaded -> load(GAME_FXML)); //En el mismo hilo, despues del icono
+    }
+
+    /**
+     * Tells when the background loading is over
+     *
+     * @return Completes when the icon and the game view are loaded or failed to load
+     */
+    public static synchronized CompletableFuture<Void> whenDone() {
+        start();
+        return gameView.handle((view, error) -> null);
+    }
+
+    /**
+     * Gets the window icon, waiting for it if it is still being decoded
+     *
+     * @return The icon
+     */
+    static Image icon() {
+        start();
+        return icon.join();
+    }
+
+    /**
+     * Gets the parsed game view, waiting for it if it is still being loaded
+     *
+     * @return The root node and the controller of the game view
+     * @throws IOException If the FXML cannot be loaded
+     */
+    static LoadedView gameView() throws IOException {
+        start();
+        try {
+            return gameView.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Parses an FXML file
+     *
+     * @param path The resource path of the file
+     * @return The root node and the controller
+     */
+    static LoadedView load(String path) {
+        FXMLLoader loader = new FXMLLoader(ViewPreloader.class.getResource(path));
+        try {
+            Parent root = loader.load();
+            return new LoadedView(root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Image loadIcon() {
+        try (InputStream in = ViewPreloader.class.getResourceAsStream(ICON)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + ICON);
+            }
+            return new Image(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A parsed FXML file: its root node and its controller
+     */
+    static final class LoadedView {
+        private final Parent root;
+        private final Object controller;
+
+        LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        Parent getRoot() {
+            return root;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T getController() {
+            return (T) controller;
+        }
+    }
+}
@@ -5,33 +5,52 @@
 
 package com.example.brandonProject.view;
 
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.io.UncheckedIOException;
 
 public class WelcomeView extends Stage {
 
+    /**
+     * Builds the welcome window; the icon and the game view keep loading in the background meanwhile
+     *
+     * @throws IOException If the FXML file cannot be loaded
+     */
     public WelcomeView() throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/brandonProject/welcome-view.fxml"));
-        Parent root = loader.load();
+        ViewPreloader.start();
+        ViewPreloader.LoadedView view;
+        try {
+            view = ViewPreloader.load(ViewPreloader.WELCOME_FXML);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         this.setTitle("Eclipsed Sun");
-        Scene scene = new Scene(root);
-        this.getIcons().add(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/example/brandonProject/images/icono.png"))));
+        Scene scene = new Scene(view.getRoot());
+        this.getIcons().add(ViewPreloader.icon());
         this.setScene(scene);
         this.show();
     }
 
+    /**
+     * Gets the single welcome window, creating it the first time; must be called on the JavaFX thread
+     *
+     * @return The welcome window
+     * @throws IOException If the FXML file cannot be loaded
+     */
     public static WelcomeView getInstance() throws IOException {
-        return WelcomeViewHolder.INSTANCE = new WelcomeView();
+        if (WelcomeViewHolder.INSTANCE == null) {
+            WelcomeViewHolder.INSTANCE = new WelcomeView();
+        } else {
+            WelcomeViewHolder.INSTANCE.show();
+            WelcomeViewHolder.INSTANCE.toFront();
+        }
+        return WelcomeViewHolder.INSTANCE;
     }
 
     private static class WelcomeViewHolder {
-        private static WelcomeView INSTANCE;
+        private static WelcomeView INSTANCE;  // Solo se usa desde el hilo de JavaFX
 
         private WelcomeViewHolder() {
         }
@@ -0,0 +1,280 @@
+/**
+ * Muestra las alertas como avisos breves que no bloquean la interfaz
+ * <p>
+ * A diferencia de {@link AlertBox}, no abre un dialogo modal ni un ciclo de eventos anidado: cada alerta entra en
+ * una cola acotada y se pinta como un aviso sobre la esquina inferior derecha de la ventana, que desaparece solo
+ * despues de unos segundos o al hacerle clic. Las alertas repetidas se unen en un solo aviso con un contador, si la
+ * cola se llena se descarta la alerta pendiente mas antigua, y la cola se atiende una vez por pulso de JavaFX
+ * mostrando a lo sumo un aviso nuevo cada {@value #MIN_INTERVAL_MILLIS} ms. El tiempo entre que se pide una alerta y
+ * aparece en pantalla se guarda en el histograma {@code alerts.latency.nanos}.
+ * <p>
+ * Se puede llamar desde cualquier hilo.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.view.alert;
+
+import com.example.brandonProject.metrics.Counter;
+import com.example.brandonProject.metrics.Histogram;
+import com.example.brandonProject.metrics.MetricsRegistry;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ToastAlertBox implements AlertBoxInterface {
+    private static final Counter POSTED = MetricsRegistry.getDefault().counter("alerts.posted");
+    private static final Counter COALESCED = MetricsRegistry.getDefault().counter("alerts.coalesced");
+    private static final Counter DROPPED = MetricsRegistry.getDefault().counter("alerts.dropped");
+    private static final Counter SHOWN = MetricsRegistry.getDefault().counter("alerts.shown");
+    private static final Histogram LATENCY = MetricsRegistry.getDefault().histogram("alerts.latency.nanos");
+
+    /** Alertas pendientes que se guardan como maximo por defecto */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAX_VISIBLE = 3;  // Avisos en pantalla al mismo tiempo
+    private static final long MIN_INTERVAL_MILLIS = 250;  // Tiempo minimo entre dos avisos nuevos
+    private static final long MIN_INTERVAL_NANOS = MIN_INTERVAL_MILLIS * 1_000_000L;
+    private static final long DISPLAY_NANOS = 3_000_000_000L;  // Tiempo que queda visible cada aviso
+    private static final double MARGIN = 12;
+    private static final String STYLE = "-fx-background-color: rgba(30, 30, 30, 0.85); -fx-text-fill: white;"
+            + " -fx-padding: 8 12 8 12; -fx-background-radius: 6;";
+
+    private final Window owner;
+    private final int capacity;
+    private final LinkedHashMap<String, Notice> pending = new LinkedHashMap<>();  // En orden de llegada, por clave
+    private final AtomicBoolean scheduled = new AtomicBoolean();  // El pulso esta activo o hay un runLater en camino
+
+    //Solo se usan en el hilo de JavaFX
+    private final List<Toast> visible = new ArrayList<>(MAX_VISIBLE);
+    private AnimationTimer pulse;
+    private boolean running;
+    private boolean waitingForOwner;  // Ya se escucha cuando se muestre la ventana
+    private long lastShown;
+
+    /**
+     * Crea el presentador de avisos de una ventana
+     *
+     * @param owner La ventana sobre la que se muestran los avisos
+     */
+    public ToastAlertBox(Window owner) {
+        this(owner, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea el presentador de avisos de una ventana
+     *
+     * @param owner    La ventana sobre la que se muestran los avisos
+     * @param capacity Las alertas pendientes que se guardan como maximo; al llenarse se descarta la mas antigua
+     */
+    public ToastAlertBox(Window owner, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.owner = owner;
+        this.capacity = capacity;
+        this.lastShown = System.nanoTime() - MIN_INTERVAL_NANOS;
+    }
+
+    @Override
+    public void showAlert(String title, String header, String message) {
+        String text = header == null || header.isEmpty() ? message : header + "\n" + message;
+        String key = title + '\u0000' + text; //Dos alertas iguales tienen la misma clave
+        POSTED.increment();
+        synchronized (pending) {
+            Notice notice = pending.get(key);
+            if (notice != null) {
+                notice.repeats++;
+                COALESCED.increment();
+            } else {
+                if (pending.size() == capacity) {
+                    Iterator<Notice> oldest = pending.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    DROPPED.increment();
+                }
+                pending.put(key, new Notice(key, title, text, System.nanoTime()));
+            }
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::wake);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de alertas que esperan para mostrarse
+     *
+     * @return La cantidad de alertas pendientes
+     */
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Activa el pulso, salvo que ya este activo o que la ventana aun no se muestre
+     */
+    private void wake() {
+        if (running) {
+            return;
+        }
+        if (!owner.isShowing()) {
+            scheduled.set(false);
+            if (!waitingForOwner) {
+                waitingForOwner = true;
+                owner.showingProperty().addListener((observable, was, showing) -> {
+                    if (showing && pendingCount() > 0) {
+                        wake();
+                    }
+                });
+            }
+            return;
+        }
+        if (pulse == null) {
+            pulse = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    onPulse();
+                }
+            };
+        }
+        running = true;
+        pulse.start();
+    }
+
+    /**
+     * Quita los avisos vencidos, une las alertas repetidas a los avisos visibles y muestra a lo sumo un aviso nuevo
+     */
+    private void onPulse() {
+        long now = System.nanoTime();
+        boolean moved = false;
+        for (Iterator<Toast> toasts = visible.iterator(); toasts.hasNext(); ) {
+            Toast toast = toasts.next();
+            if (now >= toast.hideAt || !owner.isShowing()) {
+                toast.popup.hide();
+                toasts.remove();
+                moved = true;
+            }
+        }
+
+        Notice next = null;
+        synchronized (pending) {
+            //Las alertas iguales a un aviso visible solo suben su contador y alargan su tiempo
+            for (Toast toast : visible) {
+                Notice repeated = pending.remove(toast.notice.key);
+                if (repeated != null) {
+                    toast.merge(repeated, now);
+                }
+            }
+            if (visible.size() < MAX_VISIBLE && now - lastShown >= MIN_INTERVAL_NANOS && !pending.isEmpty()
+                    && owner.isShowing()) {
+                Iterator<Notice> first = pending.values().iterator();
+                next = first.next();
+                first.remove();
+            }
+        }
+        if (next != null) {
+            visible.add(new Toast(next, now));
+            lastShown = now;
+            moved = true;
+        }
+        if (moved) {
+            layout();
+        }
+
+        if (visible.isEmpty()) {
+            scheduled.set(false); //Desde aqui una alerta nueva vuelve a programar el pulso
+            boolean idle = pendingCount() == 0;
+            if (idle || !owner.isShowing()) {
+                pulse.stop();
+                running = false;
+                if (!idle) {
+                    wake(); //La ventana se oculto: se espera a que vuelva a mostrarse
+                }
+            }
+        }
+    }
+
+    /**
+     * Apila los avisos visibles desde la esquina inferior derecha de la ventana, el mas nuevo abajo
+     */
+    private void layout() {
+        double bottom = owner.getY() + owner.getHeight() - MARGIN;
+        double right = owner.getX() + owner.getWidth() - MARGIN;
+        for (int i = visible.size() - 1; i >= 0; i--) {
+            Popup popup = visible.get(i).popup;
+            if (!popup.isShowing()) {
+                popup.show(owner); //Se muestra antes de ubicarlo para conocer su tamano
+            }
+            popup.setX(right - popup.getWidth());
+            popup.setY(bottom - popup.getHeight());
+            bottom -= popup.getHeight() + MARGIN / 2;
+        }
+    }
+
+    /**
+     * Alerta que espera en la cola
+     */
+    private static final class Notice {
+        final String key;
+        final String title;
+        final String text;
+        final long postedAt;  // Primera vez que se pidio, para medir la latencia
+        int repeats = 1;
+
+        Notice(String key, String title, String text, long postedAt) {
+            this.key = key;
+            this.title = title;
+            this.text = text;
+            this.postedAt = postedAt;
+        }
+    }
+
+    /**
+     * Alerta en pantalla
+     */
+    private final class Toast {
+        final Notice notice;
+        final Popup popup = new Popup();
+        final Label label = new Label();
+        long hideAt;
+
+        Toast(Notice notice, long now) {
+            this.notice = notice;
+            this.hideAt = now + DISPLAY_NANOS;
+            label.setStyle(STYLE);
+            label.setWrapText(true);
+            label.setMaxWidth(320);
+            label.setOnMouseClicked(event -> hideAt = 0); //Se quita en el siguiente pulso
+            popup.getContent().add(label);
+            popup.setAutoHide(false);
+            popup.setAutoFix(true);
+            refresh();
+            SHOWN.increment();
+            LATENCY.record(now - notice.postedAt);
+        }
+
+        void merge(Notice repeated, long now) {
+            notice.repeats += repeated.repeats;
+            hideAt = now + DISPLAY_NANOS;
+            COALESCED.increment();
+            LATENCY.record(now - repeated.postedAt);
+            refresh();
+        }
+
+        private void refresh() {
+            String text = notice.title == null || notice.title.isEmpty() ? notice.text
+                    : notice.title + "\n" + notice.text;
+            label.setText(notice.repeats > 1 ? text + "  (x" + notice.repeats + ")" : text);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/**
+ * Compact binary encoding of round states and moves, for the network and for files
+ * <p>
+ * A stream starts with a header: the magic byte {@code 0xE5} and the format version (byte). It is followed by frames,
+ * each one a type byte and its body:
+ * <pre>
+ * STATE  word id + 1 (varint; 0 means the word follows as a varint byte length and its UTF-8 bytes),
+ *        position of the alphabet in {@link Alphabet#packs()} (byte), guessed-letter mask (varint of a long, one bit
+ *        per letter of that alphabet), failed attempts and hints left packed in one byte (attempts in the high
+ *        nibble)
+ * GUESS  letter (varint)
+ * HINT   letter (varint)
+ * </pre>
+ * A round with a dictionary word usually takes 8 to 10 bytes instead of the text line of the masked word. Varints use 7
+ * bits per byte, least significant group first. Encoding and decoding work directly on the caller's buffers, which
+ * can be reused from one frame to the next; the only allocation is the {@link String} of a word written inline.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.wire;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class WireCodec {
+
+    /** Format version */
+    public static final int VERSION = 1;
+
+    public static final int STATE = 1;
+    public static final int GUESS = 2;
+    public static final int HINT = 3;
+
+    /** Bytes of the stream header */
+    public static final int HEADER_SIZE = 2;
+
+    /** Longest inline word accepted, in UTF-8 bytes */
+    public static final int MAX_WORD_BYTES = 0xFFFF;
+
+    private static final byte MAGIC = (byte) 0xE5;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_VARLONG_BYTES = 10;
+
+    private WireCodec() {
+    }
+
+    /**
+     * Writes the stream header
+     *
+     * @param out The buffer that receives the header
+     */
+    public static void writeHeader(ByteBuffer out) {
+        out.put(MAGIC).put((byte) VERSION);
+    }
+
+    /**
+     * Reads the stream header
+     *
+     * @param in The buffer positioned at the header
+     * @return The version the stream was written with
+     * @throws IOException If the header is missing or the version is not {@link #VERSION}
+     */
+    public static int readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < HEADER_SIZE || in.get() != MAGIC) {
+            throw new IOException("Not a game state stream");
+        }
+        int version = in.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported game state version: " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Writes the state of a session
+     * <p>
+     * The session is locked while its state is read, so a move made from another thread is either fully included
+     * or not at all.
+     *
+     * @param out     The buffer that receives the frame, with at least {@link #stateSize(int, String, long)} bytes
+     *                left
+     * @param session The session to encode
+     */
+    public static void writeState(ByteBuffer out, GameSession session) {
+        int wordId;
+        String word;
+        Alphabet alphabet;
+        int helps;
+        long guessedMask;
+        int attempts;
+        synchronized (session) { //Un reinicio reutiliza la partida: la palabra se lee con el mismo candado
+            Game game = session.getGame();
+            wordId = game.getWordId();
+            word = game.getSecretWord();
+            alphabet = game.getAlphabet();
+            helps = session.getHelpsLeft();
+            guessedMask = game.getEngine().guessedMask();
+            attempts = game.getAttempts();
+        }
+        writeState(out, wordId, word, alphabet, guessedMask, attempts, helps);
+    }
+
+    /**
+     * Writes the state of a round
+     *
+     * @param out         The buffer that receives the frame, with at least {@link #stateSize(int, String, long)}
+     *                    bytes left
+     * @param wordId      The dictionary id of the secret word, or -1 to write the word itself
+     * @param word        The secret word; only used when the id is -1
+     * @param alphabet    The alphabet pack of the game, which numbers the bits of the mask
+     * @param guessedMask The letters already tried
+     * @param attempts    The failed attempts, from 0 to 15
+     * @param helps       The hints left, from 0 to 15
+     */
+    public static void writeState(ByteBuffer out, int wordId, String word, Alphabet alphabet, long guessedMask,
+                                  int attempts, int helps) {
+        if ((attempts & ~0xF) != 0 || (helps & ~0xF) != 0) {
+            throw new IllegalArgumentException("Attempts and hints must fit in 4 bits: " + attempts + ", " + helps);
+        }
+        int pack = Alphabet.packs().indexOf(alphabet);
+        if (pack < 0) {
+            throw new IllegalArgumentException("Not an alphabet pack: " + alphabet);
+        }
+        out.put((byte) STATE);
+        if (wordId >= 0) {
+            putVarint(out, wordId + 1);
+        } else {
+            putVarint(out, 0);
+            putVarint(out, utf8Length(word));
+            putUtf8(out, word);
+        }
+        out.put((byte) pack);
+        putVarlong(out, guessedMask);
+        out.put((byte) (attempts << 4 | helps));
+    }
+
+    /**
+     * Computes the bytes of a state frame
+     *
+     * @param wordId      The dictionary id of the secret word, or -1
+     * @param word        The secret word; only used when the id is -1
+     * @param guessedMask The letters already tried
+     * @return The size of the frame
+     */
+    public static int stateSize(int wordId, String word, long guessedMask) {
+        int fixed = 1 + 1 + varlongSize(guessedMask) + 1;  // Tipo, alfabeto, mascara e intentos con ayudas
+        if (wordId >= 0) {
+            return fixed + varintSize(wordId + 1);
+        }
+        int bytes = utf8Length(word);
+        return fixed + 1 + varintSize(bytes) + bytes;
+    }
+
+    /**
+     * Reads a state frame into a reusable holder
+     *
+     * @param in     The buffer positioned at the frame
+     * @param target Receives the decoded state
+     * @throws IOException If the frame is not a state, is cut short or holds values out of range
+     */
+    public static void readState(ByteBuffer in, WireState target) throws IOException {
+        try {
+            int type = in.get() & 0xFF;
+            if (type != STATE) {
+                throw new IOException("Expected a state frame, found type " + type);
+            }
+            int id = getVarint(in);
+            if (id < 0) {
+                throw new IOException("Invalid word id: " + id);
+            }
+            String word = null;
+            if (id == 0) {
+                int length = getVarint(in);
+                if (length < 0 || length > MAX_WORD_BYTES || length > in.remaining()) {
+                    throw new IOException("Invalid word length: " + length);
+                }
+                word = getUtf8(in, length);
+            }
+            int pack = in.get() & 0xFF;
+            if (pack >= Alphabet.packs().size()) {
+                throw new IOException("Unknown alphabet: " + pack);
+            }
+            long guessedMask = getVarlong(in);
+            int packed = in.get() & 0xFF;
+            int attempts = packed >>> 4;
+            int helps = packed & 0xF;
+            if (attempts > GameEngine.MAX_ATTEMPTS || helps > GameSession.MAX_HELPS) {
+                throw new IOException("Invalid attempts or hints: " + attempts + ", " + helps);
+            }
+            target.set(id - 1, word, Alphabet.packs().get(pack), guessedMask, attempts, helps);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated state frame");
+        }
+    }
+
+    /**
+     * Writes a move
+     *
+     * @param out    The buffer that receives the frame, with at least 4 bytes left
+     * @param type   {@link #GUESS} or {@link #HINT}
+     * @param letter The guessed or revealed letter
+     */
+    public static void writeMove(ByteBuffer out, int type, char letter) {
+        if (type != GUESS && type != HINT) {
+            throw new IllegalArgumentException("Not a move type: " + type);
+        }
+        out.put((byte) type);
+        putVarint(out, letter);
+    }
+
+    /**
+     * Reads the letter of a move frame, whose type has been checked with {@link #peekType(ByteBuffer)}
+     *
+     * @param in The buffer positioned at the frame
+     * @return The letter of the move
+     * @throws IOException If the frame is not a move or is cut short
+     */
+    public static char readMove(ByteBuffer in) throws IOException {
+        try {
+            int type = in.get() & 0xFF;
+            if (type != GUESS && type != HINT) {
+                throw new IOException("Expected a move frame, found type " + type);
+            }
+            int letter = getVarint(in);
+            if (letter > Character.MAX_VALUE) {
+                throw new IOException("Invalid letter: " + letter);
+            }
+            return (char) letter;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated move frame");
+        }
+    }
+
+    /**
+     * Gets the type of the next frame without consuming it
+     *
+     * @param in The buffer positioned at a frame
+     * @return {@link #STATE}, {@link #GUESS}, {@link #HINT} or an unknown type
+     */
+    public static int peekType(ByteBuffer in) {
+        return in.get(in.position()) & 0xFF;
+    }
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes
+     *
+     * @param out   The buffer that receives the value
+     * @param value The value; negative values take 5 bytes
+     */
+    public static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads an int written by {@link #putVarint(ByteBuffer, int)}
+     *
+     * @param in The buffer positioned at the value
+     * @return The value
+     * @throws IOException If the value takes more than 5 bytes
+     */
+    public static int getVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0, i = 0; i < MAX_VARINT_BYTES; i++, shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint longer than " + MAX_VARINT_BYTES + " bytes");
+    }
+
+    /**
+     * Writes a long in 1 to 10 bytes, the fewer the lower its highest set bit
+     *
+     * @param out   The buffer that receives the value
+     * @param value The value
+     */
+    public static void putVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads a long written by {@link #putVarlong(ByteBuffer, long)}
+     *
+     * @param in The buffer positioned at the value
+     * @return The value
+     * @throws IOException If the value takes more than 10 bytes
+     */
+    public static long getVarlong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0, i = 0; i < MAX_VARLONG_BYTES; i++, shift += 7) {
+            int b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint longer than " + MAX_VARLONG_BYTES + " bytes");
+    }
+
+    /**
+     * Computes the bytes of a varlong
+     *
+     * @param value The value
+     * @return The encoded size, from 1 to 10
+     */
+    public static int varlongSize(long value) {
+        return value == 0 ? 1 : (70 - Long.numberOfLeadingZeros(value)) / 7;
+    }
+
+    /**
+     * Computes the bytes of a varint
+     *
+     * @param value The value
+     * @return The encoded size, from 1 to 5
+     */
+    public static int varintSize(int value) {
+        return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+
+    private static int utf8Length(String word) {
+        int bytes = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < word.length()
+                    && Character.isLowSurrogate(word.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += Character.isSurrogate(c) ? 1 : 3; //Un sustituto suelto se escribe como '?'
+            }
+        }
+        return bytes;
+    }
+
+    private static void putUtf8(ByteBuffer out, String word) {
+        //Se codifica a mano para no crear un arreglo intermedio
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < word.length()
+                    && Character.isLowSurrogate(word.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, word.charAt(++i));
+                out.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                        .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static String getUtf8(ByteBuffer in, int length) {
+        String word;
+        if (in.hasArray()) {
+            word = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            word = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Decoded state of a round, filled in place by {@link WireCodec#readState(ByteBuffer, WireState)}
+ * One instance can be reused for every record of a stream, so decoding does not allocate per record
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.wire;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public final class WireState {
+    private int wordId;  // Id en el diccionario, -1 si la palabra viene escrita
+    private String word;  // Palabra escrita en el registro, null si viene por id
+    private Alphabet alphabet;  // Numera los bits de la mascara
+    private long guessedMask;
+    private int attempts;
+    private int helps;
+
+    void set(int wordId, String word, Alphabet alphabet, long guessedMask, int attempts, int helps) {
+        this.wordId = wordId;
+        this.word = word;
+        this.alphabet = alphabet;
+        this.guessedMask = guessedMask;
+        this.attempts = attempts;
+        this.helps = helps;
+    }
+
+    /**
+     * Gets the dictionary id of the secret word
+     *
+     * @return The word id, or -1 if the word was written in the record
+     */
+    public int getWordId() {
+        return wordId;
+    }
+
+    /**
+     * Gets the secret word written in the record
+     *
+     * @return The word, or {@code null} if the record refers to it by id
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * Gets the alphabet of the round, whose letter indexes are the bits of the guessed-letter mask
+     *
+     * @return The alphabet pack
+     */
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Gets the letters already tried
+     *
+     * @return The guessed-letter mask
+     */
+    public long getGuessedMask() {
+        return guessedMask;
+    }
+
+    /**
+     * Gets the failed attempts
+     *
+     * @return The number of failed attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the hints left
+     *
+     * @return The number of hints left
+     */
+    public int getHelps() {
+        return helps;
+    }
+
+    /**
+     * Rebuilds the session described by the record
+     *
+     * @param words The dictionary the word ids refer to
+     * @return A session with the round in progress
+     * @throws IOException If the word id is not in the dictionary
+     */
+    public GameSession toSession(WordRepository words) throws IOException {
+        if (word == null && (wordId < 0 || wordId >= words.size())) {
+            throw new IOException("Word id " + wordId + " is not in the dictionary of " + words.size() + " words");
+        }
+        String secret = word != null ? word : words.word(wordId);
+        return new GameSession(Game.restore(secret, wordId, guessedMask, attempts, alphabet), helps);
+    }
+}
@@ -1,9 +1,22 @@
 module com.example.brandonProject {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
 
 
     opens com.example.brandonProject to javafx.fxml;
     opens com.example.brandonProject.controllers to javafx.fxml;
     exports com.example.brandonProject;
+    exports com.example.brandonProject.engine;
+    exports com.example.brandonProject.model;
+    exports com.example.brandonProject.dictionary;
+    exports com.example.brandonProject.session;
+    exports com.example.brandonProject.server;
+    exports com.example.brandonProject.solver;
+    exports com.example.brandonProject.persistence;
+    exports com.example.brandonProject.stats;
+    exports com.example.brandonProject.metrics;
+    exports com.example.brandonProject.race;
+    exports com.example.brandonProject.wire;
+    exports com.example.brandonProject.players;
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+/**
+ * Masked-pattern queries of the pattern index, on the heap and through a mapped file
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.dictionary;
+
+import com.example.brandonProject.engine.Alphabet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatternIndexTest {
+    private static final List<String> WORDS = List.of("javafx", "jabali", "casa", "cosa", "masa", "mesa", "año", "ano");
+
+    @Test
+    void revealedLettersMustMatchAndCannotBeHidden() {
+        PatternIndex index = PatternIndex.of(WORDS, Alphabet.SPANISH);
+        assertArrayEquals(new int[]{0}, index.matches("j_v_fx", 0, 10));
+        //Mesa tiene una 'a' oculta donde el patron la habria mostrado
+        assertArrayEquals(new int[]{2, 4}, index.matches("_a_a", 0, 10));
+        assertArrayEquals(new int[]{2, 4}, index.matches("_á_a", 0, 10)); //Las tildes se pliegan
+        assertEquals(4, index.count("____", 0));
+    }
+
+    @Test
+    void excludedLettersRemoveWords() {
+        PatternIndex index = PatternIndex.of(WORDS, Alphabet.SPANISH);
+        long c = 1L << Alphabet.SPANISH.letterIndex('c');
+        assertArrayEquals(new int[]{4}, index.matches("_a_a", c, 10));
+        assertArrayEquals(new int[]{4, 5}, index.matches("____", c, 10));
+        assertArrayEquals(new int[]{4}, index.matches("____", c, 1)); //Respeta el limite
+    }
+
+    @Test
+    void alphabetLettersStayApart() {
+        PatternIndex index = PatternIndex.of(WORDS, Alphabet.SPANISH);
+        assertArrayEquals(new int[]{6}, index.matches("_ñ_", 0, 10));
+        assertArrayEquals(new int[]{7}, index.matches("_n_", 0, 10));
+        assertEquals(0, index.count("_ø_", 0)); //Fuera del alfabeto no coincide nada
+        assertEquals(0, index.count("_______", 0));
+    }
+
+    @Test
+    void mappedFileAnswersLikeTheHeapIndex(@TempDir Path directory) throws IOException {
+        Path list = directory.resolve("words.txt");
+        Files.write(list, WORDS);
+        WordRepository words = WordRepository.open(list);
+        Path file = directory.resolve("words.espi");
+        PatternIndex.write(words, Alphabet.SPANISH, file);
+
+        PatternIndex heap = PatternIndex.of(WORDS, Alphabet.SPANISH);
+        PatternIndex mapped = PatternIndex.open(file);
+        assertEquals(Alphabet.SPANISH, mapped.alphabet());
+        assertEquals(WORDS.size(), mapped.size());
+        for (String pattern : List.of("j_v_fx", "_a_a", "____", "_ñ_", "a__")) {
+            assertArrayEquals(heap.matches(pattern, 0, 10), mapped.matches(pattern, 0, 10), pattern);
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("words.espi");
+        Files.write(file, new byte[512]);
+        assertThrows(IOException.class, () -> PatternIndex.open(file));
+    }
+}
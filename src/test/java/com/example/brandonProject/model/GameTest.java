@@ -0,0 +1,92 @@
+/**
+ * Rules of a round: accent folding, repeated guesses, hints and the end of the game
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.model;
+
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameTest {
+
+    @Test
+    void accentedGuessMatchesTheBaseLetter() {
+        Game game = new Game("casa");
+        assertEquals(GuessResult.HIT, game.makeGuess('á'));
+        assertEquals("_a_a", game.getCurrentGuess());
+    }
+
+    @Test
+    void revealedLettersKeepTheirAccent() {
+        Game game = new Game("árbol ámbar");
+        assertEquals(GuessResult.HIT, game.makeGuess('a'));
+        assertEquals("á____ á__a_", game.getCurrentGuess()); //Los espacios se muestran desde el inicio
+        assertEquals('o', game.revealLetter('o'));
+        assertEquals("á__o_ á__a_", game.getCurrentGuess());
+    }
+
+    @Test
+    void repeatedGuessesChangeNothing() {
+        Game game = new Game("sol");
+        assertEquals(GuessResult.HIT, game.makeGuess('o'));
+        assertEquals(GuessResult.REPEAT, game.makeGuess('o'));
+        assertEquals(GuessResult.REPEAT, game.makeGuess('ó')); //Misma letra con tilde
+        assertEquals(GuessResult.MISS, game.makeGuess('z'));
+        assertEquals(GuessResult.REPEAT, game.makeGuess('z'));
+        assertEquals(1, game.getAttempts());
+        assertEquals("_o_", game.getCurrentGuess());
+    }
+
+    @Test
+    void roundIsWonWhenEveryLetterIsUncovered() {
+        Game game = new Game("sol");
+        assertEquals(GuessResult.HIT, game.makeGuess('s'));
+        assertEquals('o', game.revealLetter('o'));
+        assertEquals(GuessResult.WON, game.makeGuess('l'));
+        assertTrue(game.isGameOver());
+        assertTrue(game.isWon());
+        assertEquals(GuessResult.REPEAT, game.makeGuess('x')); //La partida termino: no cuesta intentos
+        assertEquals(0, game.getAttempts());
+    }
+
+    @Test
+    void hintCanWinTheRound() {
+        Game game = new Game("sol");
+        game.makeGuess('s');
+        game.makeGuess('o');
+        assertEquals('l', game.revealLetter());
+        assertTrue(game.isWon());
+        assertEquals(GameEngine.HIDDEN, game.revealLetter());
+    }
+
+    @Test
+    void roundIsLostAfterTheLastAttempt() {
+        Game game = new Game("sol");
+        String misses = "abcde";
+        for (int i = 0; i < misses.length() - 1; i++) {
+            assertEquals(GuessResult.MISS, game.makeGuess(misses.charAt(i)));
+            assertFalse(game.isGameOver());
+        }
+        assertEquals(GuessResult.LOST, game.makeGuess(misses.charAt(misses.length() - 1)));
+        assertEquals(GameEngine.MAX_ATTEMPTS, game.getAttempts());
+        assertTrue(game.isGameOver());
+        assertFalse(game.isWon());
+        assertEquals(GuessResult.REPEAT, game.makeGuess('s'));
+        assertEquals("___", game.getCurrentGuess());
+    }
+
+    @Test
+    void charactersOutsideTheAlphabetAreNotGuessable() {
+        Game game = new Game("sol");
+        assertTrue(game.isGuessable('Ó'));
+        assertFalse(game.isGuessable('7'));
+        assertFalse(game.isGuessable(' '));
+    }
+}
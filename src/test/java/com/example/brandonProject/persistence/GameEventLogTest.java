@@ -0,0 +1,108 @@
+/**
+ * Replay of logged rounds and recovery of a log left by a crash
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.persistence;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GameEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedLogReplaysTheLastRound() throws IOException {
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            log.appendNewGame(1, new Game("sol"));
+            log.appendGuess(1, 's');
+            log.appendNewGame(1, new Game("año", 3, RandomSource.threadLocal(), Alphabet.SPANISH));
+            log.appendGuess(1, 'z');
+            log.appendHint(1, 'ñ');
+            log.appendGuess(2, 'x'); //Otro jugador no se mezcla con la cadena del primero
+            log.flush();
+        }
+
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            GameSession session = log.replay(1);
+            Game game = session.getGame();
+            assertEquals("año", game.getSecretWord());
+            assertEquals(3, game.getWordId());
+            assertEquals(Alphabet.SPANISH, game.getAlphabet());
+            assertEquals("_ñ_", game.getCurrentGuess());
+            assertEquals(1, game.getAttempts());
+            assertEquals(GameSession.MAX_HELPS - 1, session.getHelpsLeft());
+            assertNull(log.replay(3));
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsTruncated() throws IOException {
+        Path segment = directory.resolve(GameEventLog.segmentName(0));
+        long valid;
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            log.appendNewGame(1, new Game("luna"));
+            log.appendGuess(1, 'u');
+            log.flush();
+            valid = Files.size(segment);
+        }
+        //Un registro que se corto a la mitad durante la caida
+        Files.write(segment, new byte[]{0, 0, 0, 23, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            assertEquals(valid, Files.size(segment));
+            assertEquals("_u__", log.replay(1).getGame().getCurrentGuess());
+            log.appendGuess(1, 'l').join(); //Lo nuevo sigue al ultimo registro valido
+        }
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            assertEquals("lu__", log.replay(1).getGame().getCurrentGuess());
+        }
+    }
+
+    @Test
+    void recordWithABadChecksumEndsTheLog() throws IOException {
+        Path segment = directory.resolve(GameEventLog.segmentName(0));
+        long beforeLastMove;
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            log.appendNewGame(1, new Game("luna")).join();
+            beforeLastMove = Files.size(segment);
+            log.appendGuess(1, 'a').join();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x7F; //La letra del ultimo registro ya no coincide con su CRC
+        Files.write(segment, bytes);
+
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            assertEquals(beforeLastMove, Files.size(segment));
+            assertEquals("____", log.replay(1).getGame().getCurrentGuess());
+        }
+    }
+
+    @Test
+    void compactedPlayersLeaveTheIndex() throws IOException {
+        try (GameEventLog log = GameEventLog.open(directory)) {
+            log.appendNewGame(1, new Game("sol"));
+            int segment = log.startSegment();
+            log.appendNewGame(2, new Game("luna")).join();
+
+            assertEquals(1, log.deleteSegmentsBefore(segment));
+            assertNull(log.replay(1));
+            assertEquals("luna", log.replay(2).getGame().getSecretWord());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Round trip of session snapshots and compaction of the event log they supersede
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.persistence;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.model.Game;
+import com.example.brandonProject.session.GameSession;
+import com.example.brandonProject.session.ParkedGames;
+import com.example.brandonProject.session.SessionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private WordRepository words;
+
+    @BeforeEach
+    void openWords() throws IOException {
+        Path file = directory.resolve("words.txt");
+        Files.write(file, List.of("sol", "luna", "eclipse"));
+        words = WordRepository.open(file);
+    }
+
+    @Test
+    void sessionsSurviveARoundTrip() throws IOException {
+        SessionRegistry registry = registry();
+        GameSession fromDictionary = new GameSession(new Game("eclipse", 2));
+        fromDictionary.guess('e');
+        fromDictionary.guess('z');
+        fromDictionary.useHelp();
+        registry.put(1, fromDictionary);
+        GameSession inline = new GameSession(new Game("año nuevo")); //Palabra fuera del diccionario
+        inline.guess('o');
+        registry.put(300, inline);
+
+        SnapshotStore store = SnapshotStore.open(directory.resolve("snapshots"));
+        assertEquals(2, store.write(registry, null, words, null));
+
+        SessionRegistry loaded = registry();
+        assertEquals(2, SnapshotStore.open(directory.resolve("snapshots")).load(loaded, null, words, null));
+        assertSameRound(fromDictionary, loaded.get(1));
+        assertSameRound(inline, loaded.get(300));
+    }
+
+    @Test
+    void snapshotCompactsTheLogAndLoadAppliesLaterMoves() throws IOException {
+        Path events = directory.resolve("events");
+        Path snapshots = directory.resolve("snapshots");
+        SessionRegistry registry = registry();
+        GameSession session = new GameSession(new Game("luna", 1));
+        try (GameEventLog log = GameEventLog.open(events)) {
+            session.setListener(7, log);
+            log.appendNewGame(7, session.getGame());
+            session.guess('l');
+            registry.put(7, session);
+
+            SnapshotStore store = SnapshotStore.open(snapshots);
+            store.write(registry, null, words, log);
+            assertFalse(Files.exists(events.resolve(GameEventLog.segmentName(0))));
+            store.write(registry, null, words, log);
+            assertEquals(1, count(snapshots)); //El snapshot anterior se borra
+
+            session.guess('a'); //Despues del snapshot: solo queda en el registro de eventos
+            log.flush();
+        }
+
+        SessionRegistry loaded = registry();
+        try (GameEventLog log = GameEventLog.open(events)) {
+            assertEquals(1, SnapshotStore.open(snapshots).load(loaded, null, words, log));
+        }
+        assertSameRound(session, loaded.get(7));
+        assertEquals("l__a", loaded.get(7).getGame().getCurrentGuess());
+    }
+
+    @Test
+    void parkedRoundsSurviveCompaction() throws IOException {
+        Path events = directory.resolve("events");
+        Path snapshots = directory.resolve("snapshots");
+        SessionRegistry registry = registry();
+        ParkedGames parked = new ParkedGames(16);
+        GameSession session = new GameSession(new Game("eclipse", 2));
+        try (GameEventLog log = GameEventLog.open(events)) {
+            session.setListener(9, log);
+            log.appendNewGame(9, session.getGame());
+            session.guess('e');
+            session.guess('x');
+            assertTrue(parked.park(9, session)); //El jugador se fue a mitad de la ronda
+
+            //La compactacion borra el inicio de la ronda: solo el snapshot la conserva
+            assertEquals(1, SnapshotStore.open(snapshots).write(registry, parked, words, log));
+            assertFalse(Files.exists(events.resolve(GameEventLog.segmentName(0))));
+        }
+
+        SessionRegistry loaded = registry();
+        ParkedGames loadedParked = new ParkedGames(16);
+        try (GameEventLog log = GameEventLog.open(events)) {
+            assertEquals(1, SnapshotStore.open(snapshots).load(loaded, loadedParked, words, log));
+        }
+        assertNull(loaded.get(9));
+        assertSameRound(session, loadedParked.unpark(9, words));
+    }
+
+    @Test
+    void snapshotOfAnotherDictionaryIsRejected() throws IOException {
+        SessionRegistry registry = registry();
+        registry.put(1, new GameSession(new Game("sol", 0)));
+        SnapshotStore store = SnapshotStore.open(directory.resolve("snapshots"));
+        store.write(registry, null, words, null);
+
+        Path other = directory.resolve("other.txt");
+        Files.write(other, List.of("sol", "luna"));
+        WordRepository otherWords = WordRepository.open(other);
+        assertThrows(IOException.class, () -> store.load(registry(), null, otherWords, null));
+    }
+
+    private static SessionRegistry registry() {
+        return new SessionRegistry(16, Duration.ofHours(1));
+    }
+
+    private static void assertSameRound(GameSession expected, GameSession actual) {
+        Game game = actual.getGame();
+        assertEquals(expected.getGame().getSecretWord(), game.getSecretWord());
+        assertEquals(expected.getGame().getWordId(), game.getWordId());
+        assertEquals(expected.getGame().getCurrentGuess(), game.getCurrentGuess());
+        assertEquals(expected.getGame().getAttempts(), game.getAttempts());
+        assertEquals(expected.getHelpsLeft(), actual.getHelpsLeft());
+    }
+
+    private static long count(Path snapshots) throws IOException {
+        try (Stream<Path> files = Files.list(snapshots)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Uniqueness of the player ids handed out by block, in memory, across restarts and across allocators sharing a file
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.players;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerIdAllocatorTest {
+
+    @Test
+    void concurrentThreadsNeverShareAnId() throws Exception {
+        PlayerIdAllocator allocator = PlayerIdAllocator.inMemory(PlayerIdAllocator.FIRST_ID, 64);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<int[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    int[] ids = new int[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = allocator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Integer> seen = new HashSet<>();
+            for (Future<int[]> result : results) {
+                for (int id : result.get()) {
+                    assertTrue(id >= PlayerIdAllocator.FIRST_ID, "id " + id);
+                    assertTrue(seen.add(id), "id " + id + " was handed out twice");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void restartSkipsTheUnfinishedBlock(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("player-ids.bin");
+        PlayerIdAllocator before = PlayerIdAllocator.open(file, 4);
+        assertEquals(1, before.nextId());
+        assertEquals(2, before.nextId());
+
+        PlayerIdAllocator after = PlayerIdAllocator.open(file, 4);
+        assertEquals(5, after.nextId()); //Los ids 3 y 4 quedan sin usar, nunca se repiten
+    }
+
+    @Test
+    void allocatorsSharingAFileHandOutDisjointIds(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("player-ids.bin");
+        PlayerIdAllocator first = PlayerIdAllocator.open(file, 8);
+        PlayerIdAllocator second = PlayerIdAllocator.open(file, 8);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.add(first.nextId()));
+            assertTrue(seen.add(second.nextId()));
+        }
+    }
+
+    @Test
+    void exhaustedIdSpaceIsReported() {
+        PlayerIdAllocator allocator = PlayerIdAllocator.inMemory(Integer.MAX_VALUE - 8, 4);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(Integer.MAX_VALUE - 8 + i, allocator.nextId());
+        }
+        assertThrows(IllegalStateException.class, allocator::nextId);
+    }
+}
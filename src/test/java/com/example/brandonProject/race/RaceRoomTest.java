@@ -0,0 +1,160 @@
+/**
+ * Per-seat rules of a race room, lock-free guesses from many threads and tick-coalesced batches
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.race;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.engine.GuessResult;
+import com.example.brandonProject.engine.WordIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RaceRoomTest {
+
+    @Test
+    void everySeatPlaysItsOwnGame() {
+        RaceRoom room = new RaceRoom("sol", 2);
+        int first = room.join();
+        int second = room.join();
+        assertEquals(GuessResult.HIT, room.guess(first, 's'));
+        assertEquals(GuessResult.REPEAT, room.guess(first, 'S'));
+        assertEquals(GuessResult.MISS, room.guess(second, 'z'));
+        assertEquals("s__", room.maskedWord(first));
+        assertEquals("___", room.maskedWord(second));
+        assertEquals(0, room.getMisses(first));
+        assertEquals(1, room.getMisses(second));
+        assertThrows(IllegalStateException.class, room::join);
+    }
+
+    @Test
+    void onlyTheFirstToFinishWinsTheRace() {
+        RaceRoom room = new RaceRoom("sol", 2);
+        int first = room.join();
+        int second = room.join();
+        room.guess(first, 's');
+        room.guess(first, 'o');
+        room.guess(second, 's');
+        room.guess(second, 'o');
+        assertEquals(GuessResult.WON, room.guess(second, 'l'));
+        assertEquals(GuessResult.WON, room.guess(first, 'l'));
+        assertEquals(second, room.getWinner());
+        assertTrue(room.isWon(first));
+    }
+
+    @Test
+    void seatIsOverAfterTheLastMiss() {
+        RaceRoom room = new RaceRoom("sol", 1);
+        int seat = room.join();
+        String misses = "abcde";
+        for (int i = 0; i < misses.length() - 1; i++) {
+            assertEquals(GuessResult.MISS, room.guess(seat, misses.charAt(i)));
+        }
+        assertEquals(GuessResult.LOST, room.guess(seat, 'e'));
+        assertTrue(room.isGameOver(seat));
+        assertEquals(GuessResult.REPEAT, room.guess(seat, 's'));
+        assertEquals(GameEngine.MAX_ATTEMPTS, room.getMisses(seat));
+        assertEquals(RaceRoom.NO_SEAT, room.getWinner());
+    }
+
+    @Test
+    void concurrentGuessesOnOneSeatAreNeverLost() throws Exception {
+        String word = "murcielago";
+        ExecutorService pool = Executors.newFixedThreadPool(word.length());
+        try {
+            for (int round = 0; round < 200; round++) {
+                RaceRoom room = new RaceRoom(word, 1);
+                int seat = room.join();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<GuessResult>> results = new ArrayList<>();
+                for (char letter : word.toCharArray()) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return room.guess(seat, letter);
+                    }));
+                }
+                start.countDown();
+                int wins = 0;
+                for (Future<GuessResult> result : results) {
+                    wins += result.get() == GuessResult.WON ? 1 : 0;
+                }
+                //Cada compare-and-set que falla se reintenta: ninguna letra se pierde y una sola jugada gana
+                assertEquals(1, wins, "round " + round);
+                assertEquals(word, room.maskedWord(seat));
+                assertEquals(0, room.getMisses(seat));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void wordBeyondTheMaskBitsIsRejected() {
+        //33 letras cirilicas y 29 latinas fuera del alfabeto: las ultimas caen en los bits del contador de fallos
+        WordIndex index = new WordIndex("abcdefghijklmnopqrstuvwxyzøåæ", Alphabet.CYRILLIC);
+        assertTrue(Long.numberOfLeadingZeros(index.letterMask()) < Long.SIZE - RaceRoom.MASK_BITS);
+        assertThrows(IllegalArgumentException.class, () -> new RaceRoom(index, 1));
+
+        //Con 27 letras ajenas la ultima ocupa el bit 59 y la palabra cabe justo
+        RaceRoom room = new RaceRoom(new WordIndex("abcdefghijklmnopqrstuvwxyzø", Alphabet.CYRILLIC), 1);
+        assertEquals(GuessResult.HIT, room.guess(room.join(), 'ø'));
+    }
+
+    @Test
+    void tickSendsOneBatchWithTheSeatsThatChanged() {
+        RaceRoom room = new RaceRoom("eclipse", 4);
+        for (int i = 0; i < 3; i++) {
+            room.join();
+        }
+        RaceSubscription subscription = room.subscribe(8);
+        room.tick();
+        RaceUpdate first = subscription.poll();
+        assertTrue(first.isFull());
+        assertEquals(3, first.size());
+
+        room.guess(1, 'e');
+        room.guess(1, 'z');
+        room.guess(1, 'c');
+        room.tick();
+        RaceUpdate delta = subscription.poll();
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.size());
+        assertEquals(1, delta.seat(0));
+        assertEquals(2, delta.revealed(0));
+        assertEquals(1, delta.misses(0));
+
+        room.tick(); //Sin jugadas no se envia nada
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    void slowSubscriberCatchesUpWithASnapshot() {
+        RaceRoom room = new RaceRoom("eclipse", 2);
+        int seat = room.join();
+        RaceSubscription subscription = room.subscribe(1);
+        room.tick(); //La cola queda llena con el primer snapshot
+        room.guess(seat, 'e');
+        room.tick();
+
+        RaceUpdate update = subscription.poll();
+        assertTrue(update.isFull());
+        assertEquals(1, update.revealed(0));
+        assertEquals(1, subscription.getDropped());
+        assertNull(subscription.poll());
+    }
+}
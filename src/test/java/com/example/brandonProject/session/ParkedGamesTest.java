@@ -0,0 +1,104 @@
+/**
+ * Parking and rehydrating rounds off-heap, deletion from the lookup table and reuse of freed records
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.model.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkedGamesTest {
+    private WordRepository words;
+
+    @BeforeEach
+    void openWords(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("words.txt");
+        Files.write(file, List.of("sol", "año", "eclipse"));
+        words = WordRepository.open(file);
+    }
+
+    @Test
+    void unparkedRoundContinuesWhereItStopped() {
+        ParkedGames parked = new ParkedGames(8);
+        GameSession session = new GameSession(new Game("año", 1, RandomSource.threadLocal(), Alphabet.SPANISH));
+        session.guess('ñ');
+        session.guess('z');
+        session.useHelp();
+        assertTrue(parked.park(42, session));
+
+        GameSession restored = parked.unpark(42, words);
+        assertEquals("año", restored.getGame().getSecretWord());
+        assertEquals(Alphabet.SPANISH, restored.getGame().getAlphabet());
+        assertEquals(session.getGame().getCurrentGuess(), restored.getGame().getCurrentGuess());
+        assertEquals(1, restored.getGame().getAttempts());
+        assertEquals(GameSession.MAX_HELPS - 1, restored.getHelpsLeft());
+        assertFalse(parked.contains(42));
+        assertNull(parked.unpark(42, words));
+    }
+
+    @Test
+    void onlyUnfinishedDictionaryRoundsOfDetachedSessionsAreParked() {
+        ParkedGames parked = new ParkedGames(8);
+        assertFalse(parked.park(1, new GameSession(new Game("luna")))); //La palabra no viene del diccionario
+
+        GameSession finished = new GameSession(new Game("sol", 0));
+        "sol".chars().forEach(c -> finished.guess((char) c));
+        assertFalse(parked.park(2, finished));
+
+        GameSession attached = new GameSession(new Game("sol", 0));
+        attached.attach();
+        assertFalse(parked.park(3, attached));
+        assertEquals(0, parked.size());
+    }
+
+    @Test
+    void freedRecordsAreReused() {
+        ParkedGames parked = new ParkedGames(4);
+        for (int id = 0; id < 4; id++) {
+            assertTrue(parked.park(id, new GameSession(new Game("eclipse", 2))));
+        }
+        assertFalse(parked.park(4, new GameSession(new Game("eclipse", 2)))); //Lleno
+        assertTrue(parked.park(0, new GameSession(new Game("sol", 0)))); //Reemplaza sin ocupar otro registro
+        long bytes = parked.offHeapBytes();
+
+        assertTrue(parked.remove(1));
+        assertFalse(parked.remove(1));
+        assertTrue(parked.park(4, new GameSession(new Game("eclipse", 2))));
+        assertEquals(4, parked.size());
+        assertEquals(bytes, parked.offHeapBytes());
+        assertEquals("sol", parked.unpark(0, words).getGame().getSecretWord());
+    }
+
+    @Test
+    void deletionKeepsTheOtherPlayersReachable() {
+        int players = 5_000;
+        ParkedGames parked = new ParkedGames(players);
+        for (int id = 0; id < players; id++) {
+            assertTrue(parked.park(id * 31, new GameSession(new Game("sol", 0))));
+        }
+        for (int id = 0; id < players; id += 2) {
+            assertTrue(parked.remove(id * 31));
+        }
+        for (int id = 0; id < players; id++) {
+            assertEquals(id % 2 == 1, parked.contains(id * 31), "player " + id * 31);
+        }
+        assertEquals(players / 2, parked.size());
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Time to live and capacity eviction of the session registry, driven by a manual clock
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.session;
+
+import com.example.brandonProject.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+    private static final long TTL = 1_000;  // Nanosegundos del reloj manual
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Integer> evicted = new ArrayList<>();
+
+    private SessionRegistry registry(int capacity) {
+        SessionRegistry registry = new SessionRegistry(capacity, Duration.ofNanos(TTL), now::get);
+        registry.setEvictionListener((playerId, session) -> evicted.add(playerId));
+        return registry;
+    }
+
+    @Test
+    void sessionExpiresAfterItsTimeToLive() {
+        SessionRegistry registry = registry(10);
+        GameSession session = new GameSession(new Game("sol"));
+        registry.put(1, session);
+
+        now.set(TTL);
+        assertSame(session, registry.get(1)); //Justo en el limite sigue viva y se marca como usada
+        now.set(2 * TTL);
+        assertSame(session, registry.get(1));
+        now.set(3 * TTL + 1);
+        assertNull(registry.get(1));
+
+        assertEquals(List.of(1), evicted);
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.stats().getExpirations());
+        assertEquals(2, registry.stats().getHits());
+        assertEquals(1, registry.stats().getMisses());
+    }
+
+    @Test
+    void sweepEvictsOnlyIdleSessions() {
+        SessionRegistry registry = registry(10);
+        registry.put(1, new GameSession(new Game("sol")));
+        now.set(TTL / 2);
+        registry.put(2, new GameSession(new Game("luna")));
+        now.set(TTL + 1);
+
+        assertEquals(1, registry.evictExpired());
+        assertEquals(List.of(1), evicted);
+        assertNotNull(registry.get(2));
+    }
+
+    @Test
+    void touchKeepsAPlayedSessionAlive() {
+        SessionRegistry registry = registry(10);
+        GameSession session = new GameSession(new Game("sol"));
+        registry.put(1, session);
+        for (int i = 1; i <= 5; i++) {
+            now.set(i * TTL);
+            registry.touch(1, session);
+        }
+        assertEquals(0, registry.evictExpired());
+        assertSame(session, registry.get(1));
+    }
+
+    @Test
+    void fullRegistryEvictsTheLeastRecentlyUsed() {
+        int capacity = 10;
+        SessionRegistry registry = registry(capacity);
+        for (int id = 0; id < capacity; id++) {
+            now.set(id);
+            registry.put(id, new GameSession(new Game("sol")));
+        }
+        now.set(capacity);
+        assertNotNull(registry.get(0)); //La mas antigua se usa y deja de ser candidata
+        now.set(capacity + 1);
+        registry.put(capacity, new GameSession(new Game("sol")));
+
+        //Se libera hasta el 90% de la capacidad: sale una sesion mas de las que sobraban
+        assertEquals(List.of(1, 2), evicted.stream().sorted().toList());
+        assertEquals(2, registry.stats().getCapacityEvictions());
+        assertEquals(capacity - 1, registry.size());
+        assertNotNull(registry.get(0));
+        assertNotNull(registry.get(capacity));
+    }
+
+    @Test
+    void removedAndReplacedSessionsAreNotReported() {
+        SessionRegistry registry = registry(10);
+        registry.put(1, new GameSession(new Game("sol")));
+        GameSession replacement = new GameSession(new Game("luna"));
+        registry.put(1, replacement);
+        assertSame(replacement, registry.remove(1));
+        assertNull(registry.remove(1));
+        assertTrue(evicted.isEmpty());
+    }
+}
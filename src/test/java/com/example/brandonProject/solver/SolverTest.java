@@ -0,0 +1,78 @@
+/**
+ * Candidate narrowing and move choice of the entropy solver on a small dictionary
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.solver;
+
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.RandomSource;
+import com.example.brandonProject.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverTest {
+    private static final List<String> WORDS = List.of("casa", "cosa", "masa", "mesa", "luna", "pato", "sol", "año");
+    private static final SolverDictionary DICTIONARY = SolverDictionary.of(WORDS, Alphabet.SPANISH);
+
+    @Test
+    void patternNarrowsTheCandidates() {
+        Game game = game("casa");
+        Solver solver = Solver.forGame(DICTIONARY, game);
+        assertEquals(6, solver.getCandidateCount()); //Todas las palabras de cuatro letras
+
+        game.makeGuess('a');
+        solver.update(game);
+        //Mesa y pato tienen una 'a' donde el patron no la muestra
+        assertEquals(List.of("casa", "masa"), solver.getCandidates(10));
+
+        char next = solver.nextGuess();
+        assertTrue(next == 'c' || next == 'm', "the guess should split casa from masa: " + next);
+    }
+
+    @Test
+    void missedLetterRemovesTheWordsThatHaveIt() {
+        Game game = game("luna");
+        Solver solver = Solver.forGame(DICTIONARY, game);
+        game.makeGuess('s');
+        solver.update(game);
+        assertEquals(List.of("luna", "pato"), solver.getCandidates(10));
+    }
+
+    @Test
+    void solverWinsEveryWordOfTheDictionary() {
+        for (String word : WORDS) {
+            Game game = game(word);
+            Solver solver = Solver.forGame(DICTIONARY, game);
+            while (!game.isGameOver()) {
+                game.makeGuess(solver.nextGuess());
+                solver.update(game);
+            }
+            assertTrue(game.isWon(), word);
+            assertEquals(1, solver.getCandidateCount(), word);
+        }
+    }
+
+    @Test
+    void unknownWordFallsBackToLetterFrequency() {
+        Solver solver = Solver.forGame(DICTIONARY, game("eclipse"));
+        assertEquals(0, solver.getCandidateCount());
+        assertEquals('e', solver.nextGuess());
+    }
+
+    @Test
+    void gameInAnotherAlphabetIsRejected() {
+        Game latin = new Game("casa", -1, RandomSource.threadLocal(), Alphabet.LATIN);
+        assertThrows(IllegalArgumentException.class, () -> Solver.forGame(DICTIONARY, latin));
+    }
+
+    private static Game game(String word) {
+        return new Game(word, -1, RandomSource.threadLocal(), Alphabet.SPANISH);
+    }
+}
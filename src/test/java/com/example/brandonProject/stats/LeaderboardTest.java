@@ -0,0 +1,89 @@
+/**
+ * Player statistics and the incremental top-K ranking of the leaderboard
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    @Test
+    void rankingOrdersByWinsAndKeepsTheOrderOfTies() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.record(1, true, 0, 0);
+        leaderboard.record(2, true, 1, 0);
+        leaderboard.record(3, true, 2, 0);
+        leaderboard.record(3, true, 0, 0);
+        assertEquals(List.of(3, 1, 2), players(leaderboard.top(3)));
+        assertEquals(List.of(3), players(leaderboard.top(1)));
+    }
+
+    @Test
+    void onlyTheBestPlayersAreRanked() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        for (int id = 1; id <= 4; id++) {
+            leaderboard.record(id, true, 0, 0);
+        }
+        assertEquals(List.of(1, 2, 3), players(leaderboard.top(10))); //Empatar con el ultimo no basta
+
+        leaderboard.record(4, true, 0, 0);
+        assertEquals(List.of(4, 1, 2), players(leaderboard.top(10)));
+        leaderboard.record(3, true, 0, 0); //El que salio vuelve a entrar al superar al ultimo
+        assertEquals(List.of(4, 3, 1), players(leaderboard.top(10)));
+        assertEquals(2, leaderboard.top(10).get(1).getWins());
+    }
+
+    @Test
+    void statisticsCountEveryRound() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.setNickName(5, "luna");
+        leaderboard.onGameOver(5, false, 5, 1);
+        leaderboard.onGameOver(5, true, 2, 2);
+        PlayerStats stats = leaderboard.getStats(5);
+        assertEquals("luna", stats.getNickName());
+        assertEquals(2, stats.getGames());
+        assertEquals(1, stats.getWins());
+        assertEquals(1, stats.getLosses());
+        assertEquals(3, stats.getHintsUsed());
+        assertEquals(List.of(5), players(leaderboard.top(3)));
+    }
+
+    @Test
+    void concurrentWinsKeepTheBestPlayersInOrder() throws InterruptedException {
+        int players = 50;
+        int ranked = 10;
+        Leaderboard leaderboard = new Leaderboard(ranked);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        //El jugador p gana p rondas, repartidas entre los hilos
+        for (int p = 0; p < players; p++) {
+            for (int win = 0; win < p; win++) {
+                int player = p;
+                pool.execute(() -> leaderboard.record(player, true, 0, 0));
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Leaderboard.Entry> top = leaderboard.top(ranked);
+        assertEquals(ranked, top.size());
+        for (int i = 0; i < ranked; i++) {
+            assertEquals(players - 1 - i, top.get(i).getPlayerId());
+            assertEquals(players - 1 - i, top.get(i).getWins());
+        }
+    }
+
+    private static List<Integer> players(List<Leaderboard.Entry> entries) {
+        return entries.stream().map(Leaderboard.Entry::getPlayerId).toList();
+    }
+}
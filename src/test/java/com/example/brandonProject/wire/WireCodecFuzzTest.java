@@ -0,0 +1,217 @@
+/**
+ * Randomized round-trip check of the binary round state encoding
+ * Writes random states and moves, reads them back and compares every field, then corrupts encoded streams to check
+ * that the decoder only ever fails with an {@link IOException}. The seeds are fixed so a failure can be replayed.
+ *
+ * @author Brandon Stiven Jimenez Romero
+ */
+
+package com.example.brandonProject.wire;
+
+import com.example.brandonProject.dictionary.WordRepository;
+import com.example.brandonProject.engine.Alphabet;
+import com.example.brandonProject.engine.GameEngine;
+import com.example.brandonProject.session.GameSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class WireCodecFuzzTest {
+    private static final int ITERATIONS = 20_000;
+    private static final int MAX_FRAMES = 16;  // Tramas por flujo
+    private static final long SEED = 0x5EEDL;
+
+    @Test
+    void statesAndMovesRoundTrip() throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ByteBuffer heap = ByteBuffer.allocate(1 << 20);
+        ByteBuffer direct = ByteBuffer.allocateDirect(1 << 20);
+        WireState state = new WireState();
+        for (int i = 0; i < ITERATIONS; i++) {
+            ByteBuffer buffer = random.nextBoolean() ? heap : direct;
+            long streamSeed = random.nextLong();
+            buffer.clear();
+            write(buffer, new SplittableRandom(streamSeed));
+            buffer.flip();
+            check(buffer, new SplittableRandom(streamSeed), state, i);
+        }
+    }
+
+    @Test
+    void corruptStreamsOnlyThrowIOException() {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        WireState state = new WireState();
+        for (int i = 0; i < ITERATIONS; i++) {
+            buffer.clear();
+            write(buffer, new SplittableRandom(random.nextLong()));
+            buffer.flip();
+
+            //Flujo corrupto: debe decodificarse o rechazarse con IOException, nunca romper el lector
+            int limit = buffer.limit();
+            if (random.nextBoolean()) {
+                buffer.limit(random.nextInt(limit));
+            } else {
+                buffer.put(random.nextInt(limit), (byte) random.nextInt(256));
+            }
+            try {
+                readAll(buffer, state);
+            } catch (IOException e) {
+                //Rechazado como se espera
+            } catch (RuntimeException e) {
+                fail("iteration " + i + ": corrupt stream threw " + e, e);
+            }
+        }
+    }
+
+    @Test
+    void unknownWordIdIsRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("words.txt");
+        Files.write(file, List.of("sol", "luna", "eclipse"));
+        WordRepository words = WordRepository.open(file);
+        WireState state = new WireState();
+        for (int wordId : new int[]{3, 1 << 20}) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            WireCodec.writeState(buffer, wordId, null, Alphabet.LATIN, 0, 0, GameSession.MAX_HELPS);
+            buffer.flip();
+            WireCodec.readState(buffer, state);
+            assertThrows(IOException.class, () -> state.toSession(words));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireCodec.writeState(buffer, 2, null, Alphabet.LATIN, 0, 0, GameSession.MAX_HELPS);
+        buffer.flip();
+        WireCodec.readState(buffer, state);
+        assertEquals("eclipse", state.toSession(words).getGame().getSecretWord());
+    }
+
+    @Test
+    void sessionKeepsTheAlphabetOfTheMask(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("words.txt");
+        Files.write(file, List.of("año"));
+        WordRepository words = WordRepository.open(file);
+        long mask = 1L << Alphabet.SPANISH.letterIndex('ñ');
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireCodec.writeState(buffer, 0, null, Alphabet.SPANISH, mask, 0, GameSession.MAX_HELPS);
+        buffer.flip();
+        WireState state = new WireState();
+        WireCodec.readState(buffer, state);
+        GameSession session = state.toSession(words);
+        assertEquals(Alphabet.SPANISH, session.getGame().getAlphabet());
+        assertEquals("_ñ_", session.getGame().getEngine().maskedWord().toString());
+    }
+
+    private static void write(ByteBuffer out, SplittableRandom random) {
+        WireCodec.writeHeader(out);
+        int frames = random.nextInt(MAX_FRAMES) + 1;
+        for (int f = 0; f < frames; f++) {
+            int type = random.nextInt(3) + 1;
+            if (type == WireCodec.STATE) {
+                boolean inline = random.nextInt(4) == 0;
+                WireCodec.writeState(out, inline ? -1 : randomId(random), inline ? randomWord(random) : null,
+                        randomAlphabet(random), randomMask(random), random.nextInt(GameEngine.MAX_ATTEMPTS + 1),
+                        random.nextInt(GameSession.MAX_HELPS + 1));
+            } else {
+                WireCodec.writeMove(out, type, (char) random.nextInt(Character.MAX_VALUE + 1));
+            }
+        }
+    }
+
+    private static void check(ByteBuffer in, SplittableRandom random, WireState state, int iteration)
+            throws IOException {
+        WireCodec.readHeader(in);
+        int frames = random.nextInt(MAX_FRAMES) + 1;
+        for (int f = 0; f < frames; f++) {
+            String frame = "iteration " + iteration + ", frame " + f;
+            int type = random.nextInt(3) + 1;
+            assertEquals(type, WireCodec.peekType(in), frame);
+            if (type == WireCodec.STATE) {
+                boolean inline = random.nextInt(4) == 0;
+                int id = inline ? -1 : randomId(random);
+                String word = inline ? randomWord(random) : null;
+                Alphabet alphabet = randomAlphabet(random);
+                long mask = randomMask(random);
+                int attempts = random.nextInt(GameEngine.MAX_ATTEMPTS + 1);
+                int helps = random.nextInt(GameSession.MAX_HELPS + 1);
+                WireCodec.readState(in, state);
+                assertEquals(id, state.getWordId(), frame);
+                assertEquals(expectedWord(word), state.getWord(), frame);
+                assertEquals(alphabet, state.getAlphabet(), frame);
+                assertEquals(mask, state.getGuessedMask(), frame);
+                assertEquals(attempts, state.getAttempts(), frame);
+                assertEquals(helps, state.getHelps(), frame);
+            } else {
+                assertEquals((char) random.nextInt(Character.MAX_VALUE + 1), WireCodec.readMove(in), frame);
+            }
+        }
+        assertEquals(0, in.remaining(), "bytes left after the last frame of iteration " + iteration);
+    }
+
+    private static void readAll(ByteBuffer in, WireState state) throws IOException {
+        WireCodec.readHeader(in);
+        while (in.hasRemaining()) {
+            int type = WireCodec.peekType(in);
+            if (type == WireCodec.STATE) {
+                WireCodec.readState(in, state);
+            } else {
+                WireCodec.readMove(in); //Rechaza los tipos desconocidos
+            }
+        }
+    }
+
+    private static String expectedWord(String written) {
+        if (written == null) {
+            return null;
+        }
+        //Los sustitutos sueltos no son UTF-8 valido y se escriben como '?'
+        StringBuilder expected = new StringBuilder(written.length());
+        for (int i = 0; i < written.length(); i++) {
+            char c = written.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < written.length()
+                    && Character.isLowSurrogate(written.charAt(i + 1))) {
+                expected.append(c).append(written.charAt(++i));
+            } else {
+                expected.append(Character.isSurrogate(c) ? '?' : c);
+            }
+        }
+        return expected.toString();
+    }
+
+    private static Alphabet randomAlphabet(SplittableRandom random) {
+        return Alphabet.packs().get(random.nextInt(Alphabet.packs().size()));
+    }
+
+    private static long randomMask(SplittableRandom random) {
+        //Mascaras de 26 letras, de alfabetos mas grandes y de 64 bits completos
+        return random.nextLong() >>> random.nextInt(Long.SIZE);
+    }
+
+    private static int randomId(SplittableRandom random) {
+        //Ids pequeños y grandes para cubrir todos los tamaños de varint
+        return random.nextInt(4) == 0 ? random.nextInt(Integer.MAX_VALUE - 1) : random.nextInt(1 << 14);
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        int length = random.nextInt(8) == 0 ? random.nextInt(4096) : random.nextInt(24);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(4)) {
+                case 0 -> word.append((char) ('a' + random.nextInt(26)));
+                case 1 -> word.append((char) (0xC0 + random.nextInt(0x180)));  // Latin-1 y Latin extendido
+                case 2 -> word.appendCodePoint(0x1F300 + random.nextInt(0x100));  // Par sustituto
+                default -> word.append((char) random.nextInt(Character.MAX_VALUE + 1));
+            }
+        }
+        return word.toString();
+    }
+}